@@ -0,0 +1,210 @@
+package com.example.workitems.api;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Compares the execution modes of {@link ExecutionConfig} under load. For every mode the packaged application is
+ * started on its own, and for every client count that many closed-loop clients send read requests (search, facets,
+ * single item) as fast as the answers come back. Throughput and latency percentiles are reported per mode and client
+ * count; only requests started after the warmup and answered before the end of the run are counted.
+ *
+ * <pre>
+ * mvn -B package -DskipTests          # in backend/, builds target/quarkus-app
+ * java -cp target/benchmarks.jar com.example.workitems.api.ExecutionModeLoad \
+ *     --app ../target/quarkus-app/quarkus-run.jar --clients 1000,5000,10000 --duration 30
+ * </pre>
+ *
+ * Ten thousand clients hold as many connections; raise the open file limit ({@code ulimit -n}) accordingly.
+ */
+public final class ExecutionModeLoad {
+
+    private static final int PORT = 8089;
+    private static final String[] PATHS = {
+            "/api/work-items?basket=TEAM&size=10",
+            "/api/work-items/facets?basket=TEAM",
+            "/api/work-items/WI-3006" };
+
+    private ExecutionModeLoad() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path app = Path.of(option(args, "--app", "../target/quarkus-app/quarkus-run.jar"));
+        String[] modes = option(args, "--modes", "worker,virtual-thread,event-loop").split(",");
+        int[] clientCounts = Arrays.stream(option(args, "--clients", "1000,5000,10000").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Duration warmup = Duration.ofSeconds(Long.parseLong(option(args, "--warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(option(args, "--duration", "30")));
+        if (!Files.isRegularFile(app)) {
+            throw new IllegalArgumentException("Application not found, build it first: " + app);
+        }
+
+        System.out.printf("%-15s %8s %12s %10s %10s %10s %8s%n", "mode", "clients", "requests/s", "p50 ms",
+                "p99 ms", "max ms", "errors");
+        for (String mode : modes) {
+            Process process = start(app, mode);
+            try {
+                awaitReady();
+                for (int clients : clientCounts) {
+                    Result result = run(clients, warmup, duration);
+                    System.out.printf("%-15s %8d %12.0f %10.2f %10.2f %10.2f %8d%n", mode, clients,
+                            result.throughput(), result.percentile(0.50), result.percentile(0.99),
+                            result.percentile(1.0), result.errors());
+                }
+            } finally {
+                process.destroy();
+                process.waitFor(30, TimeUnit.SECONDS);
+            }
+        }
+        System.exit(0);
+    }
+
+    private static Process start(Path app, String mode) throws IOException {
+        return new ProcessBuilder("java", "-Dquarkus.http.port=" + PORT, "-Dworkitems.execution.mode=" + mode,
+                "-Dworkitems.journal.enabled=false", "-jar", app.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    private static void awaitReady() throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(uri(PATHS[2])).build();
+        for (int attempt = 0; attempt < 120; attempt++) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Application did not start on port " + PORT);
+    }
+
+    private static Result run(int clients, Duration warmup, Duration duration) throws InterruptedException {
+        ExecutorService callbacks = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(callbacks)
+                .build();
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Client> running = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Client client = new Client(http, i, measureFrom, measureUntil, errors);
+            running.add(client);
+            client.next();
+        }
+        TimeUnit.NANOSECONDS.sleep(measureUntil - System.nanoTime());
+        running.forEach(Client::stop);
+        // let the requests in flight finish before the next run starts
+        TimeUnit.SECONDS.sleep(2);
+        callbacks.shutdownNow();
+        callbacks.awaitTermination(10, TimeUnit.SECONDS);
+
+        long[] latencies = running.stream().flatMapToLong(Client::latencies).sorted().toArray();
+        return new Result(latencies, latencies.length / (double) duration.toSeconds(), errors.get());
+    }
+
+    private static URI uri(String path) {
+        return URI.create("http://localhost:" + PORT + path);
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Sends one request at a time and the next one when the answer is in. Its callbacks never overlap, so it records
+     * latencies without synchronization.
+     */
+    private static final class Client {
+        private final HttpClient http;
+        private final long measureFrom;
+        private final long measureUntil;
+        private final AtomicLong errors;
+        private long[] latencies = new long[256];
+        private int count;
+        private int sent;
+        private volatile boolean stopped;
+
+        Client(HttpClient http, int index, long measureFrom, long measureUntil, AtomicLong errors) {
+            this.http = http;
+            this.sent = index;
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+            this.errors = errors;
+        }
+
+        void next() {
+            if (stopped) {
+                return;
+            }
+            HttpRequest request = HttpRequest.newBuilder(uri(PATHS[sent++ % PATHS.length]))
+                    .timeout(Duration.ofSeconds(60))
+                    .build();
+            long started = System.nanoTime();
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                long finished = System.nanoTime();
+                if (started >= measureFrom && finished <= measureUntil) {
+                    if (failure != null || response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    } else {
+                        record(finished - started);
+                    }
+                }
+                next();
+            });
+        }
+
+        void stop() {
+            stopped = true;
+        }
+
+        LongStream latencies() {
+            return Arrays.stream(latencies, 0, count);
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    private record Result(long[] latencies, double throughput, long errors) {
+
+        double percentile(double quantile) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(quantile * latencies.length) - 1);
+            return latencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
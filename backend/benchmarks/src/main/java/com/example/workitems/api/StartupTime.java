@@ -0,0 +1,107 @@
+package com.example.workitems.api;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cold start of the packaged application: the time from launching the process until the first
+ * {@code GET /api/work-items} is answered with 200, as a pod scaled up under load sees it. Every run starts a fresh
+ * process without journal, so the state comes from the seed data; the JVM application and the native executable are
+ * measured alike, and either is skipped if it has not been built.
+ *
+ * <pre>
+ * mvn -B package -DskipTests            # in backend/, builds target/quarkus-app
+ * mvn -B package -DskipTests -Dnative   # in backend/, builds target/backend-1.0.0-SNAPSHOT-runner
+ * java -cp target/benchmarks.jar com.example.workitems.api.StartupTime \
+ *     --jvm ../target/quarkus-app/quarkus-run.jar --native ../target/backend-1.0.0-SNAPSHOT-runner --runs 10
+ * </pre>
+ */
+public final class StartupTime {
+
+    private static final int PORT = 8088;
+    private static final URI FIRST_REQUEST = URI.create("http://localhost:" + PORT + "/api/work-items?basket=TEAM");
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private StartupTime() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jvm = Path.of(option(args, "--jvm", "../target/quarkus-app/quarkus-run.jar"));
+        Path executable = Path.of(option(args, "--native", "../target/backend-1.0.0-SNAPSHOT-runner"));
+        int runs = Integer.parseInt(option(args, "--runs", "10"));
+
+        System.out.printf("%-8s %6s %10s %10s %10s%n", "mode", "runs", "min ms", "p50 ms", "max ms");
+        measure("jvm", jvm, runs, List.of("java", "-jar", jvm.toString()));
+        measure("native", executable, runs, List.of(executable.toString()));
+        System.exit(0);
+    }
+
+    private static void measure(String mode, Path app, int runs, List<String> command) throws Exception {
+        if (!Files.isRegularFile(app)) {
+            System.out.printf("%-8s not built: %s%n", mode, app);
+            return;
+        }
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        long[] millis = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            millis[run] = firstResponse(http, command);
+        }
+        Arrays.sort(millis);
+        System.out.printf("%-8s %6d %10d %10d %10d%n", mode, runs, millis[0], millis[(runs - 1) / 2],
+                millis[runs - 1]);
+    }
+
+    /**
+     * Starts the application and polls until the first search succeeds. Returns the milliseconds since the launch.
+     */
+    private static long firstResponse(HttpClient http, List<String> command) throws Exception {
+        List<String> arguments = new ArrayList<>(command);
+        // system properties go before -jar for the JVM and anywhere for a native executable
+        arguments.addAll(1, List.of("-Dquarkus.http.port=" + PORT, "-Dworkitems.journal.enabled=false",
+                "-Dworkitems.follow-ups.enabled=false"));
+        HttpRequest request = HttpRequest.newBuilder(FIRST_REQUEST).timeout(Duration.ofSeconds(5)).build();
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(arguments)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - started < TIMEOUT.toNanos()) {
+                try {
+                    if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue());
+                }
+                Thread.sleep(2);
+            }
+            throw new IllegalStateException("Application did not answer on port " + PORT + " within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+}
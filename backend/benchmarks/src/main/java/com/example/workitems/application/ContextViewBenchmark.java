@@ -0,0 +1,42 @@
+package com.example.workitems.application;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.workitems.dto.ContextViewDto;
+import com.example.workitems.dto.WorkItemDto;
+
+/**
+ * {@code getContextView} of random domain objects with the first page of their protocol. Views of objects that were
+ * read before come from the materialized aggregates, as they do for a detail page that is opened again. With related
+ * objects, the contracts and claims below the object are looked up in the relationship graph and served from their
+ * aggregates as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms16g", "-Xmx16g" })
+public class ContextViewBenchmark {
+
+    private static final int PROTOCOL_LIMIT = 20;
+
+    @Benchmark
+    public ContextViewDto contextView(GeneratedWorkItems data, GeneratedWorkItems.Picks picks) {
+        WorkItemDto item = data.randomItem(picks.random);
+        return data.service.getContextView(item.objectType, item.objectId, PROTOCOL_LIMIT, null);
+    }
+
+    @Benchmark
+    public ContextViewDto contextViewWithRelated(GeneratedWorkItems data, GeneratedWorkItems.Picks picks) {
+        WorkItemDto item = data.randomItem(picks.random);
+        return data.service.getContextView(item.objectType, item.objectId, PROTOCOL_LIMIT, null, 2);
+    }
+}
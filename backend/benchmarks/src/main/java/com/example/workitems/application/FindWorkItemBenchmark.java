@@ -0,0 +1,42 @@
+package com.example.workitems.application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.workitems.dto.WorkItemDto;
+
+/**
+ * Lookups by id: a single item as for the detail page and a batch of 50 as for a refreshed selection.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms16g", "-Xmx16g" })
+public class FindWorkItemBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Benchmark
+    public WorkItemDto byId(GeneratedWorkItems data, GeneratedWorkItems.Picks picks) {
+        return data.service.getWorkItemById(data.randomItem(picks.random).id);
+    }
+
+    @Benchmark
+    public List<WorkItemDto> batch(GeneratedWorkItems data, GeneratedWorkItems.Picks picks) {
+        List<String> ids = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ids.add(data.randomItem(picks.random).id);
+        }
+        return data.service.getWorkItemsByIds(ids);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.workitems.application;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.workitems.dto.WorkItemDto;
+
+/**
+ * A service loaded with generated work items, shared by all benchmark threads of a trial.
+ */
+@State(Scope.Benchmark)
+public class GeneratedWorkItems {
+
+    static final long SEED = 20240601L;
+
+    @Param({ "10000", "100000", "1000000", "5000000" })
+    public int itemCount;
+
+    /**
+     * Partitions of the indexes; {@code 0} for one per processor, as the application does by default.
+     */
+    @Param({ "0" })
+    public int partitions;
+
+    WorkItemService service;
+    List<WorkItemDto> items;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        WorkItemJournal.Snapshot state = WorkItemDataGenerator.generate(itemCount, SEED);
+        items = state.items();
+        service = new WorkItemService();
+        service.load(state, partitions == 0
+                ? WorkItemStore.Partitioning.perProcessor()
+                : new WorkItemStore.Partitioning(partitions, WorkItemStore.Partitioning.DEFAULT_PARALLEL_THRESHOLD,
+                        ForkJoinPool.commonPool()));
+    }
+
+    WorkItemDto randomItem(SplittableRandom random) {
+        return items.get(random.nextInt(items.size()));
+    }
+
+    /**
+     * Per-thread source of random picks, so threads do not contend on one generator.
+     */
+    @State(Scope.Thread)
+    public static class Picks {
+        final SplittableRandom random = new SplittableRandom(SEED);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.workitems.application;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.workitems.dto.WorkItemDto;
+
+/**
+ * Reports the heap retained by a service loaded with generated work items. The generator shares repeated strings
+ * between items; the items are copied field by field first, so the state looks like one decoded from the journal or
+ * from JSON, where every item brings its own strings.
+ *
+ * <pre>
+ * java -Xmx4g -cp target/benchmarks.jar com.example.workitems.application.HeapFootprint 1000000
+ * </pre>
+ */
+public final class HeapFootprint {
+
+    private HeapFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int itemCount = args.length == 0 ? 1_000_000 : Integer.parseInt(args[0]);
+        long before = usedHeap();
+
+        WorkItemJournal.Snapshot generated = WorkItemDataGenerator.generate(itemCount, GeneratedWorkItems.SEED);
+        List<WorkItemDto> items = new ArrayList<>(generated.items().size());
+        generated.items().forEach(item -> items.add(decoded(item)));
+        WorkItemService service = new WorkItemService();
+        service.load(new WorkItemJournal.Snapshot(0, items, generated.documents(), generated.protocol()));
+        generated = null;
+        items.clear();
+
+        long retained = usedHeap() - before;
+        System.out.printf("%,d items: %,d MiB retained, %,d bytes per item%n", itemCount, retained >> 20,
+                retained / itemCount);
+        // keep the service reachable until it has been measured
+        System.out.println(service.getWorkItemById("WI-0000001").id);
+        // the change feed's worker pool would keep the JVM alive
+        System.exit(0);
+    }
+
+    private static WorkItemDto decoded(WorkItemDto item) {
+        WorkItemDto copy = new WorkItemDto(copy(item.id), item.objectType, copy(item.objectId), copy(item.objectLabel),
+                copy(item.customerName), copy(item.contractNo), copy(item.claimNo), copy(item.title),
+                copy(item.description), item.status, item.priority, item.receivedAt, item.dueAt,
+                copy(item.assignedTo), copy(item.team));
+        copy.version = item.version;
+        return copy;
+    }
+
+    private static String copy(String value) {
+        return value == null ? null : new String(value);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.workitems.application;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.workitems.api.WorkItemsPageWriter;
+import com.example.workitems.dto.WorkItemsPageDto;
+import com.example.workitems.model.BasketScope;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writing a polled page of the team basket as JSON: serialized by Jackson as a whole, and assembled from the cached
+ * JSON of its items by {@link WorkItemsPageWriter}. The page does not change between calls, as for clients polling an
+ * unchanged basket. The store size does not matter here; run it with e.g. {@code -p itemCount=100000}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms16g", "-Xmx16g" })
+public class PageSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Benchmark
+    public int jackson(Page page) throws IOException {
+        page.out.reset();
+        page.mapper.writeValue(page.out, page.page);
+        return page.out.size();
+    }
+
+    @Benchmark
+    public int cachedItems(Page page) throws IOException {
+        page.out.reset();
+        page.writer.writeTo(page.page, WorkItemsPageDto.class, WorkItemsPageDto.class, null, null, null, page.out);
+        return page.out.size();
+    }
+
+    @State(Scope.Thread)
+    public static class Page {
+        // configured like the mapper Quarkus provides
+        final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        final WorkItemsPageWriter writer = new WorkItemsPageWriter(mapper);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        WorkItemsPageDto page;
+
+        @Setup(Level.Trial)
+        public void search(GeneratedWorkItems data) {
+            page = data.service.searchWorkItems(0, PAGE_SIZE, "receivedAt,desc", null, true, null, null,
+                    BasketScope.TEAM, null, null, null);
+        }
+    }
+}
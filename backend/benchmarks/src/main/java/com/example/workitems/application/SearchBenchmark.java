@@ -0,0 +1,110 @@
+package com.example.workitems.application;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.workitems.dto.WorkItemsPageDto;
+import com.example.workitems.model.BasketScope;
+import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemStatus;
+
+/**
+ * {@code searchWorkItems}: first pages of every filter combination, text search in both sort orders and a page in the
+ * middle of the team basket, reached by offset and by cursor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms16g", "-Xmx16g" })
+public class SearchBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+    private static final String DEFAULT_SORT = "receivedAt,desc";
+
+    @Benchmark
+    public WorkItemsPageDto firstPage(GeneratedWorkItems data, Filter filter) {
+        return data.service.searchWorkItems(0, PAGE_SIZE, DEFAULT_SORT, null, true, null, filter.status, filter.basket,
+                filter.colleague, filter.objectType, filter.objectId);
+    }
+
+    @Benchmark
+    public WorkItemsPageDto textSearch(GeneratedWorkItems data) {
+        return data.service.searchWorkItems(0, PAGE_SIZE, DEFAULT_SORT, null, true, "sepa", null, BasketScope.TEAM,
+                null, null, null);
+    }
+
+    @Benchmark
+    public WorkItemsPageDto textSearchByRelevance(GeneratedWorkItems data) {
+        return data.service.searchWorkItems(0, PAGE_SIZE, "relevance", null, true, "müller", null, BasketScope.TEAM,
+                null, null, null);
+    }
+
+    @Benchmark
+    public WorkItemsPageDto deepPageByOffset(GeneratedWorkItems data, DeepPage deepPage) {
+        return data.service.searchWorkItems(deepPage.page, PAGE_SIZE, DEFAULT_SORT, null, false, null, null,
+                BasketScope.TEAM, null, null, null);
+    }
+
+    @Benchmark
+    public WorkItemsPageDto deepPageByCursor(GeneratedWorkItems data, DeepPage deepPage) {
+        return data.service.searchWorkItems(0, PAGE_SIZE, DEFAULT_SORT, deepPage.cursor, false, null, null,
+                BasketScope.TEAM, null, null, null);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Filter {
+
+        @Param({ "MY", "MY_OPEN", "TEAM", "TEAM_BLOCKED", "COLLEAGUE", "OBJECT_TYPE", "OBJECT" })
+        public String filter;
+
+        BasketScope basket;
+        WorkItemStatus status;
+        String colleague;
+        DomainObjectType objectType;
+        String objectId;
+
+        @Setup(Level.Trial)
+        public void resolve() {
+            basket = filter.startsWith("MY") ? BasketScope.MY
+                    : filter.equals("COLLEAGUE") ? BasketScope.COLLEAGUE : BasketScope.TEAM;
+            status = filter.equals("MY_OPEN") ? WorkItemStatus.OPEN
+                    : filter.equals("TEAM_BLOCKED") ? WorkItemStatus.BLOCKED : null;
+            colleague = basket == BasketScope.COLLEAGUE ? "eva" : null;
+            objectType = filter.startsWith("OBJECT") ? DomainObjectType.CLAIM : null;
+            objectId = filter.equals("OBJECT") ? "S-0000001" : null;
+        }
+    }
+
+    /**
+     * The page in the middle of the team basket and the cursor that leads to it.
+     */
+    @State(Scope.Benchmark)
+    public static class DeepPage {
+        int page;
+        String cursor;
+
+        @Setup(Level.Trial)
+        public void locate(GeneratedWorkItems data) {
+            long total = data.service.searchWorkItems(0, 1, DEFAULT_SORT, null, true, null, null, BasketScope.TEAM,
+                    null, null, null).total;
+            page = (int) (total / PAGE_SIZE / 2);
+            for (int i = 0; i < page; i++) {
+                cursor = data.service.searchWorkItems(0, PAGE_SIZE, DEFAULT_SORT, cursor, false, null, null,
+                        BasketScope.TEAM, null, null, null).nextCursor;
+            }
+        }
+    }
+}
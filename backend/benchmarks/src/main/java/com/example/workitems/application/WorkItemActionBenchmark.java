@@ -0,0 +1,43 @@
+package com.example.workitems.application;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.workitems.dto.WorkItemActionCommand;
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.WorkItemActionType;
+
+/**
+ * {@code performWorkItemAction} on random items, alternating between starting and forwarding, with the journal
+ * disabled. Every action also appends a protocol entry, so the heap grows with the number of operations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms16g", "-Xmx16g" })
+public class WorkItemActionBenchmark {
+
+    private static final WorkItemActionCommand START = command(WorkItemActionType.START, null);
+    private static final WorkItemActionCommand FORWARD = command(WorkItemActionType.FORWARD, "Eva");
+
+    @Benchmark
+    public WorkItemDto performAction(GeneratedWorkItems data, GeneratedWorkItems.Picks picks) {
+        WorkItemActionCommand command = picks.random.nextBoolean() ? START : FORWARD;
+        return data.service.performWorkItemAction(data.randomItem(picks.random).id, command);
+    }
+
+    private static WorkItemActionCommand command(WorkItemActionType action, String assignee) {
+        WorkItemActionCommand command = new WorkItemActionCommand();
+        command.action = action;
+        command.assignee = assignee;
+        return command;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.workitems.application;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import com.example.workitems.dto.DocumentDto;
+import com.example.workitems.dto.ProtocolEntryDto;
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemStatus;
+
+/**
+ * Deterministic generator of work items, documents and protocol entries modelled on the seed data: customers with
+ * contracts and claims, tasks on all three, four teams and a hundred assignees (the current user among them). The
+ * same size and seed always produce the same state. Repeated values such as names and titles are shared instances, so
+ * millions of items fit a benchmark heap.
+ */
+final class WorkItemDataGenerator {
+
+    static final List<String> TEAMS = List.of("Leistung-Team Nord", "Leistung-Team Süd", "Leistung-Team Ost",
+            "Leistung-Team West");
+
+    private static final List<String> FIRST_NAMES = List.of("Alice", "Bob", "Clara", "Daniel", "Eva", "Felix",
+            "Greta", "Hannes", "Ida", "Jonas", "Katrin", "Lukas", "Mia", "Niklas", "Olga", "Paul", "Quirin", "Rita",
+            "Stefan", "Tanja");
+    private static final List<String> SURNAMES = List.of("Müller", "Schmidt", "Schneider", "Fischer", "Weber",
+            "Meyer", "Wagner", "Becker", "Schulz", "Hoffmann", "Schäfer", "Koch", "Bauer", "Richter", "Klein", "Wolf",
+            "Schröder", "Neumann", "Schwarz", "Zimmermann");
+    private static final List<String> LEGAL_FORMS = List.of("GmbH", "AG", "KG", "e.K.", "GmbH & Co. KG");
+    private static final Map<DomainObjectType, List<String[]>> TASKS = Map.of(
+            DomainObjectType.CUSTOMER, List.of(
+                    new String[] { "Adressänderung prüfen", "Neue Korrespondenzadresse validieren." },
+                    new String[] { "SEPA-Mandat nachfordern", "Fehlende Einzugsermächtigung für Folgebeitrag." },
+                    new String[] { "Bankverbindung aktualisieren", "Neue IBAN aus Kundenschreiben übernehmen." },
+                    new String[] { "Beschwerde beantworten", "Rückmeldung zur Beitragsanpassung formulieren." }),
+            DomainObjectType.CONTRACT, List.of(
+                    new String[] { "Beitrag neu berechnen", "Nachtragsangebot wegen Tarifwechsel." },
+                    new String[] { "SEPA-Mandat nachhalten", "Mandat fehlt in den Stammdaten." },
+                    new String[] { "Kündigung bearbeiten", "Fristgerechte Kündigung zum Ablauf prüfen." },
+                    new String[] { "Vertragsverlängerung prüfen", "Verlängerungsangebot aus Bestand bewerten." }),
+            DomainObjectType.CLAIM, List.of(
+                    new String[] { "Deckungsprüfung finalisieren", "Eingegangene Fotos und Kostenvoranschlag bewerten." },
+                    new String[] { "Regress prüfen", "Prüfung gegen Drittschädiger einleiten." },
+                    new String[] { "Gutachten anfordern", "Sachverständigen für Schadenbesichtigung beauftragen." },
+                    new String[] { "Zahlung freigeben", "Regulierungsbetrag nach Prüfung anweisen." }));
+    private static final WorkItemStatus[] STATUSES = { WorkItemStatus.OPEN, WorkItemStatus.OPEN, WorkItemStatus.OPEN,
+            WorkItemStatus.OPEN, WorkItemStatus.IN_PROGRESS, WorkItemStatus.IN_PROGRESS, WorkItemStatus.IN_PROGRESS,
+            WorkItemStatus.BLOCKED, WorkItemStatus.DONE, WorkItemStatus.DONE };
+    private static final OffsetDateTime START = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final int ASSIGNEES = 100;
+    private static final int MINUTES_PER_YEAR = 365 * 24 * 60;
+
+    private WorkItemDataGenerator() {
+    }
+
+    /**
+     * Generates {@code itemCount} work items. About one domain object in ten gets documents and protocol entries.
+     */
+    static WorkItemJournal.Snapshot generate(int itemCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<String> assignees = assignees();
+        List<WorkItemDto> items = new ArrayList<>(itemCount);
+        Map<String, List<DocumentDto>> documents = new HashMap<>();
+        Map<String, List<ProtocolEntryDto>> protocol = new HashMap<>();
+
+        Customer customer = null;
+        int customerNo = 0;
+        while (items.size() < itemCount) {
+            if (customer == null || random.nextInt(4) == 0) {
+                customer = customer(++customerNo, random);
+            }
+            int objectKind = random.nextInt(10);
+            DomainObjectType objectType = objectKind < 3
+                    ? DomainObjectType.CUSTOMER
+                    : objectKind < 7 ? DomainObjectType.CONTRACT : DomainObjectType.CLAIM;
+            String objectId = switch (objectType) {
+                case CUSTOMER -> customer.id;
+                case CONTRACT -> customer.contractNo;
+                case CLAIM -> customer.claimNo;
+            };
+            String label = switch (objectType) {
+                case CUSTOMER -> customer.customerLabel;
+                case CONTRACT -> customer.contractLabel;
+                case CLAIM -> customer.claimLabel;
+            };
+            String[] task = pick(TASKS.get(objectType), random);
+            OffsetDateTime receivedAt = START.plusMinutes(random.nextInt(MINUTES_PER_YEAR));
+            int assignee = random.nextInt(ASSIGNEES);
+            items.add(new WorkItemDto("WI-%07d".formatted(items.size() + 1), objectType, objectId, label,
+                    customer.name, customer.contractNo, customer.claimNo, task[0], task[1],
+                    STATUSES[random.nextInt(STATUSES.length)], 1 + random.nextInt(3), receivedAt,
+                    receivedAt.plusDays(1 + random.nextInt(21)), assignees.get(assignee),
+                    TEAMS.get(assignee % TEAMS.size())));
+
+            String key = WorkItemService.contextKey(objectType, objectId);
+            if (random.nextInt(10) == 0 && !protocol.containsKey(key)) {
+                documents.put(key, documents(key, receivedAt, assignees.get(assignee), random));
+                protocol.put(key, protocol(key, receivedAt, random));
+            }
+        }
+        return new WorkItemJournal.Snapshot(0, items, documents, protocol);
+    }
+
+    private static List<String> assignees() {
+        List<String> assignees = new ArrayList<>(ASSIGNEES);
+        // the seed users first; Alice is the current user and in the first team
+        for (int i = 0; assignees.size() < ASSIGNEES; i++) {
+            String first = FIRST_NAMES.get(i % FIRST_NAMES.size());
+            assignees.add(i < FIRST_NAMES.size() ? first : first + " " + SURNAMES.get(i / FIRST_NAMES.size()));
+        }
+        return assignees;
+    }
+
+    private static Customer customer(int number, SplittableRandom random) {
+        String name = pick(SURNAMES, random) + " " + pick(LEGAL_FORMS, random);
+        return new Customer("K-%07d".formatted(number), name.intern(), "V-%07d".formatted(number),
+                "S-%07d".formatted(number));
+    }
+
+    private static List<DocumentDto> documents(String key, OffsetDateTime receivedAt, String uploadedBy,
+            SplittableRandom random) {
+        int count = 1 + random.nextInt(3);
+        List<DocumentDto> documents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            documents.add(new DocumentDto("DOC-" + key + "-" + i, "Anlage_%02d.pdf".formatted(i + 1),
+                    "application/pdf", 10_000 + random.nextInt(2_000_000), List.of("Anlage", "Schaden"),
+                    receivedAt.minusMinutes(10L * (i + 1)), uploadedBy));
+        }
+        return documents;
+    }
+
+    private static List<ProtocolEntryDto> protocol(String key, OffsetDateTime receivedAt, SplittableRandom random) {
+        int count = 1 + random.nextInt(5);
+        List<ProtocolEntryDto> entries = new ArrayList<>(count);
+        for (int i = count; i > 0; i--) {
+            entries.add(new ProtocolEntryDto("LOG-" + key + "-" + i, receivedAt.plusHours(i), "Fachprotokoll",
+                    "Bearbeitungsschritt %d dokumentiert.".formatted(i)));
+        }
+        return entries;
+    }
+
+    private static <T> T pick(List<T> values, SplittableRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static final class Customer {
+        private final String id;
+        private final String name;
+        private final String contractNo;
+        private final String claimNo;
+        private final String customerLabel;
+        private final String contractLabel;
+        private final String claimLabel;
+
+        private Customer(String id, String name, String contractNo, String claimNo) {
+            this.id = id;
+            this.name = name;
+            this.contractNo = contractNo;
+            this.claimNo = claimNo;
+            this.customerLabel = "Kunde " + id;
+            this.contractLabel = "Vertrag " + contractNo;
+            this.claimLabel = "Schaden " + claimNo;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.workitems.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.example.workitems.loadtest.Workload.Operation;
+
+/**
+ * Load test of the full HTTP stack: starts the packaged backend, replays the clerk {@link Workload} at a fixed
+ * arrival rate with the {@link OpenModelDriver} and writes the {@link LatencyReport}. The exit status is 1 if an
+ * endpoint exceeds its p99 budget or a request failed, so the run can gate a rollout.
+ *
+ * <pre>
+ * mvn -B package -DskipTests     # in backend/, builds target/quarkus-app
+ * mvn -B package                 # in backend/loadtest/
+ * java -jar target/loadtest.jar --rate 200 --warmup 30 --duration 60 --max-p99 250
+ * </pre>
+ *
+ * Options:
+ * <ul>
+ * <li>{@code --app} the packaged backend, default {@code ../target/quarkus-app/quarkus-run.jar}</li>
+ * <li>{@code --url} an already running backend to test instead of starting one</li>
+ * <li>{@code --rate} requests per second, default 100</li>
+ * <li>{@code --warmup}, {@code --duration} seconds, default 30 and 60</li>
+ * <li>{@code --mix} weights per operation, default {@value Workload#DEFAULT_MIX}</li>
+ * <li>{@code --upload-kb} size of an uploaded document, default 64</li>
+ * <li>{@code --max-p99} p99 budget in milliseconds, for all endpoints or as {@code operation=millis,...}</li>
+ * <li>{@code --output} report directory, default {@code target/loadtest}</li>
+ * <li>{@code --seed} seed of arrivals and request choice, default 42</li>
+ * </ul>
+ */
+public final class ClerkLoadTest {
+
+    private static final int PORT = 8090;
+
+    private ClerkLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path app = Path.of(option(args, "--app", "../target/quarkus-app/quarkus-run.jar"));
+        String url = option(args, "--url", null);
+        double rate = Double.parseDouble(option(args, "--rate", "100"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(option(args, "--warmup", "30")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(option(args, "--duration", "60")));
+        String mix = option(args, "--mix", Workload.DEFAULT_MIX);
+        int uploadKb = Integer.parseInt(option(args, "--upload-kb", "64"));
+        String maxP99 = option(args, "--max-p99", "");
+        Path output = Path.of(option(args, "--output", "target/loadtest"));
+        long seed = Long.parseLong(option(args, "--seed", "42"));
+
+        Map<Operation, Double> budget = LatencyReport.budget(maxP99);
+        Workload workload = new Workload(URI.create(url == null ? "http://localhost:" + PORT + "/" : url),
+                Workload.mix(mix), uploadKb * 1024);
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("target", url == null ? app.toString() : url);
+        settings.put("ratePerSecond", rate);
+        settings.put("warmupSeconds", warmup.toSeconds());
+        settings.put("durationSeconds", duration.toSeconds());
+        settings.put("mix", mix);
+        settings.put("uploadKb", uploadKb);
+        settings.put("seed", seed);
+
+        Process process = url == null ? start(app, output.toAbsolutePath().resolve("documents")) : null;
+        ExecutorService callbacks = OpenModelDriver.callbacks();
+        List<String> violations;
+        try {
+            HttpClient http = OpenModelDriver.httpClient(callbacks);
+            awaitReady(http, workload);
+            OpenModelDriver.Result result = new OpenModelDriver(http, workload, rate, seed).run(warmup, duration);
+            LatencyReport report = new LatencyReport(result, settings, budget);
+            report.printSummary(System.out);
+            report.write(output);
+            System.out.println("Report: " + output.resolve("report.html").toAbsolutePath());
+            violations = report.violations();
+        } finally {
+            callbacks.shutdownNow();
+            if (process != null) {
+                process.destroy();
+                process.waitFor(30, TimeUnit.SECONDS);
+            }
+        }
+        violations.forEach(violation -> System.out.println("FAILED " + violation));
+        System.exit(violations.isEmpty() ? 0 : 1);
+    }
+
+    private static Process start(Path app, Path documents) throws IOException {
+        if (!Files.isRegularFile(app)) {
+            throw new IllegalArgumentException("Application not found, build it first: " + app);
+        }
+        // uploads go to a directory of the test run, not to the data of a local backend
+        return new ProcessBuilder("java", "-Dquarkus.http.port=" + PORT, "-Dworkitems.journal.enabled=false",
+                "-Dworkitems.documents.directory=" + documents, "-jar", app.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    private static void awaitReady(HttpClient http, Workload workload) throws InterruptedException {
+        HttpRequest request = workload.request(Operation.searchWorkItems, new Random(0));
+        for (int attempt = 0; attempt < 120; attempt++) {
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Backend did not answer at " + request.uri());
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) {
+                return args[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+}
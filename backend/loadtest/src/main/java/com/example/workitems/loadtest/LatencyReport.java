@@ -0,0 +1,217 @@
+package com.example.workitems.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import com.example.workitems.loadtest.OpenModelDriver.Result;
+import com.example.workitems.loadtest.Workload.Operation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Latency percentiles per endpoint of a load test run, written as {@code report.json} for tooling and
+ * {@code report.html} for people. Both carry the full percentile distribution of every endpoint; the HTML report
+ * additionally has it in the text format of HdrHistogram, which its plotter reads.
+ */
+final class LatencyReport {
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9, 100 };
+
+    private final Result result;
+    private final Map<String, Object> settings;
+    private final Map<Operation, Double> p99BudgetMillis;
+
+    LatencyReport(Result result, Map<String, Object> settings, Map<Operation, Double> p99BudgetMillis) {
+        this.result = result;
+        this.settings = settings;
+        this.p99BudgetMillis = p99BudgetMillis;
+    }
+
+    /**
+     * Parses a p99 budget in milliseconds, either one value for every endpoint ({@code 250}) or values per endpoint
+     * ({@code searchWorkItems=50,getContextView=80}). An empty budget checks nothing.
+     */
+    static Map<Operation, Double> budget(String budget) {
+        Map<Operation, Double> millis = new EnumMap<>(Operation.class);
+        if (budget == null || budget.isBlank()) {
+            return millis;
+        }
+        if (!budget.contains("=")) {
+            double all = Double.parseDouble(budget.trim());
+            for (Operation operation : Operation.values()) {
+                millis.put(operation, all);
+            }
+            return millis;
+        }
+        for (String entry : budget.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid budget, expected operation=millis: " + entry);
+            }
+            millis.put(Operation.valueOf(parts[0].trim()), Double.parseDouble(parts[1].trim()));
+        }
+        return millis;
+    }
+
+    /**
+     * The endpoints whose p99 exceeds their budget or that had failed requests, each with the reason.
+     */
+    List<String> violations() {
+        List<String> violations = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = result.histograms().get(operation);
+            long errors = result.errors().get(operation);
+            if (errors > 0) {
+                violations.add("%s: %d failed requests".formatted(operation, errors));
+            }
+            Double budget = p99BudgetMillis.get(operation);
+            if (budget != null && histogram.getTotalCount() > 0 && millis(histogram, 99) > budget) {
+                violations.add("%s: p99 %.2f ms exceeds %.2f ms".formatted(operation, millis(histogram, 99),
+                        budget));
+            }
+        }
+        if (result.abandoned() > 0) {
+            violations.add("%d requests did not complete".formatted(result.abandoned()));
+        }
+        return violations;
+    }
+
+    void printSummary(PrintStream out) {
+        out.printf("%-22s %9s %8s %10s %10s %10s %10s %10s%n", "operation", "requests", "errors", "p50 ms",
+                "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = result.histograms().get(operation);
+            if (histogram.getTotalCount() == 0 && result.errors().get(operation) == 0) {
+                continue;
+            }
+            out.printf("%-22s %9d %8d %10.2f %10.2f %10.2f %10.2f %10.2f%n", operation, histogram.getTotalCount(),
+                    result.errors().get(operation), millis(histogram, 50), millis(histogram, 90),
+                    millis(histogram, 99), millis(histogram, 99.9), millis(histogram, 100));
+        }
+        out.printf("driver lag max %.2f ms, %d requests abandoned%n", result.maxDispatchLagMicros() / 1000.0,
+                result.abandoned());
+    }
+
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directory.resolve("report.json").toFile(), json());
+        Files.writeString(directory.resolve("report.html"), html());
+    }
+
+    private Map<String, Object> json() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("createdAt", OffsetDateTime.now().toString());
+        report.put("settings", settings);
+        report.put("sent", result.sent());
+        report.put("throughputPerSecond", result.sent() / (double) result.duration().toSeconds());
+        report.put("maxDispatchLagMillis", result.maxDispatchLagMicros() / 1000.0);
+        report.put("abandoned", result.abandoned());
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = result.histograms().get(operation);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("requests", histogram.getTotalCount());
+            entry.put("errors", result.errors().get(operation));
+            entry.put("meanMillis", histogram.getTotalCount() == 0 ? 0 : histogram.getMean() / 1000.0);
+            for (double percentile : PERCENTILES) {
+                entry.put(label(percentile) + "Millis", millis(histogram, percentile));
+            }
+            entry.put("p99BudgetMillis", p99BudgetMillis.get(operation));
+            List<Map<String, Object>> distribution = new ArrayList<>();
+            if (histogram.getTotalCount() > 0) {
+                for (HistogramIterationValue value : histogram.percentiles(5)) {
+                    distribution.add(Map.of("percentile", value.getPercentileLevelIteratedTo(),
+                            "millis", value.getValueIteratedTo() / 1000.0));
+                }
+            }
+            entry.put("distribution", distribution);
+            operations.put(operation.name(), entry);
+        }
+        report.put("operations", operations);
+        report.put("violations", violations());
+        return report;
+    }
+
+    private String html() {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n<html lang=\"de\">\n<head>\n<meta charset=\"utf-8\">\n")
+                .append("<title>Lasttest Work Items</title>\n<style>\n")
+                .append("body { font-family: sans-serif; margin: 2rem; }\n")
+                .append("table { border-collapse: collapse; }\n")
+                .append("th, td { border: 1px solid #ccc; padding: 0.3rem 0.6rem; text-align: right; }\n")
+                .append("th:first-child, td:first-child { text-align: left; }\n")
+                .append(".over { background: #fdd; }\n")
+                .append("</style>\n</head>\n<body>\n<h1>Lasttest Work Items</h1>\n<p>");
+        settings.forEach((name, value) -> html.append(name).append(": ").append(value).append("<br>\n"));
+        html.append("Gesendet: ").append(result.sent())
+                .append(", maximaler Rückstand des Lastgenerators: ")
+                .append("%.2f ms".formatted(result.maxDispatchLagMicros() / 1000.0))
+                .append(", nicht beendet: ").append(result.abandoned()).append("</p>\n");
+        html.append("<table>\n<tr><th>Operation</th><th>Anfragen</th><th>Fehler</th>");
+        for (double percentile : PERCENTILES) {
+            html.append("<th>").append(label(percentile)).append(" ms</th>");
+        }
+        html.append("<th>p99-Budget ms</th></tr>\n");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = result.histograms().get(operation);
+            Double budget = p99BudgetMillis.get(operation);
+            boolean over = budget != null && histogram.getTotalCount() > 0 && millis(histogram, 99) > budget;
+            html.append(over ? "<tr class=\"over\">" : "<tr>")
+                    .append("<td>").append(operation).append("</td>")
+                    .append("<td>").append(histogram.getTotalCount()).append("</td>")
+                    .append("<td>").append(result.errors().get(operation)).append("</td>");
+            for (double percentile : PERCENTILES) {
+                html.append("<td>%.2f</td>".formatted(millis(histogram, percentile)));
+            }
+            html.append("<td>").append(budget == null ? "" : "%.2f".formatted(budget)).append("</td></tr>\n");
+        }
+        html.append("</table>\n");
+        List<String> violations = violations();
+        if (!violations.isEmpty()) {
+            html.append("<h2>Verletzungen</h2>\n<ul>\n");
+            violations.forEach(violation -> html.append("<li>").append(violation).append("</li>\n"));
+            html.append("</ul>\n");
+        }
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = result.histograms().get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            ByteArrayOutputStream distribution = new ByteArrayOutputStream();
+            histogram.outputPercentileDistribution(new PrintStream(distribution, true, StandardCharsets.UTF_8), 5,
+                    1000.0);
+            html.append("<h2>").append(operation).append("</h2>\n<pre>")
+                    .append(distribution.toString(StandardCharsets.UTF_8)).append("</pre>\n");
+        }
+        return html.append("</body>\n</html>\n").toString();
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        if (histogram.getTotalCount() == 0) {
+            return 0;
+        }
+        long micros = percentile >= 100 ? histogram.getMaxValue() : histogram.getValueAtPercentile(percentile);
+        return micros / 1000.0;
+    }
+
+    private static String label(double percentile) {
+        if (percentile >= 100) {
+            return "max";
+        }
+        return percentile == Math.rint(percentile) ? "p" + (long) percentile : "p" + percentile;
+    }
+}
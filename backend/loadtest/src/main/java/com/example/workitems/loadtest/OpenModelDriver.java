@@ -0,0 +1,134 @@
+package com.example.workitems.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.example.workitems.loadtest.Workload.Operation;
+
+/**
+ * Sends requests at a fixed mean arrival rate, independent of how fast the backend answers (open model). Arrivals are
+ * a Poisson process: the gaps between intended start times are drawn from an exponential distribution. A request's
+ * latency is measured from its intended start, not from when it was actually sent, so a stall of the backend or of
+ * this driver shows up in the percentiles instead of silently delaying the following requests (coordinated
+ * omission).
+ */
+final class OpenModelDriver {
+
+    /**
+     * Latencies are recorded in microseconds up to the request timeout.
+     */
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final HttpClient http;
+    private final Workload workload;
+    private final double ratePerSecond;
+    private final long seed;
+
+    OpenModelDriver(HttpClient http, Workload workload, double ratePerSecond, long seed) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("The arrival rate must be positive");
+        }
+        this.http = http;
+        this.workload = workload;
+        this.ratePerSecond = ratePerSecond;
+        this.seed = seed;
+    }
+
+    static HttpClient httpClient(ExecutorService callbacks) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(callbacks)
+                .build();
+    }
+
+    static ExecutorService callbacks() {
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Runs the workload for the warmup and the measured duration and waits for the requests in flight. Only requests
+     * intended to start within the measured duration are counted.
+     */
+    Result run(Duration warmup, Duration duration) throws InterruptedException {
+        Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+        }
+        AtomicLongArray errors = new AtomicLongArray(Operation.values().length);
+        AtomicInteger inFlight = new AtomicInteger();
+        Random random = new Random(seed);
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        long maxLagNanos = 0;
+        long sent = 0;
+        double intended = start;
+        while (intended < measureUntil) {
+            long intendedStart = (long) intended;
+            long lag = System.nanoTime() - intendedStart;
+            if (lag < 0) {
+                LockSupport.parkNanos(-lag);
+            } else if (intendedStart >= measureFrom) {
+                maxLagNanos = Math.max(maxLagNanos, lag);
+            }
+            Operation operation = workload.next(random);
+            HttpRequest request = workload.request(operation, random);
+            boolean measured = intendedStart >= measureFrom;
+            inFlight.incrementAndGet();
+            http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+                if (measured) {
+                    if (failure != null || !Workload.succeeded(response.statusCode())) {
+                        errors.incrementAndGet(operation.ordinal());
+                    } else {
+                        recorders.get(operation).recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+                    }
+                }
+                inFlight.decrementAndGet();
+            });
+            if (measured) {
+                sent++;
+            }
+            intended += -Math.log(1 - random.nextDouble()) * meanGapNanos;
+        }
+        long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(35);
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        Map<Operation, Long> errorCounts = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> {
+            histograms.put(operation, recorder.getIntervalHistogram());
+            errorCounts.put(operation, errors.get(operation.ordinal()));
+        });
+        return new Result(histograms, errorCounts, sent, duration, TimeUnit.NANOSECONDS.toMicros(maxLagNanos),
+                inFlight.get());
+    }
+
+    /**
+     * The measured latencies and failed requests per operation. {@code maxDispatchLagMicros} is how far the driver
+     * itself fell behind the schedule; if it is large, the machine running the test was the bottleneck.
+     * {@code abandoned} counts requests that had not completed when the results were taken.
+     */
+    record Result(Map<Operation, Histogram> histograms, Map<Operation, Long> errors, long sent, Duration duration,
+            long maxDispatchLagMicros, int abandoned) {
+    }
+}
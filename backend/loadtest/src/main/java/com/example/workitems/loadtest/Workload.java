@@ -0,0 +1,143 @@
+package com.example.workitems.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The requests of clerks working through their baskets: they poll their worklist, open the context of a work item,
+ * act on it and now and then upload a document to the object. Which request comes next is drawn from weights per
+ * operation; the work items and objects are those of the seed data every fresh backend starts with.
+ */
+final class Workload {
+
+    /**
+     * The replayed endpoints, named by their OpenAPI operation id.
+     */
+    enum Operation {
+        searchWorkItems,
+        getContextView,
+        performWorkItemAction,
+        uploadDocument
+    }
+
+    static final String DEFAULT_MIX = "searchWorkItems=60,getContextView=25,performWorkItemAction=10,uploadDocument=5";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String[] WORKLISTS = {
+            "basket=MY", "basket=MY", "basket=MY&status=OPEN", "basket=TEAM", "basket=TEAM&sort=dueAt,asc",
+            "basket=COLLEAGUE&colleague=Bob" };
+    private static final String[] WORK_ITEMS = { "WI-3001", "WI-3002", "WI-3003", "WI-3004", "WI-3006" };
+    private static final String[] OBJECTS = {
+            "CUSTOMER/K-1001", "CONTRACT/V-1001", "CLAIM/S-2001", "CUSTOMER/K-2002", "CLAIM/S-2003",
+            "CONTRACT/V-2001" };
+    private static final String[] COLLEAGUES = { "Alice", "Bob", "Clara", "Eva" };
+
+    private final URI base;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final byte[] upload;
+
+    Workload(URI base, Map<Operation, Integer> mix, int uploadBytes) {
+        this.base = base;
+        this.operations = mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("The mix needs at least one operation with a positive weight");
+        }
+        this.upload = new byte[uploadBytes];
+        new Random(uploadBytes).nextBytes(upload);
+    }
+
+    /**
+     * Parses weights like {@code searchWorkItems=60,getContextView=25}; operations not listed are not replayed.
+     */
+    static Map<Operation, Integer> mix(String weights) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String weight : weights.split(",")) {
+            String[] parts = weight.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid weight, expected operation=weight: " + weight);
+            }
+            int value = Integer.parseInt(parts[1].trim());
+            if (value < 0) {
+                throw new IllegalArgumentException("Negative weight: " + weight);
+            }
+            mix.put(Operation.valueOf(parts[0].trim()), value);
+        }
+        return mix;
+    }
+
+    Operation next(Random random) {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < operations.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    HttpRequest request(Operation operation, Random random) {
+        return switch (operation) {
+            case searchWorkItems -> get("/api/work-items?size=20&" + pick(WORKLISTS, random));
+            case getContextView -> {
+                String[] object = pick(OBJECTS, random).split("/");
+                yield get("/api/work-items/context?objectType=" + object[0] + "&objectId=" + object[1]);
+            }
+            case performWorkItemAction -> {
+                String body = random.nextBoolean()
+                        ? "{\"action\":\"START\",\"comment\":\"Lasttest\"}"
+                        : "{\"action\":\"FORWARD\",\"assignee\":\"" + pick(COLLEAGUES, random) + "\"}";
+                yield HttpRequest.newBuilder(uri("/api/work-items/" + pick(WORK_ITEMS, random) + "/actions"))
+                        .timeout(TIMEOUT)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+            case uploadDocument -> {
+                String fileName = "Lasttest-%08x.pdf".formatted(random.nextInt());
+                yield HttpRequest.newBuilder(uri("/api/work-items/context/" + pick(OBJECTS, random)
+                                + "/documents?fileName=" + fileName + "&indexKeywords=Lasttest&uploadedBy="
+                                + pick(COLLEAGUES, random)))
+                        .timeout(TIMEOUT)
+                        .header("Content-Type", "application/pdf")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(upload))
+                        .build();
+            }
+        };
+    }
+
+    /**
+     * Whether the answer counts as success; every replayed operation answers 200 when it works.
+     */
+    static boolean succeeded(int status) {
+        return status == 200;
+    }
+
+    private HttpRequest get(String path) {
+        // browsers ask for compressed JSON, so compression is part of what is measured
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(TIMEOUT)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+    }
+
+    private URI uri(String path) {
+        return base.resolve(path);
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.workitems.api;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * A single byte range of an HTTP {@code Range} request header (RFC 9110, section 14).
+ */
+record ByteRange(long start, long length) {
+
+    static final String CONTENT_RANGE = "Content-Range";
+
+    /**
+     * Returns the requested range of content with the given size, or {@code null} when the whole content is to be
+     * sent: without a header, for an unparseable header and for multiple ranges, which are not supported. A range
+     * that starts beyond the content is answered with 416 Range Not Satisfiable.
+     */
+    static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || size == 0) {
+                    throw notSatisfiable(size);
+                }
+                long length = Math.min(suffix, size);
+                return new ByteRange(size - length, length);
+            }
+            long start = Long.parseLong(spec.substring(0, dash));
+            long end = dash == spec.length() - 1 ? size - 1 : Long.parseLong(spec.substring(dash + 1));
+            if (start >= size) {
+                throw notSatisfiable(size);
+            }
+            if (end < start) {
+                return null;
+            }
+            return new ByteRange(start, Math.min(end, size - 1) - start + 1);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    String contentRange(long size) {
+        return "bytes %d-%d/%d".formatted(start, start + length - 1, size);
+    }
+
+    private static WebApplicationException notSatisfiable(long size) {
+        return new WebApplicationException(Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(CONTENT_RANGE, "bytes */" + size)
+                .build());
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.workitems.api;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Settings of how the resource executes its operations ({@code workitems.execution.*}).
+ */
+@ConfigMapping(prefix = "workitems.execution")
+public interface ExecutionConfig {
+
+    /**
+     * Threads that run the operations of {@link WorkItemResource}.
+     */
+    @WithDefault("worker")
+    Mode mode();
+
+    enum Mode {
+        /**
+         * Every operation runs on the worker pool.
+         */
+        WORKER,
+
+        /**
+         * Every operation runs on a virtual thread of its own. Needs a JDK with virtual threads; on older JDKs the
+         * worker pool is used instead.
+         */
+        VIRTUAL_THREAD,
+
+        /**
+         * Reads run on the I/O thread that received the request; they neither lock nor block, so searches there
+         * go through the partitions one after the other. Exports and actions, which may wait for the journal, run on
+         * the worker pool.
+         */
+        EVENT_LOOP
+    }
+}
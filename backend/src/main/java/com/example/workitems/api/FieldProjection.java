@@ -0,0 +1,172 @@
+package com.example.workitems.api;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.resteasy.reactive.RestResponse;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.dto.WorkItemsPageDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Reduces the responses of {@link SparseFields} operations to the properties requested with {@code fields}. The
+ * selection is checked when the request arrives, so an unknown property is answered with 400 before any work is
+ * done. The response entity is then handed to Jackson wrapped in {@link Projected}, which writes it property by
+ * property with the application's configuration and skips every property that was not selected, instead of
+ * serializing it in full and filtering afterwards.
+ * <p>
+ * For a search the selection names properties of the items; the page's own properties are always written.
+ */
+@Provider
+@SparseFields
+@Priority(Priorities.USER + 100)
+public class FieldProjection implements WriterInterceptor {
+
+    static final String FIELDS = "fields";
+    private static final String SELECTION = FieldProjection.class.getName() + ".selection";
+
+    private final ObjectMapper mapper;
+    private final Map<Method, JavaType> entityTypes = new ConcurrentHashMap<>();
+
+    @Inject
+    public FieldProjection(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @ServerRequestFilter
+    @SparseFields
+    public void select(ContainerRequestContext request, ResourceInfo resource) {
+        String fields = request.getUriInfo().getQueryParameters().getFirst(FIELDS);
+        if (fields == null || fields.isBlank()) {
+            return;
+        }
+        JavaType entityType = entityTypes.computeIfAbsent(resource.getResourceMethod(), this::entityType);
+        FieldSelection selection;
+        if (entityType.hasRawClass(WorkItemsPageDto.class)) {
+            selection = FieldSelection.of("items",
+                    FieldSelection.parse(fields, mapper.constructType(WorkItemDto.class), mapper), "total",
+                    "nextCursor");
+        } else {
+            selection = FieldSelection.parse(fields, entityType, mapper);
+        }
+        request.setProperty(SELECTION, selection);
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        if (!(context.getProperty(SELECTION) instanceof FieldSelection selection) || context.getEntity() == null) {
+            context.proceed();
+            return;
+        }
+        context.setEntity(new Projected(context.getEntity(), selection));
+        context.setType(Projected.class);
+        context.setGenericType(Projected.class);
+        context.proceed();
+    }
+
+    /**
+     * The type of the entity an operation answers with, unwrapped from {@link Uni} and {@link RestResponse}.
+     */
+    private JavaType entityType(Method method) {
+        Type type = method.getGenericReturnType();
+        while (type instanceof ParameterizedType parameterized
+                && (parameterized.getRawType() == Uni.class || parameterized.getRawType() == RestResponse.class)) {
+            type = parameterized.getActualTypeArguments()[0];
+        }
+        return mapper.constructType(type);
+    }
+
+    @RegisterForReflection
+    @JsonSerialize(using = ProjectedSerializer.class)
+    record Projected(Object entity, FieldSelection selection) {
+    }
+
+    @RegisterForReflection
+    static final class ProjectedSerializer extends StdSerializer<Projected> {
+
+        private static final long serialVersionUID = 1L;
+
+        ProjectedSerializer() {
+            super(Projected.class);
+        }
+
+        @Override
+        public void serialize(Projected projected, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            write(projected.entity(), projected.selection(), generator, provider);
+        }
+
+        private static void write(Object value, FieldSelection selection, JsonGenerator generator,
+                SerializerProvider provider) throws IOException {
+            if (value == null || selection.isAll()) {
+                provider.defaultSerializeValue(value, generator);
+                return;
+            }
+            if (value instanceof Collection<?> elements) {
+                generator.writeStartArray(value, elements.size());
+                for (Object element : elements) {
+                    write(element, selection, generator, provider);
+                }
+                generator.writeEndArray();
+                return;
+            }
+            JsonSerializer<Object> serializer = provider.findValueSerializer(value.getClass());
+            if (!(serializer instanceof BeanSerializerBase bean)) {
+                serializer.serialize(value, generator, provider);
+                return;
+            }
+            generator.writeStartObject(value);
+            for (Iterator<PropertyWriter> properties = bean.properties(); properties.hasNext();) {
+                PropertyWriter property = properties.next();
+                if (!selection.includes(property.getName())) {
+                    continue;
+                }
+                FieldSelection nested = selection.nested(property.getName());
+                try {
+                    if (nested.isAll() || !(property instanceof BeanPropertyWriter beanProperty)) {
+                        property.serializeAsField(value, generator, provider);
+                    } else {
+                        Object propertyValue = beanProperty.get(value);
+                        generator.writeFieldName(property.getName());
+                        write(propertyValue, nested, generator, provider);
+                    }
+                } catch (IOException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw JsonMappingException.from(generator, "Could not write property " + property.getName(), e);
+                }
+            }
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.workitems.api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.ws.rs.BadRequestException;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+
+/**
+ * The properties selected by a {@code fields} parameter, e.g. {@code id,title,tasks.id,tasks.status}. A name selects
+ * a property with everything it contains; a dotted path selects only the named properties of the objects it contains,
+ * or of the elements of a list. Names are checked against the JSON properties of the selected type.
+ */
+final class FieldSelection {
+
+    static final FieldSelection ALL = new FieldSelection(Map.of());
+
+    private final Map<String, FieldSelection> properties;
+
+    private FieldSelection(Map<String, FieldSelection> properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Parses a comma-separated list of property paths of {@code type}.
+     *
+     * @throws BadRequestException if a path names a property the type does not have
+     */
+    static FieldSelection parse(String fields, JavaType type, ObjectMapper mapper) {
+        Map<String, FieldSelection> selected = new LinkedHashMap<>();
+        for (String field : fields.split(",")) {
+            String path = field.trim();
+            if (!path.isEmpty()) {
+                select(selected, path, path, type, mapper);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new BadRequestException("fields must name at least one property");
+        }
+        return new FieldSelection(selected);
+    }
+
+    /**
+     * Selects the given properties with everything they contain, plus the ones of {@code nested}.
+     */
+    static FieldSelection of(String property, FieldSelection nested, String... complete) {
+        Map<String, FieldSelection> selected = new LinkedHashMap<>();
+        selected.put(property, nested);
+        for (String name : complete) {
+            selected.put(name, ALL);
+        }
+        return new FieldSelection(selected);
+    }
+
+    boolean isAll() {
+        return this == ALL;
+    }
+
+    boolean includes(String property) {
+        return isAll() || properties.containsKey(property);
+    }
+
+    /**
+     * The selection within a selected property.
+     */
+    FieldSelection nested(String property) {
+        return isAll() ? ALL : properties.get(property);
+    }
+
+    private static void select(Map<String, FieldSelection> selected, String path, String remaining, JavaType type,
+            ObjectMapper mapper) {
+        int dot = remaining.indexOf('.');
+        String name = dot < 0 ? remaining : remaining.substring(0, dot);
+        JavaType propertyType = propertyType(type, name, mapper);
+        if (propertyType == null) {
+            throw new BadRequestException("Unknown field: " + path);
+        }
+        if (dot < 0) {
+            selected.put(name, ALL);
+            return;
+        }
+        FieldSelection nested = selected.get(name);
+        if (nested != null && nested.isAll()) {
+            return;
+        }
+        if (nested == null) {
+            nested = new FieldSelection(new LinkedHashMap<>());
+            selected.put(name, nested);
+        }
+        JavaType elementType = propertyType.isContainerType() ? propertyType.getContentType() : propertyType;
+        select(nested.properties, path, remaining.substring(dot + 1), elementType, mapper);
+    }
+
+    private static JavaType propertyType(JavaType type, String name, ObjectMapper mapper) {
+        for (BeanPropertyDefinition property : mapper.getSerializationConfig().introspect(type).findProperties()) {
+            if (property.getName().equals(name) && property.couldSerialize()) {
+                return property.getPrimaryType();
+            }
+        }
+        return null;
+    }
+}
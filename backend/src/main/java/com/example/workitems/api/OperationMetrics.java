@@ -0,0 +1,96 @@
+package com.example.workitems.api;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+import org.jboss.resteasy.reactive.server.SimpleResourceInfo;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Latency histograms per operation of {@link WorkItemResource}. The handling time (until the response is ready) and
+ * the time to serialize the response body are recorded separately, so slow JSON writing does not hide in the handler
+ * time. Timers are registered for every operation up front; a request only looks its timers up by method name.
+ */
+@Provider
+public class OperationMetrics implements WriterInterceptor {
+
+    private static final String OPERATION = OperationMetrics.class.getName() + ".operation";
+    private static final String STARTED = OperationMetrics.class.getName() + ".started";
+    private static final Duration MIN_EXPECTED = Duration.ofNanos(50_000);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private final Map<String, Operation> operations = new HashMap<>();
+
+    @Inject
+    public OperationMetrics(MeterRegistry registry) {
+        for (Method method : WorkItemResource.class.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(GET.class) || method.isAnnotationPresent(POST.class)) {
+                operations.put(method.getName(), new Operation(
+                        timer("workitems.operation", "Time to handle a request until its response is ready", method,
+                                registry),
+                        timer("workitems.operation.serialization", "Time to write the response body", method,
+                                registry)));
+            }
+        }
+    }
+
+    @ServerRequestFilter
+    public void started(ContainerRequestContext request, SimpleResourceInfo resource) {
+        Operation operation = operations.get(resource.getMethodName());
+        if (operation != null) {
+            request.setProperty(OPERATION, operation);
+            request.setProperty(STARTED, System.nanoTime());
+        }
+    }
+
+    @ServerResponseFilter
+    public void handled(ContainerRequestContext request) {
+        if (request.getProperty(OPERATION) instanceof Operation operation
+                && request.getProperty(STARTED) instanceof Long started) {
+            operation.handling().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        if (!(context.getProperty(OPERATION) instanceof Operation operation)) {
+            context.proceed();
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            context.proceed();
+        } finally {
+            operation.serialization().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer timer(String name, String description, Method method, MeterRegistry registry) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("operation", method.getName())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(registry);
+    }
+
+    private record Operation(Timer handling, Timer serialization) {
+    }
+}
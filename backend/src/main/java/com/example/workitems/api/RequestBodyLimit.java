@@ -0,0 +1,68 @@
+package com.example.workitems.api;
+
+import java.util.regex.Pattern;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.quarkus.runtime.configuration.MemorySize;
+import io.quarkus.vertx.http.runtime.filters.Filters;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Request body limit of every route except the content uploads of documents. Quarkus enforces
+ * {@code quarkus.http.limits.max-body-size} on the whole router, so that setting is the upload limit and this filter
+ * puts the smaller {@code workitems.http.max-body-size} back in place for everything else: a declared length above it
+ * is answered with 413 before the body is read, and a chunked body stops being read once it exceeds it.
+ */
+@ApplicationScoped
+public class RequestBodyLimit {
+
+    // the context key Quarkus uses to hand the body limit of a request without Content-Length to the body readers
+    private static final String MAX_REQUEST_SIZE = "io.quarkus.max-request-size";
+    // runs right after the global limit of Quarkus (route order -2), so the value put here wins
+    private static final int PRIORITY = 1;
+    private static final Pattern CONTENT_UPLOAD = Pattern.compile("/api/work-items/context/[^/]+/[^/]+/documents");
+
+    @ConfigProperty(name = "workitems.http.max-body-size", defaultValue = "10240K")
+    MemorySize maxBodySize;
+
+    void register(@Observes Filters filters) {
+        filters.register(this::enforce, PRIORITY);
+    }
+
+    private void enforce(RoutingContext context) {
+        HttpServerRequest request = context.request();
+        if (isContentUpload(request)) {
+            context.next();
+            return;
+        }
+        long limit = maxBodySize.asLongValue();
+        String length = request.headers().get(HttpHeaderNames.CONTENT_LENGTH);
+        if (length == null) {
+            context.put(MAX_REQUEST_SIZE, limit);
+        } else if (Long.parseLong(length) > limit) {
+            context.response().headers().add(HttpHeaderNames.CONNECTION, "close");
+            context.response().setStatusCode(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.code());
+            context.response().endHandler(ended -> request.connection().close());
+            context.response().end();
+            return;
+        }
+        context.next();
+    }
+
+    /** Multipart and raw content posted to the documents of a domain object; the JSON metadata route stays limited. */
+    private static boolean isContentUpload(HttpServerRequest request) {
+        if (request.method() != HttpMethod.POST || !CONTENT_UPLOAD.matcher(request.path()).matches()) {
+            return false;
+        }
+        String contentType = request.headers().get(HttpHeaderNames.CONTENT_TYPE);
+        return contentType == null || !contentType.toLowerCase().startsWith("application/json");
+    }
+}
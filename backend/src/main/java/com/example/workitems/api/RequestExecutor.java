@@ -0,0 +1,104 @@
+package com.example.workitems.api;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.jboss.logging.Logger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+
+/**
+ * Runs the operations of {@link WorkItemResource} on the threads chosen by {@link ExecutionConfig#mode()}. The
+ * resource methods return {@link Uni} or {@link Multi}, so Quarkus invokes them on the I/O thread and the mode alone
+ * decides whether the work stays there or moves to a worker or virtual thread.
+ */
+@ApplicationScoped
+class RequestExecutor {
+
+    private static final Logger LOG = Logger.getLogger(RequestExecutor.class);
+
+    @Inject
+    ExecutionConfig config;
+
+    private Executor readExecutor;
+    private Executor writeExecutor;
+    private Executor streamExecutor;
+    private ExecutorService virtualThreads;
+
+    @PostConstruct
+    void open() {
+        Executor workers = Infrastructure.getDefaultWorkerPool();
+        switch (config.mode()) {
+            case WORKER -> {
+                readExecutor = workers;
+                writeExecutor = workers;
+            }
+            case VIRTUAL_THREAD -> {
+                virtualThreads = newVirtualThreadPerTaskExecutor();
+                readExecutor = virtualThreads == null ? workers : virtualThreads;
+                writeExecutor = readExecutor;
+            }
+            case EVENT_LOOP -> {
+                readExecutor = null;
+                writeExecutor = workers;
+            }
+        }
+        streamExecutor = readExecutor == null ? workers : readExecutor;
+    }
+
+    @PreDestroy
+    void close() {
+        if (virtualThreads != null) {
+            virtualThreads.shutdown();
+        }
+    }
+
+    /**
+     * Runs an operation that only reads the in-memory state.
+     */
+    <T> Uni<T> read(Supplier<T> operation) {
+        return run(readExecutor, operation);
+    }
+
+    /**
+     * Runs an operation that changes the state and may block on the journal.
+     */
+    <T> Uni<T> write(Supplier<T> operation) {
+        return run(writeExecutor, operation);
+    }
+
+    /**
+     * Runs an operation that streams all matching items. It walks far more items than a page, so it never stays on
+     * the I/O thread.
+     */
+    <T> Multi<T> stream(Supplier<Multi<? extends T>> operation) {
+        return Multi.createFrom().deferred(operation).runSubscriptionOn(streamExecutor);
+    }
+
+    private static <T> Uni<T> run(Executor executor, Supplier<T> operation) {
+        Uni<T> result = Uni.createFrom().item(operation);
+        return executor == null ? result : result.runSubscriptionOn(executor);
+    }
+
+    /**
+     * Looks the factory up reflectively, so the code still compiles and runs on JDKs before virtual threads.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOG.warnf("Virtual threads are not available on Java %s, operations run on the worker pool",
+                    Runtime.version().feature());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.workitems.api;
+
+import java.time.OffsetDateTime;
+
+import com.example.workitems.dto.WorkItemDto;
+
+/**
+ * CSV lines (RFC 4180) for the work item export.
+ */
+final class WorkItemCsv {
+
+    static final String HEADER = "id,objectType,objectId,objectLabel,customerName,contractNo,claimNo,title,description,"
+            + "status,priority,receivedAt,dueAt,assignedTo,team,version\r\n";
+
+    private WorkItemCsv() {
+    }
+
+    static String line(WorkItemDto item) {
+        StringBuilder line = new StringBuilder(256);
+        field(line, item.id);
+        field(line, item.objectType == null ? null : item.objectType.name());
+        field(line, item.objectId);
+        field(line, item.objectLabel);
+        field(line, item.customerName);
+        field(line, item.contractNo);
+        field(line, item.claimNo);
+        field(line, item.title);
+        field(line, item.description);
+        field(line, item.status == null ? null : item.status.name());
+        field(line, Integer.toString(item.priority));
+        field(line, time(item.receivedAt));
+        field(line, time(item.dueAt));
+        field(line, item.assignedTo);
+        field(line, item.team);
+        line.append(item.version).append("\r\n");
+        return line.toString();
+    }
+
+    private static void field(StringBuilder line, String value) {
+        if (value != null) {
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                    || value.indexOf('\r') >= 0) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        line.append(',');
+    }
+
+    private static String time(OffsetDateTime value) {
+        return value == null ? null : value.toString();
+    }
+}
@@ -1,42 +1,124 @@
 package com.example.workitems.api;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+import java.util.List;
+
 import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.enums.ParameterIn;
+import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.PathPart;
+import org.jboss.resteasy.reactive.RestForm;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+import org.jboss.resteasy.reactive.common.util.RestMediaType;
+import org.jboss.resteasy.reactive.multipart.FileUpload;
 
 import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
 
+import com.example.workitems.application.DocumentContent;
 import com.example.workitems.application.WorkItemService;
 import com.example.workitems.dto.ContextViewDto;
 import com.example.workitems.dto.DocumentDto;
+import com.example.workitems.dto.DocumentsPageDto;
 import com.example.workitems.dto.UploadDocumentCommand;
 import com.example.workitems.dto.WorkItemActionCommand;
+import com.example.workitems.dto.WorkItemBatchActionCommand;
+import com.example.workitems.dto.WorkItemBatchActionResultDto;
+import com.example.workitems.dto.WorkItemChangeDto;
 import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.dto.WorkItemFacetsDto;
 import com.example.workitems.dto.WorkItemsPageDto;
 import com.example.workitems.model.BasketScope;
 import com.example.workitems.model.DomainObjectType;
 import com.example.workitems.model.WorkItemStatus;
 
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+
 @Path("/work-items")
 @Produces(MediaType.APPLICATION_JSON)
 @Tag(name = "WorkItems")
 public class WorkItemResource {
 
+    private static final String CSV = "text/csv";
+
     @Inject
     WorkItemService workItemService;
 
+    @Inject
+    RequestExecutor executor;
+
     @GET
     @Operation(operationId = "searchWorkItems")
-    public WorkItemsPageDto searchWorkItems(
+    @SparseFields
+    @Parameter(name = FieldProjection.FIELDS, in = ParameterIn.QUERY, schema = @Schema(type = SchemaType.STRING),
+            description = "Comma-separated item properties to return, e.g. id,title,status; "
+                    + "the page properties are always returned")
+    public Uni<WorkItemsPageDto> searchWorkItems(
             @QueryParam("page") @DefaultValue("0") int page,
             @QueryParam("size") @DefaultValue("10") int size,
+            @QueryParam("sort") @DefaultValue("receivedAt,desc") String sort,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("includeTotal") @DefaultValue("true") boolean includeTotal,
+            @QueryParam("q") String q,
+            @QueryParam("status") WorkItemStatus status,
+            @QueryParam("basket") @DefaultValue("MY") BasketScope basket,
+            @QueryParam("colleague") String colleague,
+            @QueryParam("objectType") DomainObjectType objectType,
+            @QueryParam("objectId") String objectId) {
+        return executor.read(() -> workItemService.searchWorkItems(page, size, sort, cursor, includeTotal, q, status,
+                basket, colleague, objectType, objectId));
+    }
+
+    @GET
+    @Path("/facets")
+    @Operation(operationId = "getWorkItemFacets")
+    public Uni<WorkItemFacetsDto> getWorkItemFacets(
+            @QueryParam("q") String q,
+            @QueryParam("status") WorkItemStatus status,
+            @QueryParam("basket") @DefaultValue("MY") BasketScope basket,
+            @QueryParam("colleague") String colleague,
+            @QueryParam("objectType") DomainObjectType objectType) {
+        return executor.read(() -> workItemService.getWorkItemFacets(q, status, basket, colleague, objectType));
+    }
+
+    @GET
+    @Path("/export")
+    @Produces(RestMediaType.APPLICATION_NDJSON)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Operation(operationId = "exportWorkItems")
+    public Multi<WorkItemDto> exportWorkItems(
             @QueryParam("sort") @DefaultValue("receivedAt,desc") String sort,
             @QueryParam("q") String q,
             @QueryParam("status") WorkItemStatus status,
@@ -44,37 +126,249 @@ public class WorkItemResource {
             @QueryParam("colleague") String colleague,
             @QueryParam("objectType") DomainObjectType objectType,
             @QueryParam("objectId") String objectId) {
-        return workItemService.searchWorkItems(page, size, sort, q, status, basket, colleague, objectType, objectId);
+        return executor.stream(() -> workItemService.exportWorkItems(sort, q, status, basket, colleague, objectType,
+                objectId));
+    }
+
+    @GET
+    @Path("/export/csv")
+    @Produces(CSV)
+    @Operation(operationId = "exportWorkItemsAsCsv")
+    public Multi<String> exportWorkItemsAsCsv(
+            @QueryParam("sort") @DefaultValue("receivedAt,desc") String sort,
+            @QueryParam("q") String q,
+            @QueryParam("status") WorkItemStatus status,
+            @QueryParam("basket") @DefaultValue("MY") BasketScope basket,
+            @QueryParam("colleague") String colleague,
+            @QueryParam("objectType") DomainObjectType objectType,
+            @QueryParam("objectId") String objectId) {
+        return executor.stream(() -> {
+            Multi<String> lines = workItemService.exportWorkItems(sort, q, status, basket, colleague, objectType,
+                    objectId).map(WorkItemCsv::line);
+            return Multi.createBy().concatenating().streams(Multi.createFrom().item(WorkItemCsv.HEADER), lines);
+        });
+    }
+
+    @GET
+    @Path("/changes")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Operation(operationId = "streamWorkItemChanges")
+    public Multi<OutboundSseEvent> streamWorkItemChanges(
+            @QueryParam("basket") BasketScope basket,
+            @QueryParam("colleague") String colleague,
+            @QueryParam("team") String team,
+            @QueryParam("objectType") DomainObjectType objectType,
+            @QueryParam("objectId") String objectId,
+            @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+            @Context Sse sse) {
+        return workItemService.streamWorkItemChanges(lastEventId, basket, colleague, team, objectType, objectId)
+                .map(change -> sse.newEventBuilder()
+                        .id(workItemService.changeEventId(change))
+                        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                        .data(WorkItemChangeDto.class, change)
+                        .build());
+    }
+
+    @GET
+    @Path("/batch")
+    @Operation(operationId = "getWorkItemsByIds")
+    public Uni<List<WorkItemDto>> getWorkItemsByIds(@QueryParam("ids") List<String> ids) {
+        return executor.read(() -> workItemService.getWorkItemsByIds(ids));
     }
 
     @GET
     @Path("/{id}")
     @Operation(operationId = "getWorkItemById")
-    public WorkItemDto getWorkItemById(@PathParam("id") String id) {
-        return workItemService.getWorkItemById(id);
+    @SparseFields
+    @Parameter(name = FieldProjection.FIELDS, in = ParameterIn.QUERY, schema = @Schema(type = SchemaType.STRING),
+            description = "Comma-separated properties to return, e.g. id,title,status")
+    public Uni<RestResponse<WorkItemDto>> getWorkItemById(@PathParam("id") String id) {
+        return executor.read(() -> withVersionTag(workItemService.getWorkItemById(id)));
     }
 
     @POST
     @Path("/{id}/actions")
     @Operation(operationId = "performWorkItemAction")
-    public WorkItemDto performWorkItemAction(@PathParam("id") String id, WorkItemActionCommand command) {
-        return workItemService.performWorkItemAction(id, command);
+    public Uni<RestResponse<WorkItemDto>> performWorkItemAction(@PathParam("id") String id,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch, WorkItemActionCommand command) {
+        Long expectedVersion = expectedVersion(ifMatch);
+        return executor.write(() -> withVersionTag(workItemService.performWorkItemAction(id, command,
+                expectedVersion)));
+    }
+
+    @POST
+    @Path("/actions:batch")
+    @Operation(operationId = "performWorkItemActions")
+    public Uni<WorkItemBatchActionResultDto> performWorkItemActions(WorkItemBatchActionCommand command) {
+        return executor.write(() -> workItemService.performWorkItemActions(command));
     }
 
     @GET
     @Path("/context")
     @Operation(operationId = "getContextView")
-    public ContextViewDto getContextView(@QueryParam("objectType") DomainObjectType objectType,
-            @QueryParam("objectId") String objectId) {
-        return workItemService.getContextView(objectType, objectId);
+    @SparseFields
+    @Parameter(name = FieldProjection.FIELDS, in = ParameterIn.QUERY, schema = @Schema(type = SchemaType.STRING),
+            description = "Comma-separated properties to return; nested ones as paths, "
+                    + "e.g. title,tasks.id,tasks.status")
+    public Uni<RestResponse<ContextViewDto>> getContextView(@QueryParam("objectType") DomainObjectType objectType,
+            @QueryParam("objectId") String objectId, @QueryParam("protocolLimit") Integer protocolLimit,
+            @QueryParam("protocolBefore") OffsetDateTime protocolBefore,
+            @Parameter(description = "Also return the contexts this many levels below the object: "
+                    + "1 for a customer's contracts or a contract's claims, 2 for a customer's claims as well")
+            @QueryParam("includeRelated") Integer includeRelated,
+            @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        return executor.read(() -> {
+            ContextViewDto view = workItemService.getContextView(objectType, objectId, protocolLimit, protocolBefore,
+                    includeRelated);
+            EntityTag tag = new EntityTag(view.version);
+            if (matches(ifNoneMatch, tag)) {
+                return RestResponse.ResponseBuilder.<ContextViewDto> notModified(tag).build();
+            }
+            return RestResponse.ResponseBuilder.ok(view).tag(tag).build();
+        });
+    }
+
+    @GET
+    @Path("/documents/search")
+    @Operation(operationId = "searchDocuments")
+    public Uni<DocumentsPageDto> searchDocuments(
+            @QueryParam("keyword") String keyword,
+            @QueryParam("mimeType") String mimeType,
+            @QueryParam("uploadedAfter") OffsetDateTime uploadedAfter,
+            @QueryParam("size") @DefaultValue("10") int size,
+            @QueryParam("cursor") String cursor) {
+        return executor.read(() -> workItemService.searchDocuments(keyword, mimeType, uploadedAfter, size, cursor));
     }
 
     @POST
     @Path("/context/{objectType}/{objectId}/documents")
+    @Consumes(MediaType.APPLICATION_JSON)
     @Operation(operationId = "uploadDocument")
     public DocumentDto uploadDocument(@PathParam("objectType") DomainObjectType objectType,
             @PathParam("objectId") String objectId,
             UploadDocumentCommand command) {
         return workItemService.uploadDocument(objectType, objectId, command);
     }
+
+    @POST
+    @Path("/context/{objectType}/{objectId}/documents")
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    public DocumentDto uploadDocumentForm(@PathParam("objectType") DomainObjectType objectType,
+            @PathParam("objectId") String objectId,
+            @RestForm("file") FileUpload file,
+            @RestForm("indexKeywords") List<String> indexKeywords,
+            @RestForm("uploadedBy") String uploadedBy) {
+        if (file == null) {
+            throw new NotFoundException("Document requires file");
+        }
+        UploadDocumentCommand command = uploadCommand(file.fileName(), file.contentType(), indexKeywords, uploadedBy);
+        try (FileChannel content = FileChannel.open(file.uploadedFile(), StandardOpenOption.READ)) {
+            return workItemService.uploadDocumentContent(objectType, objectId, command, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @POST
+    @Path("/context/{objectType}/{objectId}/documents")
+    @Consumes(MediaType.WILDCARD)
+    public DocumentDto uploadDocumentContent(@PathParam("objectType") DomainObjectType objectType,
+            @PathParam("objectId") String objectId,
+            @QueryParam("fileName") String fileName,
+            @QueryParam("indexKeywords") List<String> indexKeywords,
+            @QueryParam("uploadedBy") String uploadedBy,
+            @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream content) {
+        UploadDocumentCommand command = uploadCommand(fileName, contentType, indexKeywords, uploadedBy);
+        return workItemService.uploadDocumentContent(objectType, objectId, command, Channels.newChannel(content));
+    }
+
+    @GET
+    @Path("/context/{objectType}/{objectId}/documents/{documentId}/content")
+    @Produces(MediaType.APPLICATION_OCTET_STREAM)
+    @Operation(operationId = "downloadDocument")
+    @APIResponse(responseCode = "200", content = @Content(schema = @Schema(type = SchemaType.STRING, format = "binary")))
+    @APIResponse(responseCode = "206", description = "Requested range",
+            content = @Content(schema = @Schema(type = SchemaType.STRING, format = "binary")))
+    public RestResponse<PathPart> downloadDocument(@PathParam("objectType") DomainObjectType objectType,
+            @PathParam("objectId") String objectId,
+            @PathParam("documentId") String documentId,
+            @HeaderParam("Range") String range,
+            @HeaderParam("If-Range") String ifRange) {
+        DocumentContent content = workItemService.getDocumentContent(objectType, objectId, documentId);
+        EntityTag tag = new EntityTag(content.document().contentHash);
+        ByteRange requested = ifRange == null || matchesStrongly(ifRange, tag)
+                ? ByteRange.parse(range, content.size())
+                : null;
+
+        RestResponse.ResponseBuilder<PathPart> response = requested == null
+                ? RestResponse.ResponseBuilder.ok(new PathPart(content.file(), 0, content.size()))
+                : RestResponse.ResponseBuilder.<PathPart> create(RestResponse.Status.PARTIAL_CONTENT)
+                        .entity(new PathPart(content.file(), requested.start(), requested.length()))
+                        .header(ByteRange.CONTENT_RANGE, requested.contentRange(content.size()));
+        return response.type(content.document().mimeType)
+                .tag(tag)
+                .header("Accept-Ranges", "bytes")
+                .header("Content-Disposition", contentDisposition(content.document().fileName))
+                .build();
+    }
+
+    private static UploadDocumentCommand uploadCommand(String fileName, String mimeType, List<String> indexKeywords,
+            String uploadedBy) {
+        UploadDocumentCommand command = new UploadDocumentCommand();
+        command.fileName = fileName;
+        command.mimeType = mimeType;
+        command.indexKeywords = indexKeywords;
+        command.uploadedBy = uploadedBy;
+        return command;
+    }
+
+    private static String contentDisposition(String fileName) {
+        String fallback = fileName.replaceAll("[^\\x20-\\x7e]|[\"\\\\]", "_");
+        return "attachment; filename=\"%s\"; filename*=UTF-8''%s".formatted(fallback,
+                URLEncoder.encode(fileName, StandardCharsets.UTF_8).replace("+", "%20"));
+    }
+
+    private static RestResponse<WorkItemDto> withVersionTag(WorkItemDto item) {
+        return RestResponse.ResponseBuilder.ok(item).tag(new EntityTag(Long.toString(item.version))).build();
+    }
+
+    private static boolean matches(String ifNoneMatch, EntityTag tag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.replace("\"", "").equals(tag.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-Range only matches the current tag strongly; a weak tag or a date means the whole content is sent.
+     */
+    private static boolean matchesStrongly(String ifRange, EntityTag tag) {
+        String value = ifRange.trim();
+        return !value.startsWith("W/") && value.replace("\"", "").equals(tag.getValue());
+    }
+
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new WebApplicationException(Response.Status.PRECONDITION_FAILED);
+        }
+    }
 }
@@ -0,0 +1,114 @@
+package com.example.workitems.api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.resteasy.reactive.server.spi.ResteasyReactiveResourceInfo;
+import org.jboss.resteasy.reactive.server.spi.ServerMessageBodyWriter;
+import org.jboss.resteasy.reactive.server.spi.ServerRequestContext;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+
+import com.example.workitems.application.EncodableWorkItemsPage;
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.dto.WorkItemsPageDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Writes search result pages from the cached JSON of their items (see
+ * {@link com.example.workitems.application.EncodedItems}). Only the page envelope is serialized per response; the
+ * items it holds are concatenated from their cached forms, so unchanged items polled by many clients are encoded
+ * once per version. The output is byte for byte what the application's {@link ObjectMapper} writes for the page.
+ */
+@Provider
+@Produces(MediaType.APPLICATION_JSON)
+public class WorkItemsPageWriter implements ServerMessageBodyWriter<WorkItemsPageDto> {
+
+    private static final byte[] ITEMS_PREFIX = "{\"items\":[".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectWriter pageWriter;
+    private final ObjectWriter itemWriter;
+
+    @Inject
+    public WorkItemsPageWriter(ObjectMapper mapper) {
+        pageWriter = mapper.writerFor(WorkItemsPageDto.class);
+        itemWriter = mapper.writerFor(WorkItemDto.class);
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, ResteasyReactiveResourceInfo target,
+            MediaType mediaType) {
+        return WorkItemsPageDto.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return WorkItemsPageDto.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public void writeResponse(WorkItemsPageDto page, Type genericType, ServerRequestContext context)
+            throws IOException {
+        try (OutputStream out = context.getOrCreateOutputStream()) {
+            write(page, out);
+        }
+    }
+
+    @Override
+    public void writeTo(WorkItemsPageDto page, Class<?> type, Type genericType, Annotation[] annotations,
+            MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream out) throws IOException {
+        write(page, out);
+    }
+
+    /**
+     * Serializes the page without items and splices the cached items into its empty item list. If the mapper is
+     * configured so that the item list does not come first, the page is serialized as a whole.
+     */
+    private void write(WorkItemsPageDto page, OutputStream out) throws IOException {
+        if (!(page instanceof EncodableWorkItemsPage encodable) || page.items == null) {
+            pageWriter.writeValue(out, page);
+            return;
+        }
+        byte[] envelope = pageWriter.writeValueAsBytes(new WorkItemsPageDto(List.of(), page.total, page.nextCursor));
+        if (!startsWithItems(envelope)) {
+            pageWriter.writeValue(out, page);
+            return;
+        }
+        out.write(ITEMS_PREFIX);
+        boolean first = true;
+        for (WorkItemDto item : page.items) {
+            if (!first) {
+                out.write(',');
+            }
+            out.write(encodable.encoded().get(item, this::encode));
+            first = false;
+        }
+        out.write(envelope, ITEMS_PREFIX.length, envelope.length - ITEMS_PREFIX.length);
+    }
+
+    private byte[] encode(WorkItemDto item) {
+        try {
+            return itemWriter.writeValueAsBytes(item);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean startsWithItems(byte[] envelope) {
+        return envelope.length > ITEMS_PREFIX.length
+                && Arrays.equals(envelope, 0, ITEMS_PREFIX.length, ITEMS_PREFIX, 0, ITEMS_PREFIX.length)
+                && envelope[ITEMS_PREFIX.length] == ']';
+    }
+}
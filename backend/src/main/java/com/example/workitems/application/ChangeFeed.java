@@ -0,0 +1,159 @@
+package com.example.workitems.application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+import com.example.workitems.dto.WorkItemChangeDto;
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.WorkItemChangeType;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+
+/**
+ * Sequenced feed of state changes. Changes are numbered and kept in a ring of the most recent ones; publishing costs
+ * the writer a slot in the ring, nothing per subscriber.
+ * <p>
+ * Subscribers are only told that the feed advanced. Each one reads the ring from its own cursor when it has demand,
+ * so a slow subscriber falls behind on its own instead of buffering or blocking the others. A subscriber that falls
+ * further behind than the ring reaches, or resumes from an id of an earlier feed, gets a {@code RESYNC} change.
+ */
+final class ChangeFeed {
+
+    private final String generation = Long.toHexString(ThreadLocalRandom.current().nextLong() >>> 1);
+    private final AtomicReferenceArray<Change> ring;
+    private final BroadcastProcessor<Long> advanced = BroadcastProcessor.create();
+    private final AtomicBoolean notifying = new AtomicBoolean();
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private volatile long head;
+
+    ChangeFeed(int capacity) {
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Stamps the changes with the next sequence numbers and publishes them in the given order.
+     */
+    void publish(List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        publishLock.lock();
+        try {
+            long sequence = head;
+            for (Change change : changes) {
+                change.change().sequence = ++sequence;
+                ring.set(slot(sequence), change);
+            }
+            head = sequence;
+        } finally {
+            publishLock.unlock();
+        }
+        notifySubscribers();
+    }
+
+    /**
+     * Streams the changes accepted by {@code filter}, starting after {@code lastEventId} when it is an id of this feed
+     * and with the next change otherwise.
+     */
+    Multi<WorkItemChangeDto> subscribe(String lastEventId, Predicate<Change> filter) {
+        return Multi.createFrom().deferred(() -> {
+            Cursor cursor = new Cursor(lastEventId);
+            return Multi.createBy().merging().streams(Multi.createFrom().item(0L),
+                            advanced.onOverflow().dropPreviousItems())
+                    .concatMap(ignored -> Multi.createFrom().iterable(cursor.next()))
+                    .filter(filter)
+                    .map(Change::change);
+        });
+    }
+
+    String eventId(WorkItemChangeDto change) {
+        return generation + "-" + change.sequence;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % ring.length());
+    }
+
+    /**
+     * Tells subscribers about new changes on a worker thread, so a writer never iterates the subscribers. Notifications
+     * that arrive while one is being delivered are folded into it.
+     */
+    private void notifySubscribers() {
+        if (notifying.compareAndSet(false, true)) {
+            Infrastructure.getDefaultWorkerPool().execute(() -> {
+                long delivered;
+                do {
+                    delivered = head;
+                    advanced.onNext(delivered);
+                    notifying.set(false);
+                } while (head != delivered && notifying.compareAndSet(false, true));
+            });
+        }
+    }
+
+    /**
+     * A published change. {@code previous} is the item before an {@code ITEM_CHANGED}, so filters can also pass
+     * changes that move an item out of what a subscriber sees.
+     */
+    record Change(WorkItemChangeDto change, WorkItemDto previous) {
+    }
+
+    private final class Cursor {
+        private long position;
+        private boolean resync;
+
+        Cursor(String lastEventId) {
+            position = head;
+            if (lastEventId == null || lastEventId.isBlank()) {
+                return;
+            }
+            int dash = lastEventId.lastIndexOf('-');
+            try {
+                long sequence = Long.parseLong(lastEventId.substring(dash + 1).trim());
+                if (dash > 0 && lastEventId.substring(0, dash).trim().equals(generation) && sequence <= position) {
+                    position = sequence;
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                // not an id of this feed
+            }
+            resync = true;
+        }
+
+        /**
+         * Returns the changes published since the last call, or a single {@code RESYNC} change if some of them are no
+         * longer in the ring.
+         */
+        List<Change> next() {
+            long to = head;
+            if (resync || to - position > ring.length()) {
+                return List.of(resync(to));
+            }
+            List<Change> changes = new ArrayList<>((int) (to - position));
+            for (long sequence = position + 1; sequence <= to; sequence++) {
+                Change change = ring.get(slot(sequence));
+                if (change == null || change.change().sequence != sequence) {
+                    return List.of(resync(to));
+                }
+                changes.add(change);
+            }
+            position = to;
+            return changes;
+        }
+
+        private Change resync(long to) {
+            resync = false;
+            position = to;
+            WorkItemChangeDto change = new WorkItemChangeDto(WorkItemChangeType.RESYNC, null, null);
+            change.sequence = to;
+            return new Change(change, null);
+        }
+    }
+}
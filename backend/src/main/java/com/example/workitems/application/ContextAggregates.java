@@ -0,0 +1,90 @@
+package com.example.workitems.application;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import com.example.workitems.dto.ContextViewDto;
+import com.example.workitems.dto.WorkItemDto;
+
+/**
+ * Materialized context aggregates keyed by context key. Each aggregate keeps a version that is bumped after every
+ * change of the object's tasks, documents or protocol. The view of a version is built on the first read and then
+ * served as is until the next change; the tasks are only materialized from the store while a view is built.
+ * <p>
+ * Versions start over whenever the aggregates are rebuilt, so the tag of a view also carries a random generation.
+ */
+final class ContextAggregates {
+
+    private final String generation = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final Map<String, Aggregate> byKey = new ConcurrentHashMap<>();
+    private final Function<WorkItemDto, String> keyOf;
+
+    ContextAggregates(Iterable<WorkItemDto> items, Function<WorkItemDto, String> keyOf) {
+        this.keyOf = keyOf;
+        for (WorkItemDto item : items) {
+            byKey.putIfAbsent(keyOf.apply(item), Aggregate.INITIAL);
+        }
+    }
+
+    /**
+     * Invalidates the views of the committed items' contexts. Called after the items are published, so a view built
+     * for the new version cannot miss them.
+     */
+    void itemsChanged(List<WorkItemDto> committed) {
+        for (WorkItemDto item : committed) {
+            if (item != null) {
+                byKey.compute(keyOf.apply(item), (key, aggregate) -> aggregate == null
+                        ? new Aggregate(1, null)
+                        : aggregate.next());
+            }
+        }
+    }
+
+    /**
+     * Invalidates the view of a context whose documents or protocol changed.
+     */
+    void changed(String key) {
+        byKey.computeIfPresent(key, (ignored, aggregate) -> aggregate.next());
+    }
+
+    /**
+     * Returns the current view of the context, building it with {@code materialize} if this version has not been read
+     * yet, or {@code null} for a context without tasks.
+     */
+    ContextViewDto view(String key, Materializer materialize) {
+        Aggregate aggregate = byKey.get(key);
+        if (aggregate == null) {
+            return null;
+        }
+        if (aggregate.view != null) {
+            return aggregate.view;
+        }
+        ContextViewDto view = materialize.view(generation + "-" + aggregate.version);
+        if (view != null) {
+            byKey.computeIfPresent(key, (ignored, current) -> current.version == aggregate.version
+                    ? new Aggregate(current.version, view)
+                    : current);
+        }
+        return view;
+    }
+
+    /**
+     * Builds the view of a version from the current tasks, or returns {@code null} if the context has none.
+     */
+    @FunctionalInterface
+    interface Materializer {
+        ContextViewDto view(String version);
+    }
+
+    private record Aggregate(long version, ContextViewDto view) {
+
+        static final Aggregate INITIAL = new Aggregate(0, null);
+
+        Aggregate next() {
+            return new Aggregate(version + 1, null);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.workitems.application;
+
+import java.nio.file.Path;
+
+import com.example.workitems.dto.DocumentDto;
+
+/**
+ * Stored content of a document together with its metadata.
+ */
+public record DocumentContent(DocumentDto document, Path file, long size) {
+}
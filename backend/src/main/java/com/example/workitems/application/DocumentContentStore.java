@@ -0,0 +1,96 @@
+package com.example.workitems.application;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.NotFoundException;
+
+/**
+ * Content-addressed file store for document content. Content is streamed through a fixed-size buffer into a temporary
+ * file while its SHA-256 is computed, then moved to {@code sha256/<first two hex digits>/<hash>}; content that is
+ * already stored is kept once.
+ */
+@ApplicationScoped
+class DocumentContentStore {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    @ConfigProperty(name = "workitems.documents.directory", defaultValue = "data/documents")
+    String directory;
+
+    StoredContent store(ReadableByteChannel source) {
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(Files.createDirectories(Path.of(directory, "tmp")), "upload-", ".part");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = 0;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            try (FileChannel target = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (source.read(buffer) >= 0) {
+                    buffer.flip();
+                    size += buffer.remaining();
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                target.force(true);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path file = path(hash);
+            if (Files.exists(file)) {
+                Files.delete(temporary);
+            } else {
+                Files.createDirectories(file.getParent());
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredContent(hash, size);
+        } catch (IOException e) {
+            deleteQuietly(temporary);
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    Path content(String hash) {
+        Path file = hash == null ? null : path(hash);
+        if (file == null || !Files.isRegularFile(file)) {
+            throw new NotFoundException("Document content not found");
+        }
+        return file;
+    }
+
+    private Path path(String hash) {
+        return Path.of(directory, "sha256", hash.substring(0, 2), hash);
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // the temporary file is left behind; it is never read
+        }
+    }
+
+    record StoredContent(String hash, long size) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.workitems.application;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import jakarta.ws.rs.BadRequestException;
+
+/**
+ * Opaque cursor of a document search: the index position and id of the last returned document.
+ */
+record DocumentCursor(int position, String id) {
+
+    String encode() {
+        String raw = "%d:%s".formatted(position, id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static DocumentCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":", 2);
+            return new DocumentCursor(Integer.parseInt(parts[0]), parts[1]);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.workitems.application;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import com.example.workitems.dto.DocumentDto;
+
+/**
+ * Inverted index over the documents of all domain objects. Every document gets a position in upload order; the
+ * terms of its index keywords and its file name, lowercased and split at everything but letters and digits, point to
+ * the positions of the documents carrying them. A query term matches every term it is a prefix of, so finding all
+ * documents tagged "Kalkulation" is a range lookup in the sorted term map plus a union of its postings.
+ * <p>
+ * Uploads are indexed one at a time under a lock; postings follow the same copy-on-write discipline as
+ * {@link WorkItemIndex}, so searches read them without locking.
+ */
+final class DocumentIndex {
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ConcurrentNavigableMap<String, RoaringBitmap> terms = new ConcurrentSkipListMap<>();
+    private final Map<String, RoaringBitmap> mimeTypes = new ConcurrentHashMap<>();
+    private volatile Entry[] entries;
+    private volatile int size;
+    /**
+     * Whether positions are in order of {@link DocumentDto#uploadedAt}, so a search can stop at the first document
+     * uploaded too early.
+     */
+    private volatile boolean chronological = true;
+
+    /**
+     * Indexes the documents by context key, oldest first.
+     */
+    DocumentIndex(Map<String, ? extends Collection<DocumentDto>> documentsByKey) {
+        List<DocumentDto> sortedDocuments = new ArrayList<>();
+        Map<DocumentDto, String> keys = new IdentityHashMap<>();
+        documentsByKey.forEach((key, documents) -> documents.forEach(document -> {
+            sortedDocuments.add(document);
+            keys.put(document, key);
+        }));
+        sortedDocuments.sort(Comparator.comparing((DocumentDto document) -> document.uploadedAt,
+                Comparator.nullsFirst(Comparator.naturalOrder())).thenComparing(document -> document.id));
+        entries = new Entry[Math.max(sortedDocuments.size(), 16)];
+        for (int position = 0; position < sortedDocuments.size(); position++) {
+            DocumentDto document = sortedDocuments.get(position);
+            entries[position] = new Entry(position, keys.get(document), document);
+            for (String term : terms(document)) {
+                terms.computeIfAbsent(term, ignored -> new RoaringBitmap()).add(position);
+            }
+            mimeTypes.computeIfAbsent(mimeTypeKey(document.mimeType), ignored -> new RoaringBitmap()).add(position);
+        }
+        terms.values().forEach(RoaringBitmap::runOptimize);
+        mimeTypes.values().forEach(RoaringBitmap::runOptimize);
+        size = sortedDocuments.size();
+    }
+
+    /**
+     * Indexes an uploaded document after all documents indexed so far.
+     */
+    void add(String contextKey, DocumentDto document) {
+        writeLock.lock();
+        try {
+            int position = size;
+            Entry[] current = entries;
+            if (position == current.length) {
+                current = Arrays.copyOf(current, position * 2);
+            }
+            current[position] = new Entry(position, contextKey, document);
+            entries = current;
+            if (position > 0 && isBefore(document.uploadedAt, current[position - 1].document().uploadedAt)) {
+                chronological = false;
+            }
+            for (String term : terms(document)) {
+                append(terms, term, position);
+            }
+            append(mimeTypes, mimeTypeKey(document.mimeType), position);
+            size = position + 1;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} documents matching every term of {@code keyword} and the MIME type that were
+     * uploaded after {@code uploadedAfter}, newest first, starting below position {@code before}. Without keyword
+     * and MIME type, every document matches.
+     */
+    Page search(String keyword, String mimeType, OffsetDateTime uploadedAfter, int before, int limit) {
+        int indexed = size;
+        Entry[] current = entries;
+        RoaringBitmap matches = candidates(keyword, mimeType, indexed);
+        List<Entry> page = new ArrayList<>(Math.min(limit, 64));
+        long position = Math.min(before, indexed) > 0 ? matches.previousValue(Math.min(before, indexed) - 1) : -1;
+        while (position >= 0) {
+            Entry entry = current[(int) position];
+            if (uploadedAfter != null && !isBefore(uploadedAfter, entry.document().uploadedAt)) {
+                if (chronological) {
+                    break;
+                }
+            } else if (page.size() == limit) {
+                return new Page(page, true);
+            } else {
+                page.add(entry);
+            }
+            position = position == 0 ? -1 : matches.previousValue((int) position - 1);
+        }
+        return new Page(page, false);
+    }
+
+    /**
+     * The document at {@code position}, or {@code null} if there is none.
+     */
+    Entry get(int position) {
+        return position >= 0 && position < size ? entries[position] : null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private RoaringBitmap candidates(String keyword, String mimeType, int indexed) {
+        List<RoaringBitmap> required = new ArrayList<>();
+        for (String token : tokens(keyword)) {
+            Collection<RoaringBitmap> postings = terms.subMap(token, true, token + Character.MAX_VALUE, false)
+                    .values();
+            required.add(postings.isEmpty() ? new RoaringBitmap()
+                    : FastAggregation.or(postings.toArray(RoaringBitmap[]::new)));
+        }
+        if (mimeType != null && !mimeType.isBlank()) {
+            RoaringBitmap posting = mimeTypes.get(mimeTypeKey(mimeType));
+            required.add(posting == null ? new RoaringBitmap() : posting);
+        }
+        if (required.isEmpty()) {
+            return RoaringBitmap.bitmapOfRange(0, indexed);
+        }
+        return required.size() == 1 ? required.get(0) : FastAggregation.and(required.toArray(RoaringBitmap[]::new));
+    }
+
+    private static void append(Map<String, RoaringBitmap> index, String key, int position) {
+        RoaringBitmap posting = index.get(key);
+        RoaringBitmap updated = posting == null ? new RoaringBitmap() : posting.clone();
+        updated.add(position);
+        index.put(key, updated);
+    }
+
+    private static Set<String> terms(DocumentDto document) {
+        Set<String> terms = new LinkedHashSet<>(tokens(document.fileName));
+        if (document.indexKeywords != null) {
+            document.indexKeywords.forEach(keyword -> terms.addAll(tokens(keyword)));
+        }
+        return terms;
+    }
+
+    /**
+     * Splits the text into lowercase runs of letters and digits.
+     */
+    static List<String> tokens(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        String normalized = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean inToken = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (inToken && start < 0) {
+                start = i;
+            } else if (!inToken && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static String mimeTypeKey(String mimeType) {
+        return mimeType == null ? "" : mimeType.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBefore(OffsetDateTime value, OffsetDateTime other) {
+        return value == null ? other != null : other != null && value.isBefore(other);
+    }
+
+    record Entry(int position, String contextKey, DocumentDto document) {
+    }
+
+    record Page(List<Entry> entries, boolean hasMore) {
+    }
+}
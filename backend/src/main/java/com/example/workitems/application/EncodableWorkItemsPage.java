@@ -0,0 +1,27 @@
+package com.example.workitems.application;
+
+import java.util.List;
+
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.dto.WorkItemsPageDto;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * A search result page that knows the store its items were read from, so the items' encoded forms can be taken from
+ * the store's {@link EncodedItems} instead of encoding every item again. It is serialized like any other page.
+ */
+@RegisterForReflection
+public final class EncodableWorkItemsPage extends WorkItemsPageDto {
+
+    private final EncodedItems encoded;
+
+    EncodableWorkItemsPage(List<WorkItemDto> items, long total, String nextCursor, EncodedItems encoded) {
+        super(items, total, nextCursor);
+        this.encoded = encoded;
+    }
+
+    public EncodedItems encoded() {
+        return encoded;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.workitems.application;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import com.example.workitems.dto.WorkItemDto;
+
+/**
+ * Encoded forms of a store's items, e.g. their JSON, kept for the version last encoded. The cache is direct-mapped:
+ * the id picks one slot, and encoding another item for the same slot replaces it, so the cache keeps a fixed size
+ * without tracking use. An encoded form is only returned for the id and version it was encoded from. Every change
+ * gives an item a new version, so a changed item is encoded again on its next read.
+ * <p>
+ * Ids and versions identify item contents only within one store, so each store has its own cache and a replaced
+ * state starts with an empty one.
+ */
+public final class EncodedItems {
+
+    static final int MAX_SLOTS = 1 << 15;
+
+    private final AtomicReferenceArray<Encoded> slots;
+    private final int mask;
+
+    /**
+     * @param items number of items in the store; the cache has a slot per item up to {@link #MAX_SLOTS}
+     */
+    EncodedItems(int items) {
+        int size = Integer.highestOneBit(Math.max(1, Math.min(items, MAX_SLOTS)) * 2 - 1);
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    /**
+     * Returns the encoded form of the item, encoding it if the cache does not hold it in this version.
+     */
+    public byte[] get(WorkItemDto item, Function<WorkItemDto, byte[]> encoder) {
+        int slot = spread(item.id.hashCode()) & mask;
+        Encoded cached = slots.get(slot);
+        if (cached != null && cached.version() == item.version && cached.id().equals(item.id)) {
+            return cached.bytes();
+        }
+        byte[] bytes = encoder.apply(item);
+        slots.lazySet(slot, new Encoded(item.id, item.version, bytes));
+        return bytes;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private record Encoded(String id, long version, byte[] bytes) {
+    }
+}
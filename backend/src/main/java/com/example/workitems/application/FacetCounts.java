@@ -0,0 +1,118 @@
+package com.example.workitems.application;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemStatus;
+
+/**
+ * Item counts per assignee and per team, each broken down by status and object type. A commit moves a changed item
+ * from the cell of its previous version to the cell of its new one, so keeping the counts costs two updates per
+ * grouping and change; reading a basket count sums at most one cell row instead of touching any item.
+ * <p>
+ * Only the store's writer updates the counts. Readers may see a commit half applied and have to check that no write
+ * overlapped their read (see {@link WorkItemStore#count}).
+ */
+final class FacetCounts {
+
+    private static final int STATUS_SLOTS = WorkItemStatus.values().length + 1;
+    private static final int OBJECT_TYPE_SLOTS = DomainObjectType.values().length + 1;
+
+    private final Map<String, AtomicLongArray> byAssignee = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLongArray> byTeam = new ConcurrentHashMap<>();
+
+    FacetCounts(List<WorkItemDto> items) {
+        for (WorkItemDto item : items) {
+            add(item, 1);
+        }
+    }
+
+    /**
+     * Applies committed changes. Must only be called by the store's writer.
+     */
+    void apply(List<RowChange> changes) {
+        for (RowChange change : changes) {
+            add(change.previous(), -1);
+            add(change.current(), 1);
+        }
+    }
+
+    /**
+     * Counts the items matching the query's assignee, team, status and object type. Object id and text filters are
+     * not counted here and must be absent.
+     */
+    long count(WorkItemQuery query) {
+        int cell = cell(query.status(), query.objectType());
+        if (query.assignee() != null) {
+            if (!query.assigneeIgnoreCase()) {
+                return count(byAssignee.get(key(query.assignee())), query, cell);
+            }
+            long count = 0;
+            for (Map.Entry<String, AtomicLongArray> entry : byAssignee.entrySet()) {
+                if (entry.getKey().equalsIgnoreCase(query.assignee())) {
+                    count += count(entry.getValue(), query, cell);
+                }
+            }
+            return count;
+        }
+        if (query.team() != null) {
+            return count(byTeam.get(key(query.team())), query, cell);
+        }
+        long count = 0;
+        for (AtomicLongArray cells : byTeam.values()) {
+            count += count(cells, query, cell);
+        }
+        return count;
+    }
+
+    private void add(WorkItemDto item, int delta) {
+        int cell = cell(item.status, item.objectType);
+        cells(byAssignee, item.assignedTo).getAndAdd(cell, delta);
+        cells(byTeam, item.team).getAndAdd(cell, delta);
+    }
+
+    /**
+     * Sums the cells selected by the query; a filter that is not set selects every slot of its dimension.
+     */
+    private static long count(AtomicLongArray cells, WorkItemQuery query, int cell) {
+        if (cells == null) {
+            return 0;
+        }
+        if (query.status() != null && query.objectType() != null) {
+            return cells.get(cell);
+        }
+        long count = 0;
+        for (int status = 0; status < STATUS_SLOTS; status++) {
+            for (int objectType = 0; objectType < OBJECT_TYPE_SLOTS; objectType++) {
+                if ((query.status() == null || status == cell / OBJECT_TYPE_SLOTS)
+                        && (query.objectType() == null || objectType == cell % OBJECT_TYPE_SLOTS)) {
+                    count += cells.get(status * OBJECT_TYPE_SLOTS + objectType);
+                }
+            }
+        }
+        return count;
+    }
+
+    private static AtomicLongArray cells(Map<String, AtomicLongArray> counts, String value) {
+        return counts.computeIfAbsent(key(value), ignored -> new AtomicLongArray(STATUS_SLOTS * OBJECT_TYPE_SLOTS));
+    }
+
+    private static int cell(WorkItemStatus status, DomainObjectType objectType) {
+        return slot(status) * OBJECT_TYPE_SLOTS + slot(objectType);
+    }
+
+    /**
+     * Maps a value to its slot; the first slot of a dimension counts items without a value.
+     */
+    private static int slot(Enum<?> value) {
+        return value == null ? 0 : value.ordinal() + 1;
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value;
+    }
+}
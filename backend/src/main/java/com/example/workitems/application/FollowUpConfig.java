@@ -0,0 +1,31 @@
+package com.example.workitems.application;
+
+import java.time.Duration;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Settings of the follow-up scheduler that reopens rescheduled items ({@code workitems.follow-ups.*}).
+ */
+@ConfigMapping(prefix = "workitems.follow-ups")
+public interface FollowUpConfig {
+
+    /**
+     * Whether due follow-ups are processed in the background. Without it rescheduled items stay blocked.
+     */
+    @WithDefault("true")
+    boolean enabled();
+
+    /**
+     * Resolution of the follow-up deadlines and interval in which due follow-ups are processed.
+     */
+    @WithDefault("1s")
+    Duration tick();
+
+    /**
+     * Number of due items reopened with one commit and journal append.
+     */
+    @WithDefault("500")
+    int batchSize();
+}
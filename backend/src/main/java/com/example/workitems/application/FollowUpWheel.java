@@ -0,0 +1,200 @@
+package com.example.workitems.application;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Follow-up deadlines of the items of one store, held in a hierarchical timing wheel. Level {@code n} has
+ * {@value #SLOTS} slots of {@code 64^n} ticks each, so a deadline is filed in O(1) regardless of how far ahead it
+ * lies, and it moves down one level each time the wheel passes the start of its slot.
+ * <p>
+ * Items are identified by their ordinal, and the slot lists are linked through arrays indexed by it. An item has at
+ * most one deadline: scheduling it again unlinks the previous one, so a rescheduled item leaves no stale entry behind
+ * and cancelling is O(1) as well. The wheel is safe for concurrent use; every operation is short and holds the lock
+ * only while it changes links.
+ */
+final class FollowUpWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = (Long.SIZE + SLOT_BITS - 1) / SLOT_BITS;
+    private static final int NONE = -1;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long tickMillis;
+    private final int[] heads = new int[LEVELS * SLOTS];
+    private final int[] next;
+    private final int[] previous;
+    private final int[] slotOf;
+    private final long[] deadlines;
+
+    private long currentTick;
+    private int size;
+
+    FollowUpWheel(int capacity, Duration tick, Instant start) {
+        if (tick.toMillis() < 1) {
+            throw new IllegalArgumentException("Follow-up tick must be at least one millisecond");
+        }
+        this.tickMillis = tick.toMillis();
+        this.next = new int[capacity];
+        this.previous = new int[capacity];
+        this.slotOf = new int[capacity];
+        this.deadlines = new long[capacity];
+        Arrays.fill(heads, NONE);
+        Arrays.fill(slotOf, NONE);
+        this.currentTick = tickOf(start);
+    }
+
+    /**
+     * Files the item's follow-up at {@code deadline}, replacing any earlier one. A deadline that has already passed
+     * is due on the next tick.
+     */
+    void schedule(int ordinal, Instant deadline) {
+        lock.lock();
+        try {
+            unlink(ordinal);
+            deadlines[ordinal] = Math.max(ceilTick(deadline), currentTick + 1);
+            file(ordinal);
+            size++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the item's follow-up, if it has one.
+     */
+    void cancel(int ordinal) {
+        lock.lock();
+        try {
+            unlink(ordinal);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the wheel to {@code now} and returns the items whose follow-up is due, removing them from the wheel.
+     */
+    int[] advance(Instant now) {
+        lock.lock();
+        try {
+            return advanceTo(tickOf(now));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int[] advanceTo(long target) {
+        if (size == 0) {
+            currentTick = Math.max(currentTick, target);
+            return new int[0];
+        }
+        int[] due = new int[Math.min(size, 16)];
+        int count = 0;
+        while (currentTick < target && size > 0) {
+            currentTick++;
+            cascade();
+            int slot = (int) (currentTick & SLOT_MASK);
+            int ordinal = heads[slot];
+            heads[slot] = NONE;
+            while (ordinal != NONE) {
+                int following = next[ordinal];
+                slotOf[ordinal] = NONE;
+                if (deadlines[ordinal] <= currentTick) {
+                    size--;
+                    if (count == due.length) {
+                        due = Arrays.copyOf(due, count * 2);
+                    }
+                    due[count++] = ordinal;
+                } else {
+                    file(ordinal);
+                }
+                ordinal = following;
+            }
+        }
+        currentTick = Math.max(currentTick, target);
+        return Arrays.copyOf(due, count);
+    }
+
+    /**
+     * Number of items with a follow-up.
+     */
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Refiles the slot of every higher level whose start the wheel has just reached, so its items move closer to
+     * level 0.
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = level * SLOT_BITS;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                return;
+            }
+            int slot = level * SLOTS + (int) ((currentTick >>> shift) & SLOT_MASK);
+            int ordinal = heads[slot];
+            heads[slot] = NONE;
+            while (ordinal != NONE) {
+                int following = next[ordinal];
+                file(ordinal);
+                ordinal = following;
+            }
+        }
+    }
+
+    private void file(int ordinal) {
+        long deadline = deadlines[ordinal];
+        long delta = deadline - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << ((level + 1) * SLOT_BITS)) {
+            level++;
+        }
+        int slot = level * SLOTS + (int) ((deadline >>> (level * SLOT_BITS)) & SLOT_MASK);
+        int head = heads[slot];
+        next[ordinal] = head;
+        previous[ordinal] = NONE;
+        if (head != NONE) {
+            previous[head] = ordinal;
+        }
+        heads[slot] = ordinal;
+        slotOf[ordinal] = slot;
+    }
+
+    private void unlink(int ordinal) {
+        int slot = slotOf[ordinal];
+        if (slot == NONE) {
+            return;
+        }
+        int before = previous[ordinal];
+        int after = next[ordinal];
+        if (before == NONE) {
+            heads[slot] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after != NONE) {
+            previous[after] = before;
+        }
+        slotOf[ordinal] = NONE;
+        size--;
+    }
+
+    private long tickOf(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), tickMillis);
+    }
+
+    private long ceilTick(Instant instant) {
+        return -Math.floorDiv(-instant.toEpochMilli(), tickMillis);
+    }
+}
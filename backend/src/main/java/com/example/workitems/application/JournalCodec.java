@@ -0,0 +1,273 @@
+package com.example.workitems.application;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.workitems.dto.DocumentDto;
+import com.example.workitems.dto.ProtocolEntryDto;
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemStatus;
+
+/**
+ * Compact binary encoding of journal events and snapshots. Strings are length-prefixed UTF-8, enums are ordinals and
+ * timestamps are epoch seconds, nanos and offset; {@code null} is encoded explicitly for every nullable value.
+ * <p>
+ * Documents recorded before content was stored have no content hash; their event type and snapshot format are still
+ * read.
+ */
+final class JournalCodec {
+
+    private static final byte ACTION_APPLIED = 1;
+    private static final byte DOCUMENT_UPLOADED_WITHOUT_CONTENT = 2;
+    private static final byte PROTOCOL_APPENDED = 3;
+    private static final byte DOCUMENT_UPLOADED = 4;
+
+    private static final int SNAPSHOT_WITHOUT_CONTENT = 0x57494A31;
+    private static final int SNAPSHOT = 0x57494A32;
+
+    private static final DomainObjectType[] OBJECT_TYPES = DomainObjectType.values();
+    private static final WorkItemStatus[] STATUSES = WorkItemStatus.values();
+
+    private JournalCodec() {
+    }
+
+    static void writeEvent(DataOutput out, JournalEvent event) throws IOException {
+        if (event instanceof JournalEvent.ActionApplied applied) {
+            out.writeByte(ACTION_APPLIED);
+            out.writeInt(applied.items().size());
+            for (WorkItemDto item : applied.items()) {
+                writeItem(out, item);
+            }
+        } else if (event instanceof JournalEvent.DocumentUploaded uploaded) {
+            out.writeByte(DOCUMENT_UPLOADED);
+            writeString(out, uploaded.contextKey());
+            writeDocument(out, uploaded.document());
+        } else if (event instanceof JournalEvent.ProtocolAppended appended) {
+            out.writeByte(PROTOCOL_APPENDED);
+            writeString(out, appended.contextKey());
+            out.writeInt(appended.entries().size());
+            for (ProtocolEntryDto entry : appended.entries()) {
+                writeProtocolEntry(out, entry);
+            }
+        }
+    }
+
+    static JournalEvent readEvent(DataInput in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case ACTION_APPLIED -> {
+                int count = in.readInt();
+                List<WorkItemDto> items = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    items.add(readItem(in));
+                }
+                yield new JournalEvent.ActionApplied(items);
+            }
+            case DOCUMENT_UPLOADED -> new JournalEvent.DocumentUploaded(readString(in), readDocument(in, true));
+            case DOCUMENT_UPLOADED_WITHOUT_CONTENT -> new JournalEvent.DocumentUploaded(readString(in),
+                    readDocument(in, false));
+            case PROTOCOL_APPENDED -> {
+                String contextKey = readString(in);
+                int count = in.readInt();
+                List<ProtocolEntryDto> entries = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    entries.add(readProtocolEntry(in));
+                }
+                yield new JournalEvent.ProtocolAppended(contextKey, entries);
+            }
+            default -> throw new IOException("Unknown journal event type " + type);
+        };
+    }
+
+    static void writeSnapshot(DataOutput out, WorkItemJournal.Snapshot snapshot) throws IOException {
+        out.writeInt(SNAPSHOT);
+        out.writeLong(snapshot.lsn());
+        out.writeInt(snapshot.items().size());
+        for (WorkItemDto item : snapshot.items()) {
+            writeItem(out, item);
+        }
+        out.writeInt(snapshot.documents().size());
+        for (Map.Entry<String, List<DocumentDto>> documents : snapshot.documents().entrySet()) {
+            writeString(out, documents.getKey());
+            out.writeInt(documents.getValue().size());
+            for (DocumentDto document : documents.getValue()) {
+                writeDocument(out, document);
+            }
+        }
+        out.writeInt(snapshot.protocol().size());
+        for (Map.Entry<String, List<ProtocolEntryDto>> protocol : snapshot.protocol().entrySet()) {
+            writeString(out, protocol.getKey());
+            out.writeInt(protocol.getValue().size());
+            for (ProtocolEntryDto entry : protocol.getValue()) {
+                writeProtocolEntry(out, entry);
+            }
+        }
+    }
+
+    static WorkItemJournal.Snapshot readSnapshot(DataInput in) throws IOException {
+        int format = in.readInt();
+        if (format != SNAPSHOT && format != SNAPSHOT_WITHOUT_CONTENT) {
+            throw new IOException("Not a work item snapshot");
+        }
+        long lsn = in.readLong();
+        int itemCount = in.readInt();
+        List<WorkItemDto> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(readItem(in));
+        }
+        int documentKeys = in.readInt();
+        Map<String, List<DocumentDto>> documents = new LinkedHashMap<>(documentKeys * 4 / 3 + 1);
+        for (int i = 0; i < documentKeys; i++) {
+            String key = readString(in);
+            int count = in.readInt();
+            List<DocumentDto> values = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                values.add(readDocument(in, format == SNAPSHOT));
+            }
+            documents.put(key, values);
+        }
+        int protocolKeys = in.readInt();
+        Map<String, List<ProtocolEntryDto>> protocol = new LinkedHashMap<>(protocolKeys * 4 / 3 + 1);
+        for (int i = 0; i < protocolKeys; i++) {
+            String key = readString(in);
+            int count = in.readInt();
+            List<ProtocolEntryDto> values = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                values.add(readProtocolEntry(in));
+            }
+            protocol.put(key, values);
+        }
+        return new WorkItemJournal.Snapshot(lsn, items, documents, protocol);
+    }
+
+    private static void writeItem(DataOutput out, WorkItemDto item) throws IOException {
+        writeString(out, item.id);
+        out.writeByte(item.objectType == null ? -1 : item.objectType.ordinal());
+        writeString(out, item.objectId);
+        writeString(out, item.objectLabel);
+        writeString(out, item.customerName);
+        writeString(out, item.contractNo);
+        writeString(out, item.claimNo);
+        writeString(out, item.title);
+        writeString(out, item.description);
+        out.writeByte(item.status == null ? -1 : item.status.ordinal());
+        out.writeInt(item.priority);
+        writeTime(out, item.receivedAt);
+        writeTime(out, item.dueAt);
+        writeString(out, item.assignedTo);
+        writeString(out, item.team);
+        out.writeLong(item.version);
+    }
+
+    private static WorkItemDto readItem(DataInput in) throws IOException {
+        String id = readString(in);
+        byte objectType = in.readByte();
+        WorkItemDto item = new WorkItemDto(id, objectType < 0 ? null : OBJECT_TYPES[objectType], readString(in),
+                readString(in), readString(in), readString(in), readString(in), readString(in), readString(in),
+                null, 0, null, null, null, null);
+        byte status = in.readByte();
+        item.status = status < 0 ? null : STATUSES[status];
+        item.priority = in.readInt();
+        item.receivedAt = readTime(in);
+        item.dueAt = readTime(in);
+        item.assignedTo = readString(in);
+        item.team = readString(in);
+        item.version = in.readLong();
+        return item;
+    }
+
+    private static void writeDocument(DataOutput out, DocumentDto document) throws IOException {
+        writeString(out, document.id);
+        writeString(out, document.fileName);
+        writeString(out, document.mimeType);
+        out.writeLong(document.sizeInBytes);
+        if (document.indexKeywords == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(document.indexKeywords.size());
+            for (String keyword : document.indexKeywords) {
+                writeString(out, keyword);
+            }
+        }
+        writeTime(out, document.uploadedAt);
+        writeString(out, document.uploadedBy);
+        writeString(out, document.contentHash);
+    }
+
+    private static DocumentDto readDocument(DataInput in, boolean withContent) throws IOException {
+        String id = readString(in);
+        String fileName = readString(in);
+        String mimeType = readString(in);
+        long sizeInBytes = in.readLong();
+        int keywordCount = in.readInt();
+        List<String> keywords = null;
+        if (keywordCount >= 0) {
+            keywords = new ArrayList<>(keywordCount);
+            for (int i = 0; i < keywordCount; i++) {
+                keywords.add(readString(in));
+            }
+        }
+        DocumentDto document = new DocumentDto(id, fileName, mimeType, sizeInBytes, keywords, readTime(in),
+                readString(in));
+        document.contentHash = withContent ? readString(in) : null;
+        return document;
+    }
+
+    private static void writeProtocolEntry(DataOutput out, ProtocolEntryDto entry) throws IOException {
+        writeString(out, entry.id);
+        writeTime(out, entry.timestamp);
+        writeString(out, entry.source);
+        writeString(out, entry.message);
+    }
+
+    private static ProtocolEntryDto readProtocolEntry(DataInput in) throws IOException {
+        return new ProtocolEntryDto(readString(in), readTime(in), readString(in), readString(in));
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeTime(DataOutput out, OffsetDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond());
+            out.writeInt(value.getNano());
+            out.writeInt(value.getOffset().getTotalSeconds());
+        }
+    }
+
+    private static OffsetDateTime readTime(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Instant instant = Instant.ofEpochSecond(in.readLong(), in.readInt());
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.ofTotalSeconds(in.readInt()));
+    }
+}
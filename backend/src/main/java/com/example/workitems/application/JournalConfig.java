@@ -0,0 +1,43 @@
+package com.example.workitems.application;
+
+import io.quarkus.runtime.configuration.MemorySize;
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Settings of the work item journal ({@code workitems.journal.*}).
+ */
+@ConfigMapping(prefix = "workitems.journal")
+public interface JournalConfig {
+
+    /**
+     * Whether state is journaled and recovered on startup. Without it all state lives in the heap only.
+     */
+    @WithDefault("true")
+    boolean enabled();
+
+    /**
+     * Directory holding journal segments and snapshots.
+     */
+    @WithDefault("data/journal")
+    String directory();
+
+    /**
+     * Size of a memory-mapped journal segment.
+     */
+    @WithDefault("64M")
+    MemorySize segmentSize();
+
+    /**
+     * Number of journal records after which a new snapshot is written in the background.
+     */
+    @WithDefault("100000")
+    int snapshotInterval();
+
+    /**
+     * Whether a write waits until its journal records are forced to disk. Without it records survive a process crash
+     * but not an operating system crash.
+     */
+    @WithDefault("true")
+    boolean fsync();
+}
@@ -0,0 +1,29 @@
+package com.example.workitems.application;
+
+import java.util.List;
+
+import com.example.workitems.dto.DocumentDto;
+import com.example.workitems.dto.ProtocolEntryDto;
+import com.example.workitems.dto.WorkItemDto;
+
+/**
+ * Domain event recorded in the {@link WorkItemJournal}. Events carry resulting state rather than the command that
+ * produced it, so replay does not depend on the current user or the clock.
+ */
+sealed interface JournalEvent {
+
+    /**
+     * New versions of work items, committed by one action or one batch.
+     */
+    record ActionApplied(List<WorkItemDto> items) implements JournalEvent {
+    }
+
+    record DocumentUploaded(String contextKey, DocumentDto document) implements JournalEvent {
+    }
+
+    /**
+     * Protocol entries of one domain object in the order they were prepended.
+     */
+    record ProtocolAppended(String contextKey, List<ProtocolEntryDto> entries) implements JournalEvent {
+    }
+}
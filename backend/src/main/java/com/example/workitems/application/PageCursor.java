@@ -0,0 +1,34 @@
+package com.example.workitems.application;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import jakarta.ws.rs.BadRequestException;
+
+/**
+ * Opaque keyset cursor: the sort the page was produced with plus the sort key and id of the last returned item.
+ */
+record PageCursor(WorkItemSort sort, long key, String id) {
+
+    String encode() {
+        String raw = "%s:%s:%d:%s".formatted(sort.field().name(), sort.descending() ? "d" : "a", key, id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    SortedIndex.Entry position() {
+        return new SortedIndex.Entry(key, id, -1);
+    }
+
+    static PageCursor decode(String token, WorkItemSort expectedSort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":", 4);
+            WorkItemSort sort = new WorkItemSort(SortField.valueOf(parts[0]), "d".equals(parts[1]));
+            if (!sort.equals(expectedSort)) {
+                throw new BadRequestException("Cursor was issued for a different sort order");
+            }
+            return new PageCursor(sort, Long.parseLong(parts[2]), parts[3]);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.workitems.application;
+
+import java.util.OptionalInt;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Settings of the protocol log ({@code workitems.protocol.*}).
+ */
+@ConfigMapping(prefix = "workitems.protocol")
+public interface ProtocolConfig {
+
+    /**
+     * Number of entries per segment of a domain object's protocol.
+     */
+    @WithDefault("256")
+    int segmentSize();
+
+    /**
+     * Number of segments kept per domain object. When a new segment is started beyond it, the oldest one is dropped
+     * and is no longer part of snapshots. Without it the whole protocol is kept.
+     */
+    OptionalInt retainedSegments();
+}
@@ -0,0 +1,236 @@
+package com.example.workitems.application;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.example.workitems.dto.ProtocolEntryDto;
+
+/**
+ * Append-only protocol of every domain object, keyed by context key. A domain object's entries are kept in append
+ * order in fixed-size segments; reading walks them backwards, so the newest entry comes first without shifting
+ * anything on append. Only the last segment is written to, and readers need no lock: an entry is published by the
+ * volatile size of its segment, a segment by the volatile segment array. Appends of all domain objects share one
+ * lock; they are short and a lock per domain object would cost memory for every one of them.
+ * <p>
+ * With a retention limit the oldest segment of a domain object is dropped when a new one is started.
+ */
+final class ProtocolLog {
+
+    static final int DEFAULT_SEGMENT_SIZE = 256;
+
+    private static final int INITIAL_SEGMENT_CAPACITY = 4;
+
+    private final int segmentSize;
+    private final int retainedSegments;
+    private final Map<String, ObjectLog> byKey = new ConcurrentHashMap<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    /**
+     * @param retainedSegments segments kept per domain object, {@code 0} for all
+     */
+    ProtocolLog(int segmentSize, int retainedSegments) {
+        if (segmentSize < 1 || retainedSegments < 0) {
+            throw new IllegalArgumentException("Invalid protocol log settings");
+        }
+        this.segmentSize = segmentSize;
+        this.retainedSegments = retainedSegments;
+    }
+
+    /**
+     * Returns an empty log with the same settings, filled with the given protocols (newest entry first).
+     */
+    ProtocolLog restart(Map<String, List<ProtocolEntryDto>> newestFirst) {
+        ProtocolLog log = new ProtocolLog(segmentSize, retainedSegments);
+        newestFirst.forEach((key, entries) -> {
+            ObjectLog objectLog = log.objectLog(key);
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                objectLog.append(entries.get(i));
+            }
+        });
+        return log;
+    }
+
+    /**
+     * Appends entries in the given order, so the last one becomes the newest.
+     */
+    void append(String key, List<ProtocolEntryDto> entries) {
+        ObjectLog objectLog = objectLog(key);
+        for (ProtocolEntryDto entry : entries) {
+            objectLog.append(entry);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} entries older than {@code before} (all entries without it), newest first. A page
+     * never ends between entries of the same timestamp, so it may hold more entries than requested; the timestamp of
+     * its last entry is the {@code before} of the next page.
+     */
+    Page page(String key, int limit, OffsetDateTime before) {
+        ObjectLog objectLog = byKey.get(key);
+        if (objectLog == null) {
+            return new Page(List.of(), false);
+        }
+        List<ProtocolEntryDto> entries = new ArrayList<>(Math.min(limit, DEFAULT_SEGMENT_SIZE));
+        Segment[] segments = objectLog.segments;
+        for (int s = segments.length - 1; s >= 0; s--) {
+            Segment segment = segments[s];
+            int size = segment.size;
+            ProtocolEntryDto[] segmentEntries = segment.entries;
+            OffsetDateTime earliest = segment.earliest;
+            if (before != null && earliest != null && !earliest.isBefore(before)) {
+                continue;
+            }
+            for (int i = size - 1; i >= 0; i--) {
+                ProtocolEntryDto entry = segmentEntries[i];
+                if (before != null && (entry.timestamp == null || !entry.timestamp.isBefore(before))) {
+                    continue;
+                }
+                if (entries.size() >= limit && !sameTime(entries.get(entries.size() - 1), entry)) {
+                    return new Page(entries, true);
+                }
+                entries.add(entry);
+            }
+        }
+        return new Page(entries, false);
+    }
+
+    /**
+     * Marks the current end of every protocol without copying entries. Appends only ever fill the last segment past
+     * its size or start new segments, so {@link Marks#lists()} can still list exactly the entries up to the marks
+     * later on. Must not overlap an append to be exact.
+     */
+    Marks mark() {
+        Map<String, Mark> marks = new LinkedHashMap<>(byKey.size() * 4 / 3 + 1);
+        byKey.forEach((key, objectLog) -> {
+            Segment[] segments = objectLog.segments;
+            marks.put(key, new Mark(segments, segments[segments.length - 1].size));
+        });
+        return new Marks(marks);
+    }
+
+    int objectCount() {
+        return byKey.size();
+    }
+
+    /**
+     * Counts the retained entries of all domain objects. Walks every protocol; meant for metrics, not hot paths.
+     */
+    long entryCount() {
+        return byKey.values().stream().mapToLong(ObjectLog::size).sum();
+    }
+
+    /**
+     * Returns the number of retained entries of the longest protocol. Walks every protocol like {@link #entryCount}.
+     */
+    long largest() {
+        return byKey.values().stream().mapToLong(ObjectLog::size).max().orElse(0);
+    }
+
+    private ObjectLog objectLog(String key) {
+        return byKey.computeIfAbsent(key, ignored -> new ObjectLog());
+    }
+
+    private static boolean sameTime(ProtocolEntryDto a, ProtocolEntryDto b) {
+        return a.timestamp != null && b.timestamp != null && a.timestamp.isEqual(b.timestamp);
+    }
+
+    record Page(List<ProtocolEntryDto> entries, boolean hasMore) {
+    }
+
+    /**
+     * The ends of all protocols at one point in time, see {@link #mark()}.
+     */
+    static final class Marks {
+        private final Map<String, Mark> byKey;
+
+        private Marks(Map<String, Mark> byKey) {
+            this.byKey = byKey;
+        }
+
+        /**
+         * Returns every retained protocol up to its mark, newest entry first.
+         */
+        Map<String, List<ProtocolEntryDto>> lists() {
+            Map<String, List<ProtocolEntryDto>> lists = new LinkedHashMap<>(byKey.size() * 4 / 3 + 1);
+            byKey.forEach((key, mark) -> lists.put(key, mark.newestFirst()));
+            return lists;
+        }
+    }
+
+    private record Mark(Segment[] segments, int lastSize) {
+
+        List<ProtocolEntryDto> newestFirst() {
+            List<ProtocolEntryDto> entries = new ArrayList<>();
+            for (int s = segments.length - 1; s >= 0; s--) {
+                ProtocolEntryDto[] segmentEntries = segments[s].entries;
+                int size = s == segments.length - 1 ? lastSize : segments[s].size;
+                for (int i = size - 1; i >= 0; i--) {
+                    entries.add(segmentEntries[i]);
+                }
+            }
+            return entries;
+        }
+    }
+
+    private final class ObjectLog {
+        private volatile Segment[] segments = { new Segment(Math.min(INITIAL_SEGMENT_CAPACITY, segmentSize)) };
+
+        long size() {
+            Segment[] current = segments;
+            return (long) (current.length - 1) * segmentSize + current[current.length - 1].size;
+        }
+
+        void append(ProtocolEntryDto entry) {
+            appendLock.lock();
+            try {
+                Segment last = segments[segments.length - 1];
+                if (last.size == segmentSize) {
+                    last = new Segment(Math.min(INITIAL_SEGMENT_CAPACITY, segmentSize));
+                    int from = retainedSegments > 0 && segments.length >= retainedSegments
+                            ? segments.length - retainedSegments + 1
+                            : 0;
+                    Segment[] next = Arrays.copyOfRange(segments, from, segments.length + 1);
+                    next[next.length - 1] = last;
+                    last.add(entry, segmentSize);
+                    segments = next;
+                    return;
+                }
+                last.add(entry, segmentSize);
+            } finally {
+                appendLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Grows its entry array up to the segment size, so domain objects with a short protocol stay small.
+     */
+    private static final class Segment {
+        private volatile ProtocolEntryDto[] entries;
+        private volatile OffsetDateTime earliest;
+        private volatile int size;
+
+        Segment(int capacity) {
+            this.entries = new ProtocolEntryDto[capacity];
+        }
+
+        void add(ProtocolEntryDto entry, int segmentSize) {
+            ProtocolEntryDto[] current = entries;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, Math.min(current.length * 2, segmentSize));
+                entries = current;
+            }
+            current[size] = entry;
+            if (entry.timestamp != null && (earliest == null || entry.timestamp.isBefore(earliest))) {
+                earliest = entry.timestamp;
+            }
+            size++;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.workitems.application;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.DomainObjectType;
+
+/**
+ * Adjacency index customer → contracts → claims, derived from the references every work item carries
+ * ({@code customerName}, {@code contractNo}, {@code claimNo}). A customer object is known by the name on its own
+ * tasks; a contract belongs to every customer name it is referenced with, a claim to every contract.
+ * <p>
+ * Each link is counted once per work item that establishes it, so a committed item whose references changed moves
+ * its links and a link disappears with the last item carrying it. Nothing is kept per item; the links of the replaced
+ * version are derived from it again. Changes are applied one at a time under a lock; readers walk the concurrent maps
+ * without locking.
+ */
+final class RelationshipGraph {
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<String, Map<String, Integer>> namesByCustomer = new ConcurrentHashMap<>();
+    private final Map<String, Map<Node, Integer>> contractsByName = new ConcurrentHashMap<>();
+    private final Map<String, Map<Node, Integer>> claimsByContract = new ConcurrentHashMap<>();
+
+    RelationshipGraph(Iterable<WorkItemDto> items) {
+        for (WorkItemDto item : items) {
+            link(Links.of(item), 1);
+        }
+    }
+
+    /**
+     * Moves the links of a committed item from those of the version it replaced, if its references changed.
+     */
+    void itemChanged(WorkItemDto previous, WorkItemDto committed) {
+        Links before = Links.of(previous);
+        Links after = Links.of(committed);
+        if (before.equals(after)) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            link(before, -1);
+            link(after, 1);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * The objects below the given one down to {@code depth} levels, level by level: a customer's contracts, then
+     * their claims. Every object is returned once and never the object itself.
+     */
+    List<Node> related(DomainObjectType objectType, String objectId, int depth) {
+        Node root = new Node(objectType, objectId);
+        Map<String, Node> visited = new LinkedHashMap<>();
+        visited.put(root.key(), root);
+        List<Node> level = List.of(root);
+        for (int distance = 0; distance < depth && !level.isEmpty(); distance++) {
+            List<Node> next = new ArrayList<>();
+            for (Node node : level) {
+                for (Node child : children(node)) {
+                    if (visited.putIfAbsent(child.key(), child) == null) {
+                        next.add(child);
+                    }
+                }
+            }
+            level = next;
+        }
+        return List.copyOf(visited.values()).subList(1, visited.size());
+    }
+
+    private List<Node> children(Node node) {
+        return switch (node.type()) {
+            case CUSTOMER -> namesByCustomer.getOrDefault(node.key(), Map.of()).keySet().stream()
+                    .flatMap(name -> contractsByName.getOrDefault(name, Map.of()).keySet().stream())
+                    .distinct()
+                    .toList();
+            case CONTRACT -> List.copyOf(claimsByContract.getOrDefault(node.key(), Map.of()).keySet());
+            default -> List.of();
+        };
+    }
+
+    private void link(Links links, int delta) {
+        count(namesByCustomer, links.customer(), links.customerName(), delta);
+        count(contractsByName, links.customerName(), links.contract(), delta);
+        count(claimsByContract, links.contract() == null ? null : links.contract().key(), links.claim(), delta);
+    }
+
+    private static <T> void count(Map<String, Map<T, Integer>> links, String from, T to, int delta) {
+        if (from == null || to == null) {
+            return;
+        }
+        links.compute(from, (ignored, targets) -> {
+            Map<T, Integer> updated = targets == null ? new ConcurrentHashMap<>() : targets;
+            updated.merge(to, delta, (count, change) -> count + change == 0 ? null : count + change);
+            return updated.isEmpty() ? null : updated;
+        });
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    /**
+     * A domain object in the graph.
+     */
+    record Node(DomainObjectType type, String id) {
+
+        String key() {
+            return WorkItemService.contextKey(type, id);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Node node && key().equals(node.key());
+        }
+
+        @Override
+        public int hashCode() {
+            return key().hashCode();
+        }
+    }
+
+    /**
+     * The links one work item establishes: its customer object to the customer name (only for tasks of a customer),
+     * the name to the contract and the contract to the claim.
+     */
+    private record Links(String customer, String customerName, Node contract, Node claim) {
+
+        static Links of(WorkItemDto item) {
+            String customerName = blankToNull(item.customerName);
+            String contractNo = blankToNull(item.contractNo);
+            String claimNo = blankToNull(item.claimNo);
+            return new Links(
+                    item.objectType == DomainObjectType.CUSTOMER && item.objectId != null
+                            ? WorkItemService.contextKey(item.objectType, item.objectId)
+                            : null,
+                    customerName,
+                    contractNo == null ? null : new Node(DomainObjectType.CONTRACT, contractNo),
+                    claimNo == null ? null : new Node(DomainObjectType.CLAIM, claimNo));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.workitems.application;
+
+import com.example.workitems.dto.WorkItemDto;
+
+/**
+ * Replacement of one published item version by the next, as seen by the index maintenance of a commit.
+ */
+record RowChange(int ordinal, WorkItemDto previous, WorkItemDto current) {
+}
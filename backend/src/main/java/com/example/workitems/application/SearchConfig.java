@@ -0,0 +1,25 @@
+package com.example.workitems.application;
+
+import java.util.OptionalInt;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Settings of how searches are split across partitions ({@code workitems.search.*}).
+ */
+@ConfigMapping(prefix = "workitems.search")
+public interface SearchConfig {
+
+    /**
+     * Number of partitions the indexes are split into. Without it there is one partition per processor.
+     */
+    OptionalInt partitions();
+
+    /**
+     * Number of candidates from which a search works on the partitions in parallel. Smaller searches run on the
+     * calling thread only.
+     */
+    @WithDefault("20000")
+    long parallelThreshold();
+}
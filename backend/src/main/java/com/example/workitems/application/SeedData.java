@@ -0,0 +1,82 @@
+package com.example.workitems.application;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import com.example.workitems.dto.DocumentDto;
+import com.example.workitems.dto.ProtocolEntryDto;
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemStatus;
+
+/**
+ * The reference and seed state the service starts from without a journal and returns to on reset. It is held in
+ * constants that nothing changes: the store copies the items into its columns, and the service copies the document
+ * and protocol lists into its own containers. A native executable initializes this class while the image is built
+ * (see {@code quarkus.native.additional-build-args}), so the state is part of the image heap and mapped at startup
+ * instead of being built. Context keys are written out, since calling into the service here would initialize it at
+ * build time as well.
+ */
+final class SeedData {
+
+    static final List<WorkItemDto> ITEMS = List.of(
+            new WorkItemDto("WI-3001", DomainObjectType.CUSTOMER, "K-1001", "Kunde K-1001", "Müller GmbH",
+                    "V-1001", "S-2001", "Adressänderung prüfen", "Neue Korrespondenzadresse validieren.",
+                    WorkItemStatus.OPEN, 1,
+                    OffsetDateTime.of(2024, 6, 3, 8, 30, 0, 0, ZoneOffset.UTC),
+                    OffsetDateTime.of(2024, 6, 7, 16, 0, 0, 0, ZoneOffset.UTC), "Alice", "Leistung-Team Nord"),
+            new WorkItemDto("WI-3002", DomainObjectType.CONTRACT, "V-1001", "Vertrag V-1001", "Müller GmbH",
+                    "V-1001", "S-2001", "Beitrag neu berechnen", "Nachtragsangebot wegen Tarifwechsel.",
+                    WorkItemStatus.IN_PROGRESS, 2,
+                    OffsetDateTime.of(2024, 6, 2, 9, 15, 0, 0, ZoneOffset.UTC),
+                    OffsetDateTime.of(2024, 6, 10, 15, 30, 0, 0, ZoneOffset.UTC), "Bob", "Leistung-Team Nord"),
+            new WorkItemDto("WI-3003", DomainObjectType.CLAIM, "S-2001", "Schaden S-2001", "Müller GmbH",
+                    "V-1001", "S-2001", "Deckungsprüfung finalisieren", "Eingegangene Fotos und Kostenvoranschlag bewerten.",
+                    WorkItemStatus.OPEN, 1,
+                    OffsetDateTime.of(2024, 6, 1, 11, 40, 0, 0, ZoneOffset.UTC),
+                    OffsetDateTime.of(2024, 6, 6, 12, 0, 0, 0, ZoneOffset.UTC), "Alice", "Leistung-Team Nord"),
+            new WorkItemDto("WI-3004", DomainObjectType.CUSTOMER, "K-2002", "Kunde K-2002", "Schmidt AG",
+                    "V-2001", "S-2002", "SEPA-Mandat nachfordern", "Fehlende Einzugsermächtigung für Folgebeitrag.",
+                    WorkItemStatus.BLOCKED, 2,
+                    OffsetDateTime.of(2024, 6, 4, 13, 20, 0, 0, ZoneOffset.UTC),
+                    OffsetDateTime.of(2024, 6, 14, 10, 0, 0, 0, ZoneOffset.UTC), "Clara", "Leistung-Team Süd"),
+            new WorkItemDto("WI-3005", DomainObjectType.CLAIM, "S-2003", "Schaden S-2003", "Schmidt AG",
+                    "V-2001", "S-2003", "Regress prüfen", "Prüfung gegen Drittschädiger einleiten.",
+                    WorkItemStatus.DONE, 3,
+                    OffsetDateTime.of(2024, 5, 29, 7, 45, 0, 0, ZoneOffset.UTC),
+                    OffsetDateTime.of(2024, 6, 5, 18, 0, 0, 0, ZoneOffset.UTC), "Daniel", "Leistung-Team Süd"),
+            new WorkItemDto("WI-3006", DomainObjectType.CONTRACT, "V-2001", "Vertrag V-2001", "Schmidt AG",
+                    "V-2001", "S-2002", "SEPA-Mandat nachhalten", "Mandat fehlt in den Stammdaten.",
+                    WorkItemStatus.IN_PROGRESS, 2,
+                    OffsetDateTime.of(2024, 6, 6, 10, 5, 0, 0, ZoneOffset.UTC),
+                    OffsetDateTime.of(2024, 6, 12, 17, 0, 0, 0, ZoneOffset.UTC), "Eva", "Leistung-Team Nord"));
+
+    static final Map<String, List<DocumentDto>> DOCUMENTS = Map.of(
+            "CLAIM:S-2001", List.of(
+                    new DocumentDto("DOC-1001", "Reparaturkostenvoranschlag.pdf", "application/pdf", 232_112,
+                            List.of("Schaden", "Werkstatt", "Kalkulation"),
+                            OffsetDateTime.of(2024, 6, 1, 11, 30, 0, 0, ZoneOffset.UTC), "Clara"),
+                    new DocumentDto("DOC-1002", "Schadenfoto_01.jpg", "image/jpeg", 1_102_112,
+                            List.of("Foto", "Frontschaden"),
+                            OffsetDateTime.of(2024, 6, 1, 11, 32, 0, 0, ZoneOffset.UTC), "Clara")),
+            "CONTRACT:V-1001", List.of(
+                    new DocumentDto("DOC-1003", "Vertragsentwurf_v2.docx",
+                            "application/vnd.openxmlformats-officedocument.wordprocessingml.document", 92_400,
+                            List.of("Angebot", "Vertragsänderung"),
+                            OffsetDateTime.of(2024, 6, 2, 10, 0, 0, 0, ZoneOffset.UTC), "Bob")));
+
+    static final Map<String, List<ProtocolEntryDto>> PROTOCOL = Map.of(
+            "CLAIM:S-2001", List.of(
+                    new ProtocolEntryDto("LOG-2002", OffsetDateTime.of(2024, 6, 2, 9, 0, 0, 0, ZoneOffset.UTC),
+                            "Regelwerk", "Automatische Deckungsprüfung ohne Treffer abgeschlossen."),
+                    new ProtocolEntryDto("LOG-2001", OffsetDateTime.of(2024, 6, 1, 11, 40, 0, 0, ZoneOffset.UTC),
+                            "Fachprotokoll", "Schadenmeldung eingegangen und Erstprüfung gestartet.")),
+            "CONTRACT:V-1001", List.of(
+                    new ProtocolEntryDto("LOG-2003", OffsetDateTime.of(2024, 6, 2, 9, 30, 0, 0, ZoneOffset.UTC),
+                            "Bestand", "Vertragsverlängerung aus Bestand ausgelöst.")));
+
+    private SeedData() {
+    }
+}
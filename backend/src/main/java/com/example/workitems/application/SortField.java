@@ -0,0 +1,38 @@
+package com.example.workitems.application;
+
+import java.time.OffsetDateTime;
+
+import com.example.workitems.dto.WorkItemDto;
+
+enum SortField {
+    RECEIVED_AT("receivedAt"),
+    DUE_AT("dueAt"),
+    PRIORITY("priority");
+
+    private final String parameterName;
+
+    SortField(String parameterName) {
+        this.parameterName = parameterName;
+    }
+
+    long key(WorkItemDto item) {
+        return switch (this) {
+            case RECEIVED_AT -> epochMillis(item.receivedAt);
+            case DUE_AT -> epochMillis(item.dueAt);
+            case PRIORITY -> item.priority;
+        };
+    }
+
+    static SortField fromParameter(String name) {
+        for (SortField field : values()) {
+            if (field.parameterName.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        return RECEIVED_AT;
+    }
+
+    private static long epochMillis(OffsetDateTime value) {
+        return value == null ? Long.MAX_VALUE : value.toInstant().toEpochMilli();
+    }
+}
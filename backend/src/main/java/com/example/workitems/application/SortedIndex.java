@@ -0,0 +1,74 @@
+package com.example.workitems.application;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import com.example.workitems.dto.WorkItemDto;
+
+/**
+ * Skip list of item positions ordered by one sort field with the item id as tiebreaker. A page is a seek to the
+ * cursor position followed by a forward walk, so its cost does not depend on how deep the page is.
+ * <p>
+ * While an item is repositioned both its old and its new entry can be visible; readers skip entries whose key no
+ * longer matches the item's current key (see {@link #isCurrent}).
+ */
+final class SortedIndex {
+
+    static final Comparator<Entry> ORDER = Comparator.comparingLong(Entry::key).thenComparing(Entry::id);
+
+    private final SortField field;
+    private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>(ORDER);
+
+    /**
+     * @param offset position of the first item
+     */
+    SortedIndex(SortField field, List<WorkItemDto> items, int offset) {
+        this.field = field;
+        for (int i = 0; i < items.size(); i++) {
+            entries.add(entry(offset + i, items.get(i)));
+        }
+    }
+
+    void addNewEntries(List<RowChange> changes) {
+        for (RowChange change : changes) {
+            if (field.key(change.previous()) != field.key(change.current())) {
+                entries.add(entry(change.ordinal(), change.current()));
+            }
+        }
+    }
+
+    void removeOldEntries(List<RowChange> changes) {
+        for (RowChange change : changes) {
+            if (field.key(change.previous()) != field.key(change.current())) {
+                entries.remove(entry(change.ordinal(), change.previous()));
+            }
+        }
+    }
+
+    Entry entry(int ordinal, WorkItemDto item) {
+        return new Entry(field.key(item), item.id, ordinal);
+    }
+
+    Entry entry(int ordinal, WorkItemColumns columns) {
+        return new Entry(columns.sortKey(ordinal, field), columns.id(ordinal), ordinal);
+    }
+
+    boolean isCurrent(Entry entry, WorkItemDto item) {
+        return entry.key() == field.key(item);
+    }
+
+    boolean isCurrent(Entry entry, WorkItemColumns columns) {
+        return entry.key() == columns.sortKey(entry.ordinal(), field);
+    }
+
+    Iterator<Entry> seek(Entry after, boolean descending) {
+        NavigableSet<Entry> view = descending ? entries.descendingSet() : entries;
+        return after == null ? view.iterator() : view.tailSet(after, false).iterator();
+    }
+
+    record Entry(long key, String id, int ordinal) {
+    }
+}
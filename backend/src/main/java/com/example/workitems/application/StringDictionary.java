@@ -0,0 +1,61 @@
+package com.example.workitems.application;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only dictionary of strings that repeat across many items and come from a bounded set, such as customer and
+ * team names. Columns keep the code of a value instead of a reference to one of its many copies.
+ * <p>
+ * Values are only added by the single writer of the owning store and never removed, so a code stays valid for the
+ * lifetime of the dictionary. Readers decode without locking; a code read from a torn row may be out of range and
+ * decodes to {@code null}, which the reader's validation discards.
+ */
+final class StringDictionary {
+
+    static final int NULL = -1;
+    static final int MISSING = -2;
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[16];
+    private int size;
+
+    /**
+     * Returns the code of the value, adding it if it is new. Must only be called by the store's writer.
+     */
+    int encode(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = value;
+        values = current;
+        codes.put(value, size);
+        return size++;
+    }
+
+    /**
+     * Returns the code of a value without adding it: {@link #NULL} for {@code null}, {@link #MISSING} if no item ever
+     * had the value.
+     */
+    int code(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        Integer code = codes.get(value);
+        return code == null ? MISSING : code;
+    }
+
+    String decode(int code) {
+        String[] current = values;
+        return code < 0 || code >= current.length ? null : current[code];
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.workitems.application;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import com.example.workitems.dto.WorkItemDto;
+
+/**
+ * Inverted trigram index over the free-text fields of a work item (title, description, assignee, object id and
+ * label). Query trigrams are intersected to find candidates; candidates are then verified against the field values
+ * themselves with a case-insensitive substring check (see {@link #contains}), so no lowercased copy of the text is
+ * kept per item. Postings follow the same copy-on-write discipline as {@link WorkItemIndex}.
+ */
+final class TrigramIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<Long, RoaringBitmap> postings = new ConcurrentHashMap<>();
+
+    /**
+     * @param offset position of the first item
+     */
+    TrigramIndex(List<WorkItemDto> items, int offset) {
+        for (int i = 0; i < items.size(); i++) {
+            for (long gram : trigrams(fields(items.get(i)))) {
+                postings.computeIfAbsent(gram, ignored -> new RoaringBitmap()).add(offset + i);
+            }
+        }
+    }
+
+    static String normalizeQuery(String q) {
+        return q == null || q.isBlank() ? null : q.toLowerCase(Locale.ROOT).trim();
+    }
+
+    private static String[] fields(WorkItemDto item) {
+        return new String[] {
+                normalize(item.title),
+                normalize(item.description),
+                normalize(item.assignedTo),
+                normalize(item.objectId),
+                normalize(item.objectLabel)
+        };
+    }
+
+    static int matchedFields(WorkItemDto item, String query) {
+        int matched = 0;
+        matched += contains(item.title, query) ? 1 : 0;
+        matched += contains(item.description, query) ? 1 : 0;
+        matched += contains(item.assignedTo, query) ? 1 : 0;
+        matched += contains(item.objectId, query) ? 1 : 0;
+        matched += contains(item.objectLabel, query) ? 1 : 0;
+        return matched;
+    }
+
+    /**
+     * Whether the field contains the normalized query, ignoring case, without lowercasing the field.
+     */
+    static boolean contains(String field, String query) {
+        String value = field == null ? "-" : field;
+        for (int i = 0, last = value.length() - query.length(); i <= last; i++) {
+            if (value.regionMatches(true, i, query, 0, query.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void addNewPostings(List<RowChange> changes) {
+        Map<Long, RoaringBitmap> additions = new HashMap<>();
+        for (RowChange change : changes) {
+            Set<Long> added = trigrams(fields(change.current()));
+            added.removeAll(trigrams(fields(change.previous())));
+            for (long gram : added) {
+                additions.computeIfAbsent(gram, ignored -> new RoaringBitmap()).add(change.ordinal());
+            }
+        }
+        additions.forEach((gram, added) -> {
+            RoaringBitmap posting = postings.get(gram);
+            postings.put(gram, posting == null ? added : RoaringBitmap.or(posting, added));
+        });
+    }
+
+    void removeOldPostings(List<RowChange> changes) {
+        Map<Long, RoaringBitmap> removals = new HashMap<>();
+        for (RowChange change : changes) {
+            Set<Long> removed = trigrams(fields(change.previous()));
+            removed.removeAll(trigrams(fields(change.current())));
+            for (long gram : removed) {
+                removals.computeIfAbsent(gram, ignored -> new RoaringBitmap()).add(change.ordinal());
+            }
+        }
+        removals.forEach((gram, removed) -> {
+            RoaringBitmap updated = RoaringBitmap.andNot(postings.get(gram), removed);
+            if (updated.isEmpty()) {
+                postings.remove(gram);
+            } else {
+                postings.put(gram, updated);
+            }
+        });
+    }
+
+    /**
+     * Returns the items that contain every trigram of the normalized query, or {@code null} when the query is too
+     * short to be narrowed by trigrams. Candidates still have to be confirmed with {@link #matchedFields}.
+     */
+    RoaringBitmap candidates(String query) {
+        if (query.length() < GRAM) {
+            return null;
+        }
+        List<RoaringBitmap> matches = new ArrayList<>();
+        for (long gram : trigrams(query, new HashSet<>())) {
+            RoaringBitmap posting = postings.get(gram);
+            if (posting == null) {
+                return new RoaringBitmap();
+            }
+            matches.add(posting);
+        }
+        return FastAggregation.and(matches.iterator());
+    }
+
+    private static String normalize(String value) {
+        return (value == null ? "-" : value).toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<Long> trigrams(String[] fields) {
+        Set<Long> grams = new HashSet<>();
+        for (String field : fields) {
+            trigrams(field, grams);
+        }
+        return grams;
+    }
+
+    private static Set<Long> trigrams(String value, Set<Long> grams) {
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2));
+        }
+        return grams;
+    }
+}
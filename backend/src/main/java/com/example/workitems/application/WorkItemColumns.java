@@ -0,0 +1,362 @@
+package com.example.workitems.application;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemStatus;
+
+/**
+ * Column-wise storage of the published version of every work item. Timestamps are kept as epoch milliseconds, enums
+ * and priorities as bytes, and the customer and team names, which come from a fixed set, as codes of a shared
+ * {@link StringDictionary}. The dictionary never forgets a value, so titles and assignees, which actions set freely,
+ * are kept as strings like the remaining ones. Strings are deduplicated while the columns are built, so items of the
+ * same domain object share one copy of its id, label and numbers. A {@link WorkItemDto} is only materialized for an
+ * item that is actually returned.
+ * <p>
+ * Each item has a sequence stamp. The single writer makes it odd before and even again after changing the item's
+ * columns; readers read the columns between two reads of an even, unchanged stamp and retry otherwise, so they see an
+ * item either completely before or completely after an action without taking a lock.
+ */
+final class WorkItemColumns {
+
+    private static final VarHandle STAMPS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final byte NO_ENUM = -1;
+    private static final DomainObjectType[] OBJECT_TYPES = DomainObjectType.values();
+    private static final WorkItemStatus[] STATUSES = WorkItemStatus.values();
+
+    private final StringDictionary dictionary;
+    private final int[] stamps;
+    private final long[] versions;
+    private final String[] ids;
+    private final int[] idSlots;
+    private final byte[] objectTypes;
+    private final String[] objectIds;
+    private final String[] objectLabels;
+    private final int[] customerNames;
+    private final String[] contractNos;
+    private final String[] claimNos;
+    private final String[] titles;
+    private final String[] descriptions;
+    private final byte[] statuses;
+    private final byte[] priorities;
+    private final long[] receivedAt;
+    private final long[] dueAt;
+    private final String[] assignees;
+    private final int[] teams;
+
+    WorkItemColumns(List<WorkItemDto> items) {
+        int size = items.size();
+        dictionary = new StringDictionary();
+        stamps = new int[size];
+        versions = new long[size];
+        ids = new String[size];
+        objectTypes = new byte[size];
+        objectIds = new String[size];
+        objectLabels = new String[size];
+        customerNames = new int[size];
+        contractNos = new String[size];
+        claimNos = new String[size];
+        titles = new String[size];
+        descriptions = new String[size];
+        statuses = new byte[size];
+        priorities = new byte[size];
+        receivedAt = new long[size];
+        dueAt = new long[size];
+        assignees = new String[size];
+        teams = new int[size];
+
+        Map<String, String> canonical = new HashMap<>();
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            WorkItemDto item = items.get(ordinal);
+            ids[ordinal] = item.id;
+            objectIds[ordinal] = canonical(canonical, item.objectId);
+            objectLabels[ordinal] = canonical(canonical, item.objectLabel);
+            contractNos[ordinal] = canonical(canonical, item.contractNo);
+            claimNos[ordinal] = canonical(canonical, item.claimNo);
+            titles[ordinal] = canonical(canonical, item.title);
+            descriptions[ordinal] = canonical(canonical, item.description);
+            assignees[ordinal] = canonical(canonical, item.assignedTo);
+            checkColumns(item);
+            set(ordinal, item);
+        }
+        idSlots = idSlots(ids);
+    }
+
+    private WorkItemColumns(WorkItemColumns source) {
+        dictionary = source.dictionary;
+        stamps = source.stamps.clone();
+        versions = source.versions.clone();
+        ids = source.ids;
+        idSlots = source.idSlots;
+        objectTypes = source.objectTypes.clone();
+        objectIds = source.objectIds.clone();
+        objectLabels = source.objectLabels.clone();
+        customerNames = source.customerNames.clone();
+        contractNos = source.contractNos.clone();
+        claimNos = source.claimNos.clone();
+        titles = source.titles.clone();
+        descriptions = source.descriptions.clone();
+        statuses = source.statuses.clone();
+        priorities = source.priorities.clone();
+        receivedAt = source.receivedAt.clone();
+        dueAt = source.dueAt.clone();
+        assignees = source.assignees.clone();
+        teams = source.teams.clone();
+    }
+
+    /**
+     * Copies the columns as they are now; later writes do not reach the copy. Ids and the dictionary are shared, as
+     * ids never change and dictionary codes stay valid. Must not overlap a {@link #write}.
+     */
+    WorkItemColumns copy() {
+        return new WorkItemColumns(this);
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * Returns the position of the item with the given id, or {@code -1}.
+     */
+    int find(String id) {
+        int mask = idSlots.length - 1;
+        for (int slot = spread(id.hashCode()) & mask; idSlots[slot] != 0; slot = (slot + 1) & mask) {
+            int ordinal = idSlots[slot] - 1;
+            if (ids[ordinal].equals(id)) {
+                return ordinal;
+            }
+        }
+        return -1;
+    }
+
+    String id(int ordinal) {
+        return ids[ordinal];
+    }
+
+    long version(int ordinal) {
+        while (true) {
+            int stamp = stableStamp(ordinal);
+            long version = versions[ordinal];
+            if (validate(ordinal, stamp)) {
+                return version;
+            }
+        }
+    }
+
+    /**
+     * Materializes the current version of the item.
+     */
+    WorkItemDto item(int ordinal) {
+        while (true) {
+            int stamp = stableStamp(ordinal);
+            WorkItemDto item = new WorkItemDto(ids[ordinal], enumValue(OBJECT_TYPES, objectTypes[ordinal]),
+                    objectIds[ordinal], objectLabels[ordinal], dictionary.decode(customerNames[ordinal]),
+                    contractNos[ordinal], claimNos[ordinal], titles[ordinal], descriptions[ordinal],
+                    enumValue(STATUSES, statuses[ordinal]), priorities[ordinal], time(receivedAt[ordinal]),
+                    time(dueAt[ordinal]), assignees[ordinal], dictionary.decode(teams[ordinal]));
+            item.version = versions[ordinal];
+            if (validate(ordinal, stamp)) {
+                return item;
+            }
+        }
+    }
+
+    long sortKey(int ordinal, SortField field) {
+        while (true) {
+            int stamp = stableStamp(ordinal);
+            long key = switch (field) {
+                case RECEIVED_AT -> sortTime(receivedAt[ordinal]);
+                case DUE_AT -> sortTime(dueAt[ordinal]);
+                case PRIORITY -> priorities[ordinal];
+            };
+            if (validate(ordinal, stamp)) {
+                return key;
+            }
+        }
+    }
+
+    /**
+     * Counts the free-text fields of the item that contain the normalized query (see {@link TrigramIndex}).
+     */
+    int matchedFields(int ordinal, String query) {
+        while (true) {
+            int stamp = stableStamp(ordinal);
+            int matched = countMatches(ordinal, query);
+            if (validate(ordinal, stamp)) {
+                return matched;
+            }
+        }
+    }
+
+    /**
+     * Publishes a new version of the item. Must only be called by the store's writer. The item is checked before the
+     * stamp turns odd, so a rejected item leaves the stamp even and readers are not held up.
+     */
+    void write(int ordinal, WorkItemDto item) {
+        checkColumns(item);
+        int stamp = stamps[ordinal];
+        STAMPS.setOpaque(stamps, ordinal, stamp + 1);
+        VarHandle.storeStoreFence();
+        set(ordinal, item);
+        STAMPS.setRelease(stamps, ordinal, stamp + 2);
+    }
+
+    /**
+     * Resolves the query against the dictionary once, so testing an item compares codes instead of enum and team
+     * strings.
+     */
+    Filter filter(WorkItemQuery query) {
+        return new Filter(query);
+    }
+
+    private static void checkColumns(WorkItemDto item) {
+        if (item.priority < Byte.MIN_VALUE || item.priority > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Priority out of range: " + item.priority);
+        }
+    }
+
+    private void set(int ordinal, WorkItemDto item) {
+        versions[ordinal] = item.version;
+        objectTypes[ordinal] = enumCode(item.objectType);
+        objectIds[ordinal] = same(objectIds[ordinal], item.objectId);
+        objectLabels[ordinal] = same(objectLabels[ordinal], item.objectLabel);
+        customerNames[ordinal] = dictionary.encode(item.customerName);
+        contractNos[ordinal] = same(contractNos[ordinal], item.contractNo);
+        claimNos[ordinal] = same(claimNos[ordinal], item.claimNo);
+        titles[ordinal] = same(titles[ordinal], item.title);
+        descriptions[ordinal] = same(descriptions[ordinal], item.description);
+        statuses[ordinal] = enumCode(item.status);
+        priorities[ordinal] = (byte) item.priority;
+        receivedAt[ordinal] = epochMillis(item.receivedAt);
+        dueAt[ordinal] = epochMillis(item.dueAt);
+        assignees[ordinal] = same(assignees[ordinal], item.assignedTo);
+        teams[ordinal] = dictionary.encode(item.team);
+    }
+
+    private int countMatches(int ordinal, String query) {
+        int matched = 0;
+        matched += TrigramIndex.contains(titles[ordinal], query) ? 1 : 0;
+        matched += TrigramIndex.contains(descriptions[ordinal], query) ? 1 : 0;
+        matched += TrigramIndex.contains(assignees[ordinal], query) ? 1 : 0;
+        matched += TrigramIndex.contains(objectIds[ordinal], query) ? 1 : 0;
+        matched += TrigramIndex.contains(objectLabels[ordinal], query) ? 1 : 0;
+        return matched;
+    }
+
+    private int stableStamp(int ordinal) {
+        int stamp;
+        while (((stamp = (int) STAMPS.getAcquire(stamps, ordinal)) & 1) != 0) {
+            Thread.onSpinWait();
+        }
+        return stamp;
+    }
+
+    private boolean validate(int ordinal, int stamp) {
+        VarHandle.loadLoadFence();
+        return (int) STAMPS.getOpaque(stamps, ordinal) == stamp;
+    }
+
+    /**
+     * Keeps the shared copy of a value that did not change.
+     */
+    private static String same(String current, String value) {
+        return current != null && current.equals(value) ? current : value;
+    }
+
+    private static String canonical(Map<String, String> canonical, String value) {
+        return value == null ? null : canonical.computeIfAbsent(value, ignored -> value);
+    }
+
+    private static int[] idSlots(String[] ids) {
+        int[] slots = new int[Integer.highestOneBit(Math.max(ids.length, 1) * 2 - 1) << 1];
+        int mask = slots.length - 1;
+        for (int ordinal = 0; ordinal < ids.length; ordinal++) {
+            int slot = spread(ids[ordinal].hashCode()) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = ordinal + 1;
+        }
+        return slots;
+    }
+
+    private static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) * 0x9E3779B9;
+    }
+
+    private static byte enumCode(Enum<?> value) {
+        return value == null ? NO_ENUM : (byte) value.ordinal();
+    }
+
+    private static <E> E enumValue(E[] values, byte code) {
+        return code < 0 || code >= values.length ? null : values[code];
+    }
+
+    private static long epochMillis(OffsetDateTime value) {
+        return value == null ? NO_TIME : value.toInstant().toEpochMilli();
+    }
+
+    private static OffsetDateTime time(long epochMillis) {
+        return epochMillis == NO_TIME ? null : OffsetDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+
+    private static long sortTime(long epochMillis) {
+        return epochMillis == NO_TIME ? Long.MAX_VALUE : epochMillis;
+    }
+
+    /**
+     * A {@link WorkItemQuery} resolved against the columns. Like the query, it is the authoritative check of whether
+     * an item matches; index postings only narrow the candidates.
+     */
+    final class Filter {
+        private final WorkItemQuery query;
+        private final byte status;
+        private final byte objectType;
+        private final int team;
+
+        private Filter(WorkItemQuery query) {
+            this.query = query;
+            this.status = enumCode(query.status());
+            this.objectType = enumCode(query.objectType());
+            this.team = dictionary.code(query.team());
+        }
+
+        boolean test(int ordinal) {
+            while (true) {
+                int stamp = stableStamp(ordinal);
+                boolean matches = matches(ordinal);
+                if (validate(ordinal, stamp)) {
+                    return matches;
+                }
+            }
+        }
+
+        /**
+         * Checks a materialized item, e.g. to confirm that the version about to be returned still matches.
+         */
+        boolean test(WorkItemDto item) {
+            return query.matches(item) && (query.text() == null || TrigramIndex.matchedFields(item, query.text()) > 0);
+        }
+
+        private boolean matches(int ordinal) {
+            return (query.status() == null || statuses[ordinal] == status)
+                    && (query.objectType() == null || objectTypes[ordinal] == objectType)
+                    && (query.objectId() == null || query.objectId().equalsIgnoreCase(objectIds[ordinal]))
+                    && (query.assignee() == null || (query.assigneeIgnoreCase()
+                            ? query.assignee().equalsIgnoreCase(assignees[ordinal])
+                            : query.assignee().equals(assignees[ordinal])))
+                    && (query.team() == null || teams[ordinal] == team)
+                    && (query.text() == null || countMatches(ordinal, query.text()) > 0);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.workitems.application;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemStatus;
+
+/**
+ * Secondary indexes over the work item store. Each posting is a compressed bitmap of item positions, so filter
+ * combinations resolve by intersecting bitmaps instead of testing every item.
+ * <p>
+ * Published postings are never modified: writers replace a posting with an updated copy, so readers can intersect
+ * them without locking. During an update the item is added to its new postings before it is removed from the old
+ * ones, which keeps every posting a superset of the items that currently match it. A commit of many items copies
+ * each affected posting once.
+ */
+final class WorkItemIndex {
+
+    private final Map<WorkItemStatus, RoaringBitmap> byStatus = new ConcurrentHashMap<>();
+    private final Map<DomainObjectType, RoaringBitmap> byObjectType = new ConcurrentHashMap<>();
+    private final Map<String, RoaringBitmap> byObjectId = new ConcurrentHashMap<>();
+    private final Map<String, RoaringBitmap> byAssignee = new ConcurrentHashMap<>();
+    private final Map<String, RoaringBitmap> byTeam = new ConcurrentHashMap<>();
+
+    /**
+     * @param offset position of the first item
+     */
+    WorkItemIndex(List<WorkItemDto> items, int offset) {
+        for (int i = 0; i < items.size(); i++) {
+            WorkItemDto item = items.get(i);
+            int ordinal = offset + i;
+            posting(byStatus, item.status).add(ordinal);
+            posting(byObjectType, item.objectType).add(ordinal);
+            posting(byObjectId, objectIdKey(item.objectId)).add(ordinal);
+            posting(byAssignee, assigneeKey(item.assignedTo)).add(ordinal);
+            posting(byTeam, teamKey(item.team)).add(ordinal);
+        }
+        byStatus.values().forEach(RoaringBitmap::runOptimize);
+        byObjectType.values().forEach(RoaringBitmap::runOptimize);
+    }
+
+    void addNewPostings(List<RowChange> changes) {
+        Map<WorkItemStatus, RoaringBitmap> statusAdds = new EnumMap<>(WorkItemStatus.class);
+        Map<String, RoaringBitmap> assigneeAdds = new HashMap<>();
+        for (RowChange change : changes) {
+            WorkItemDto previous = change.previous();
+            WorkItemDto current = change.current();
+            if (previous.status != current.status) {
+                posting(statusAdds, current.status).add(change.ordinal());
+            }
+            if (!Objects.equals(previous.assignedTo, current.assignedTo)) {
+                posting(assigneeAdds, assigneeKey(current.assignedTo)).add(change.ordinal());
+            }
+        }
+        statusAdds.forEach((status, added) -> replace(byStatus, status, posting -> posting.or(added)));
+        assigneeAdds.forEach((assignee, added) -> replace(byAssignee, assignee, posting -> posting.or(added)));
+    }
+
+    void removeOldPostings(List<RowChange> changes) {
+        Map<WorkItemStatus, RoaringBitmap> statusRemovals = new EnumMap<>(WorkItemStatus.class);
+        Map<String, RoaringBitmap> assigneeRemovals = new HashMap<>();
+        for (RowChange change : changes) {
+            WorkItemDto previous = change.previous();
+            WorkItemDto current = change.current();
+            if (previous.status != current.status) {
+                posting(statusRemovals, previous.status).add(change.ordinal());
+            }
+            if (!Objects.equals(previous.assignedTo, current.assignedTo)) {
+                posting(assigneeRemovals, assigneeKey(previous.assignedTo)).add(change.ordinal());
+            }
+        }
+        statusRemovals.forEach((status, removed) -> replace(byStatus, status, posting -> posting.andNot(removed)));
+        assigneeRemovals.forEach((assignee, removed) -> replace(byAssignee, assignee, posting -> posting.andNot(removed)));
+    }
+
+    RoaringBitmap byStatus(WorkItemStatus status) {
+        return lookup(byStatus, status);
+    }
+
+    RoaringBitmap byObjectType(DomainObjectType objectType) {
+        return lookup(byObjectType, objectType);
+    }
+
+    RoaringBitmap byObjectId(String objectId) {
+        return lookup(byObjectId, objectIdKey(objectId));
+    }
+
+    RoaringBitmap byAssignee(String assignee) {
+        return lookup(byAssignee, assigneeKey(assignee));
+    }
+
+    RoaringBitmap byAssigneeIgnoreCase(String assignee) {
+        RoaringBitmap result = new RoaringBitmap();
+        byAssignee.forEach((key, posting) -> {
+            if (key.equalsIgnoreCase(assignee)) {
+                result.or(posting);
+            }
+        });
+        return result;
+    }
+
+    RoaringBitmap byTeam(String team) {
+        return lookup(byTeam, teamKey(team));
+    }
+
+    private static <K> void replace(Map<K, RoaringBitmap> index, K key, Consumer<RoaringBitmap> change) {
+        RoaringBitmap current = index.get(key);
+        RoaringBitmap updated = current == null ? new RoaringBitmap() : current.clone();
+        change.accept(updated);
+        if (updated.isEmpty()) {
+            index.remove(key);
+        } else {
+            index.put(key, updated);
+        }
+    }
+
+    private static <K> RoaringBitmap posting(Map<K, RoaringBitmap> index, K key) {
+        return index.computeIfAbsent(key, ignored -> new RoaringBitmap());
+    }
+
+    private static <K> RoaringBitmap lookup(Map<K, RoaringBitmap> index, K key) {
+        RoaringBitmap posting = index.get(key);
+        return posting == null ? new RoaringBitmap() : posting;
+    }
+
+    static String objectIdKey(String objectId) {
+        return objectId == null ? "" : objectId.toUpperCase(Locale.ROOT);
+    }
+
+    private static String assigneeKey(String assignee) {
+        return assignee == null ? "" : assignee;
+    }
+
+    private static String teamKey(String team) {
+        return team == null ? "" : team;
+    }
+}
@@ -0,0 +1,452 @@
+package com.example.workitems.application;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import org.jboss.logging.Logger;
+
+import com.example.workitems.dto.DocumentDto;
+import com.example.workitems.dto.ProtocolEntryDto;
+import com.example.workitems.dto.WorkItemDto;
+
+/**
+ * Append-only journal of {@link JournalEvent}s with periodic snapshots.
+ * <p>
+ * Records are appended to memory-mapped segment files ({@code journal-<first lsn>.log}) as
+ * {@code [length][crc32][payload]}; every record gets the next log sequence number (lsn). A write {@link #append}s
+ * its records and then {@link #sync}s: the first waiting writer forces the segment for everyone who appended before
+ * it, so concurrent writers share one fsync (group commit).
+ * <p>
+ * A snapshot ({@code snapshot-<lsn>.bin}) holds the complete state up to its lsn. Recovery loads the latest snapshot
+ * and replays the records after it; segments that lie completely before the snapshot are deleted once it is written.
+ */
+final class WorkItemJournal {
+
+    private static final Logger LOG = Logger.getLogger(WorkItemJournal.class);
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final int RECORD_HEADER = 8;
+    private static final int STREAM_BUFFER = 1 << 16;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final long snapshotInterval;
+    private final boolean fsync;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final AtomicLong durableLsn = new AtomicLong();
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+    private final ExecutorService snapshotWriter;
+
+    private MappedByteBuffer segment;
+    private boolean recovered;
+    private volatile long lastLsn;
+    private volatile long snapshotLsn;
+    private long resetLsn;
+
+    private WorkItemJournal(Path directory, long segmentSize, long snapshotInterval, boolean fsync) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.snapshotInterval = snapshotInterval;
+        this.fsync = fsync;
+        this.snapshotWriter = directory == null ? null : Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "work-item-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    static WorkItemJournal disabled() {
+        return new WorkItemJournal(null, 0, 0, false);
+    }
+
+    static WorkItemJournal open(Path directory, long segmentSize, long snapshotInterval, boolean fsync) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new WorkItemJournal(directory, segmentSize, snapshotInterval, fsync);
+    }
+
+    boolean enabled() {
+        return directory != null;
+    }
+
+    long lastLsn() {
+        return lastLsn;
+    }
+
+    /**
+     * Reads the latest snapshot and every record after it. Must be called once before the first {@link #append};
+     * new records go to a fresh segment, after a torn record at the end of the previous run has been cut off.
+     */
+    Recovery recover() {
+        if (!enabled()) {
+            return new Recovery(null, List.of());
+        }
+        appendLock.lock();
+        try {
+            List<Path> snapshots = files(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+            Snapshot snapshot = snapshots.isEmpty() ? null : readSnapshot(snapshots.get(snapshots.size() - 1));
+            snapshotLsn = snapshot == null ? 0 : snapshot.lsn();
+            long lsn = snapshotLsn;
+
+            List<JournalEvent> events = new ArrayList<>();
+            List<Path> segments = files(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+            for (int i = 0; i < segments.size(); i++) {
+                lsn = Math.max(lsn, readSegment(segments.get(i), i == segments.size() - 1, events));
+            }
+            lastLsn = lsn;
+            durableLsn.set(lsn);
+            recovered = true;
+            return new Recovery(snapshot, events);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Appends the events as consecutive records and returns the lsn of the last one. The records are visible to a
+     * recovery after a process crash at once, and after an operating system crash once {@link #sync} returned.
+     */
+    long append(JournalEvent... events) {
+        if (!enabled()) {
+            return 0;
+        }
+        List<byte[]> payloads = new ArrayList<>(events.length);
+        for (JournalEvent event : events) {
+            payloads.add(encode(event));
+        }
+        appendLock.lock();
+        try {
+            if (!recovered) {
+                throw new IllegalStateException("Journal must be recovered before appending");
+            }
+            for (byte[] payload : payloads) {
+                int recordSize = RECORD_HEADER + payload.length;
+                if (segment == null || segment.remaining() < recordSize) {
+                    roll(recordSize);
+                }
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                segment.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+                lastLsn++;
+            }
+            return lastLsn;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the record with the given lsn is on disk. Writers that arrive while another one forces the segment
+     * queue behind it and usually find their records already covered by that force.
+     */
+    void sync(long lsn) {
+        if (!fsync || durableLsn.get() >= lsn) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (durableLsn.get() >= lsn) {
+                return;
+            }
+            MappedByteBuffer current;
+            long target;
+            appendLock.lock();
+            try {
+                current = segment;
+                target = lastLsn;
+            } finally {
+                appendLock.unlock();
+            }
+            if (current != null) {
+                current.force();
+            }
+            durableLsn.accumulateAndGet(target, Math::max);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    boolean snapshotDue() {
+        return enabled() && !snapshotRunning.get() && lastLsn - snapshotLsn >= snapshotInterval;
+    }
+
+    /**
+     * Writes a snapshot in the background unless one is already being written. {@code capture} has to return a
+     * consistent state together with the {@link #lastLsn} it includes.
+     */
+    void snapshotAsync(Supplier<Snapshot> capture) {
+        if (!snapshotRunning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            snapshotWriter.execute(() -> {
+                try {
+                    writeSnapshot(capture.get());
+                } catch (RuntimeException e) {
+                    LOG.error("Writing work item snapshot failed", e);
+                } finally {
+                    snapshotRunning.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            snapshotRunning.set(false);
+        }
+    }
+
+    void writeSnapshot(Snapshot snapshot) {
+        if (!enabled() || snapshot.lsn() <= snapshotLsn) {
+            return;
+        }
+        Path target = directory.resolve(fileName(SNAPSHOT_PREFIX, snapshot.lsn(), SNAPSHOT_SUFFIX));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                CheckedOutputStream checked = new CheckedOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), STREAM_BUFFER), new CRC32());
+                DataOutputStream out = new DataOutputStream(checked);
+                JournalCodec.writeSnapshot(out, snapshot);
+                out.flush();
+                out.writeLong(checked.getChecksum().getValue());
+                out.flush();
+                channel.force(true);
+            }
+
+            appendLock.lock();
+            try {
+                if (snapshot.lsn() < resetLsn || snapshot.lsn() <= snapshotLsn) {
+                    Files.deleteIfExists(temporary);
+                    return;
+                }
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+                snapshotLsn = snapshot.lsn();
+                deleteObsoleteFiles();
+            } finally {
+                appendLock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Drops all segments and snapshots; recovery then starts from the seed state again. Snapshots captured before
+     * the reset are discarded when they complete.
+     */
+    void reset() {
+        if (!enabled()) {
+            return;
+        }
+        appendLock.lock();
+        try {
+            segment = null;
+            for (Path file : files(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+                Files.delete(file);
+            }
+            for (Path file : files(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+                Files.delete(file);
+            }
+            resetLsn = ++lastLsn;
+            snapshotLsn = resetLsn;
+            durableLsn.accumulateAndGet(resetLsn, Math::max);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Waits for a running snapshot, writes a final one when records were appended since and forces the segment.
+     */
+    void close(Supplier<Snapshot> capture) {
+        if (!enabled()) {
+            return;
+        }
+        snapshotWriter.shutdown();
+        try {
+            snapshotWriter.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (recovered && lastLsn > snapshotLsn) {
+            writeSnapshot(capture.get());
+        }
+        appendLock.lock();
+        try {
+            if (segment != null && fsync) {
+                segment.force();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void roll(int recordSize) throws IOException {
+        if (segment != null) {
+            if (fsync) {
+                segment.force();
+            }
+            durableLsn.accumulateAndGet(lastLsn, Math::max);
+        }
+        Path file = directory.resolve(fileName(SEGMENT_PREFIX, lastLsn + 1, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, recordSize));
+        }
+    }
+
+    /**
+     * Reads the records of a segment. A torn record may only end the last segment; it is cut off by writing an empty
+     * record header in its place, so the segment still ends cleanly once later segments follow it.
+     */
+    private long readSegment(Path file, boolean last, List<JournalEvent> events) throws IOException {
+        long lsn = lsnOf(file, SEGMENT_PREFIX, SEGMENT_SUFFIX) - 1;
+        int tornAt = -1;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32 crc = new CRC32();
+            while (buffer.remaining() >= RECORD_HEADER) {
+                int start = buffer.position();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length == 0) {
+                    break;
+                }
+                byte[] payload = length > 0 && length <= buffer.remaining() ? new byte[length] : null;
+                if (payload != null) {
+                    buffer.get(payload);
+                    crc.reset();
+                    crc.update(payload);
+                }
+                if (payload == null || (int) crc.getValue() != checksum) {
+                    if (!last) {
+                        throw new IOException("Journal segment %s is corrupt after lsn %d".formatted(file, lsn));
+                    }
+                    LOG.warnf("Discarding torn journal record after lsn %d in %s", lsn, file);
+                    tornAt = start;
+                    break;
+                }
+                lsn++;
+                if (lsn > snapshotLsn) {
+                    events.add(JournalCodec.readEvent(new DataInputStream(new ByteArrayInputStream(payload))));
+                }
+            }
+        }
+        if (tornAt >= 0) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                ByteBuffer empty = ByteBuffer.allocate(RECORD_HEADER);
+                while (empty.hasRemaining()) {
+                    channel.write(empty, tornAt + empty.position());
+                }
+                channel.force(true);
+            }
+        }
+        return lsn;
+    }
+
+    private static Snapshot readSnapshot(Path file) throws IOException {
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file), STREAM_BUFFER), new CRC32())) {
+            DataInputStream in = new DataInputStream(checked);
+            Snapshot snapshot = JournalCodec.readSnapshot(in);
+            long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Work item snapshot %s is corrupt".formatted(file));
+            }
+            return snapshot;
+        }
+    }
+
+    private void deleteObsoleteFiles() throws IOException {
+        List<Path> segments = files(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (lsnOf(segments.get(i + 1), SEGMENT_PREFIX, SEGMENT_SUFFIX) <= snapshotLsn + 1) {
+                Files.delete(segments.get(i));
+            }
+        }
+        for (Path file : files(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (lsnOf(file, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < snapshotLsn) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private List<Path> files(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(suffix);
+            }).sorted().toList();
+        }
+    }
+
+    private static long lsnOf(Path file, String prefix, String suffix) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+
+    private static String fileName(String prefix, long lsn, String suffix) {
+        return "%s%020d%s".formatted(prefix, lsn, suffix);
+    }
+
+    private static byte[] encode(JournalEvent event) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try {
+            JournalCodec.writeEvent(new DataOutputStream(bytes), event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Complete state as of {@code lsn}; the lists of documents and protocol entries are ordered newest first.
+     */
+    record Snapshot(long lsn, List<WorkItemDto> items, Map<String, List<DocumentDto>> documents,
+            Map<String, List<ProtocolEntryDto>> protocol) {
+    }
+
+    record Recovery(Snapshot snapshot, List<JournalEvent> events) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.workitems.application;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.example.workitems.model.WorkItemActionType;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * Meters of the work item service. Every meter and tag combination is registered up front, so recording on a hot
+ * path is a lookup in a field or an enum map and never builds tags.
+ */
+final class WorkItemMetrics {
+
+    /**
+     * Records nothing; used when the service runs without a registry, e.g. in unit tests and benchmarks.
+     */
+    static final WorkItemMetrics NONE = new WorkItemMetrics(new CompositeMeterRegistry());
+
+    /**
+     * Search stages whose candidate set is measured: the posting of each filter and their intersection.
+     */
+    enum Stage {
+        ASSIGNEE, TEAM, STATUS, OBJECT_TYPE, OBJECT_ID, TEXT, COMBINED
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Stage, DistributionSummary> candidates = new EnumMap<>(Stage.class);
+    private final Map<WorkItemActionType, Counter> actions = new EnumMap<>(WorkItemActionType.class);
+    private final DistributionSummary results;
+    private final DistributionSummary matches;
+    private final Timer sort;
+    private final DistributionSummary protocolPage;
+
+    WorkItemMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Stage stage : Stage.values()) {
+            candidates.put(stage, DistributionSummary.builder("workitems.search.candidates")
+                    .description("Candidate items of a search after the filter of a stage")
+                    .baseUnit("items")
+                    .tag("stage", tagValue(stage))
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (WorkItemActionType action : WorkItemActionType.values()) {
+            actions.put(action, Counter.builder("workitems.actions")
+                    .description("Committed work item actions")
+                    .tag("action", tagValue(action))
+                    .register(registry));
+        }
+        results = DistributionSummary.builder("workitems.search.results")
+                .description("Items on a returned search page")
+                .baseUnit("items")
+                .publishPercentileHistogram()
+                .register(registry);
+        matches = DistributionSummary.builder("workitems.search.matches")
+                .description("Items matching a search, where the total was computed")
+                .baseUnit("items")
+                .publishPercentileHistogram()
+                .register(registry);
+        sort = Timer.builder("workitems.search.sort")
+                .description("Time to order the candidates and collect a search page")
+                .publishPercentileHistogram()
+                .register(registry);
+        protocolPage = DistributionSummary.builder("workitems.context.protocol.entries")
+                .description("Protocol entries returned with a context view")
+                .baseUnit("entries")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Registers the gauges of the service's state. They are computed when scraped, not when the state changes.
+     */
+    void bindState(WorkItemService service) {
+        Gauge.builder("workitems.store.items", service, WorkItemService::itemCount)
+                .description("Work items in the store")
+                .register(registry);
+        Gauge.builder("workitems.store.documents", service, WorkItemService::documentCount)
+                .description("Documents of all domain objects")
+                .register(registry);
+        Gauge.builder("workitems.store.protocol.objects", service, WorkItemService::protocolObjectCount)
+                .description("Domain objects with a protocol")
+                .register(registry);
+        Gauge.builder("workitems.store.protocol.entries", service, WorkItemService::protocolEntryCount)
+                .description("Retained protocol entries of all domain objects")
+                .register(registry);
+        Gauge.builder("workitems.store.protocol.entries.max", service, WorkItemService::largestProtocol)
+                .description("Retained protocol entries of the domain object with the longest protocol")
+                .register(registry);
+        Gauge.builder("workitems.followups.pending", service, WorkItemService::pendingFollowUps)
+                .description("Blocked work items waiting for their follow-up")
+                .register(registry);
+    }
+
+    void candidates(Stage stage, long candidates) {
+        this.candidates.get(stage).record(candidates);
+    }
+
+    void results(int items) {
+        results.record(items);
+    }
+
+    void matches(long items) {
+        matches.record(items);
+    }
+
+    void sorted(long startNanos) {
+        sort.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void actionCommitted(WorkItemActionType action) {
+        actions.get(action).increment();
+    }
+
+    void protocolPage(int entries) {
+        protocolPage.record(entries);
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
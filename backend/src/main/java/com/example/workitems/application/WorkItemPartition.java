@@ -0,0 +1,203 @@
+package com.example.workitems.application;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.DomainObjectType;
+
+/**
+ * The items at a contiguous range of store positions with their own postings, trigram and sort indexes. Items are
+ * assigned to a partition by object id, so the tasks of a domain object share one. A partition only reads its own
+ * indexes and the shared columns, so a search can work on all partitions at once; the store merges their results.
+ * Updates are applied by the store's single writer.
+ */
+final class WorkItemPartition {
+
+    static final Comparator<RankedItem> RELEVANCE = Comparator.comparingInt(RankedItem::matchedFields).reversed()
+            .thenComparing(Comparator.comparingLong(RankedItem::receivedAt).reversed())
+            .thenComparingInt(RankedItem::ordinal);
+
+    private static final int DENSE_CANDIDATE_RATIO = 8;
+
+    private final int from;
+    private final int size;
+    private final WorkItemIndex index;
+    private final TrigramIndex textIndex;
+    private final Map<SortField, SortedIndex> sortedIndexes = new EnumMap<>(SortField.class);
+
+    /**
+     * @param from store position of the first item
+     */
+    WorkItemPartition(List<WorkItemDto> items, int from) {
+        this.from = from;
+        this.size = items.size();
+        index = new WorkItemIndex(items, from);
+        textIndex = new TrigramIndex(items, from);
+        for (SortField field : SortField.values()) {
+            sortedIndexes.put(field, new SortedIndex(field, items, from));
+        }
+    }
+
+    int from() {
+        return from;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void addNewPostings(List<RowChange> changes) {
+        index.addNewPostings(changes);
+        textIndex.addNewPostings(changes);
+        sortedIndexes.values().forEach(sortedIndex -> sortedIndex.addNewEntries(changes));
+    }
+
+    void removeOldPostings(List<RowChange> changes) {
+        index.removeOldPostings(changes);
+        textIndex.removeOldPostings(changes);
+        sortedIndexes.values().forEach(sortedIndex -> sortedIndex.removeOldEntries(changes));
+    }
+
+    RoaringBitmap contextCandidates(DomainObjectType objectType, String objectId) {
+        return RoaringBitmap.and(index.byObjectType(objectType), index.byObjectId(objectId));
+    }
+
+    /**
+     * Intersects the postings of the query's filters. The size of each posting and of the intersection is added to
+     * {@code stageSizes} (indexed by stage, negative for a stage not used yet), so the store can record them summed
+     * over all partitions.
+     */
+    RoaringBitmap candidates(WorkItemQuery query, long[] stageSizes) {
+        List<RoaringBitmap> postings = new ArrayList<>(6);
+        if (query.assignee() != null) {
+            postings.add(counted(WorkItemMetrics.Stage.ASSIGNEE, query.assigneeIgnoreCase()
+                    ? index.byAssigneeIgnoreCase(query.assignee())
+                    : index.byAssignee(query.assignee()), stageSizes));
+        }
+        if (query.team() != null) {
+            postings.add(counted(WorkItemMetrics.Stage.TEAM, index.byTeam(query.team()), stageSizes));
+        }
+        if (query.status() != null) {
+            postings.add(counted(WorkItemMetrics.Stage.STATUS, index.byStatus(query.status()), stageSizes));
+        }
+        if (query.objectType() != null) {
+            postings.add(counted(WorkItemMetrics.Stage.OBJECT_TYPE, index.byObjectType(query.objectType()), stageSizes));
+        }
+        if (query.objectId() != null) {
+            postings.add(counted(WorkItemMetrics.Stage.OBJECT_ID, index.byObjectId(query.objectId()), stageSizes));
+        }
+        RoaringBitmap textCandidates = query.text() == null ? null : textIndex.candidates(query.text());
+        if (textCandidates != null) {
+            postings.add(counted(WorkItemMetrics.Stage.TEXT, textCandidates, stageSizes));
+        }
+        return counted(WorkItemMetrics.Stage.COMBINED, postings.isEmpty()
+                ? RoaringBitmap.bitmapOfRange(from, from + size)
+                : FastAggregation.and(postings.iterator()), stageSizes);
+    }
+
+    /**
+     * Returns the first {@code limit} matches after {@code after} in sort order. Dense candidates are found by
+     * walking the sort index; sparse ones are kept in a bounded heap while the candidates are tested, which also
+     * counts the matches. With {@code countMatches} the matches are counted in either case, otherwise the count is
+     * only set when it came for free.
+     */
+    Top top(RoaringBitmap candidates, WorkItemColumns.Filter filter, WorkItemColumns columns, WorkItemSort order,
+            PageCursor after, int limit, boolean countMatches) {
+        if (candidates.getLongCardinality() * DENSE_CANDIDATE_RATIO >= size) {
+            List<SortedIndex.Entry> entries = new ArrayList<>(Math.min(limit, 64));
+            Iterator<SortedIndex.Entry> walked = walk(candidates, filter, columns, order, after).iterator();
+            while (entries.size() < limit && walked.hasNext()) {
+                entries.add(walked.next());
+            }
+            return new Top(entries, walked.hasNext(), countMatches ? countMatches(candidates, filter) : -1);
+        }
+
+        SortedIndex sortedIndex = sortedIndexes.get(order.field());
+        Comparator<SortedIndex.Entry> comparator = order.order();
+        PriorityQueue<SortedIndex.Entry> worstFirst = new PriorityQueue<>(comparator.reversed());
+        long matches = 0;
+        boolean truncated = false;
+        for (IntIterator ordinals = candidates.getIntIterator(); ordinals.hasNext();) {
+            int ordinal = ordinals.next();
+            if (!filter.test(ordinal)) {
+                continue;
+            }
+            matches++;
+            SortedIndex.Entry entry = sortedIndex.entry(ordinal, columns);
+            if (after != null && comparator.compare(entry, after.position()) <= 0) {
+                continue;
+            }
+            if (worstFirst.size() < limit) {
+                worstFirst.add(entry);
+            } else {
+                truncated = true;
+                if (comparator.compare(entry, worstFirst.peek()) < 0) {
+                    worstFirst.poll();
+                    worstFirst.add(entry);
+                }
+            }
+        }
+        List<SortedIndex.Entry> entries = new ArrayList<>(worstFirst);
+        entries.sort(comparator);
+        return new Top(entries, truncated, matches);
+    }
+
+    /**
+     * Walks the matching candidates in sort order, lazily and without collecting them.
+     */
+    Stream<SortedIndex.Entry> walk(RoaringBitmap candidates, WorkItemColumns.Filter filter, WorkItemColumns columns,
+            WorkItemSort order, PageCursor after) {
+        SortedIndex sortedIndex = sortedIndexes.get(order.field());
+        Iterator<SortedIndex.Entry> entries = sortedIndex.seek(after == null ? null : after.position(), order.descending());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(entries, Spliterator.ORDERED), false)
+                .filter(entry -> candidates.contains(entry.ordinal())
+                        && sortedIndex.isCurrent(entry, columns)
+                        && filter.test(entry.ordinal()));
+    }
+
+    /**
+     * Ranks the matching candidates by {@link #RELEVANCE}.
+     */
+    List<RankedItem> rank(RoaringBitmap candidates, WorkItemColumns.Filter filter, WorkItemColumns columns,
+            String text) {
+        return candidates.stream()
+                .filter(filter::test)
+                .mapToObj(ordinal -> new RankedItem(ordinal, columns.matchedFields(ordinal, text),
+                        columns.sortKey(ordinal, SortField.RECEIVED_AT)))
+                .sorted(RELEVANCE)
+                .toList();
+    }
+
+    static long countMatches(RoaringBitmap candidates, WorkItemColumns.Filter filter) {
+        return candidates.stream().filter(filter::test).count();
+    }
+
+    private static RoaringBitmap counted(WorkItemMetrics.Stage stage, RoaringBitmap candidates, long[] stageSizes) {
+        stageSizes[stage.ordinal()] = Math.max(stageSizes[stage.ordinal()], 0) + candidates.getLongCardinality();
+        return candidates;
+    }
+
+    /**
+     * The first matches of a partition in sort order, whether it has more, and the number of all its matches or
+     * {@code -1} if they were not counted.
+     */
+    record Top(List<SortedIndex.Entry> entries, boolean truncated, long matches) {
+    }
+
+    record RankedItem(int ordinal, int matchedFields, long receivedAt) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.workitems.application;
+
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemStatus;
+
+/**
+ * Resolved search filter. Index postings only narrow the candidates; {@link WorkItemColumns.Filter} is the
+ * authoritative check against the item version a reader actually sees.
+ */
+record WorkItemQuery(WorkItemStatus status, DomainObjectType objectType, String objectId, String assignee,
+        boolean assigneeIgnoreCase, String team, String text) {
+
+    /**
+     * Checks every filter but the text.
+     */
+    boolean matches(WorkItemDto item) {
+        return (status == null || item.status == status)
+                && (objectType == null || item.objectType == objectType)
+                && (objectId == null || objectId.equalsIgnoreCase(item.objectId))
+                && (assignee == null || (assigneeIgnoreCase
+                        ? assignee.equalsIgnoreCase(item.assignedTo)
+                        : assignee.equals(item.assignedTo)))
+                && (team == null || team.equals(item.team));
+    }
+}
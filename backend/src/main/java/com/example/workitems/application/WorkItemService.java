@@ -1,279 +1,1065 @@
 package com.example.workitems.application;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.jboss.logging.Logger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ClientErrorException;
 import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
 
 import com.example.workitems.dto.ContextViewDto;
 import com.example.workitems.dto.DocumentDto;
+import com.example.workitems.dto.DocumentHitDto;
+import com.example.workitems.dto.DocumentsPageDto;
 import com.example.workitems.dto.ProtocolEntryDto;
 import com.example.workitems.dto.UploadDocumentCommand;
 import com.example.workitems.dto.WorkItemActionCommand;
+import com.example.workitems.dto.WorkItemActionResultDto;
+import com.example.workitems.dto.WorkItemBatchActionCommand;
+import com.example.workitems.dto.WorkItemBatchActionItem;
+import com.example.workitems.dto.WorkItemBatchActionResultDto;
+import com.example.workitems.dto.WorkItemChangeDto;
 import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.dto.WorkItemFacetsDto;
 import com.example.workitems.dto.WorkItemsPageDto;
 import com.example.workitems.model.BasketScope;
 import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemActionType;
+import com.example.workitems.model.WorkItemChangeType;
 import com.example.workitems.model.WorkItemStatus;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.Startup;
+import io.smallrye.mutiny.Multi;
+
+@Startup
 @ApplicationScoped
 public class WorkItemService {
 
+    private static final Logger LOG = Logger.getLogger(WorkItemService.class);
+
     private static final String CURRENT_USER = "Alice";
     private static final String CURRENT_TEAM = "Leistung-Team Nord";
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int RETAINED_CHANGES = 16_384;
+    private static final String ACTION_SOURCE = "Aktion";
+    private static final String FOLLOW_UP_SOURCE = "Wiedervorlage";
 
-    private final List<WorkItemDto> workItems = new ArrayList<>(seedItems());
-    private final Map<String, List<DocumentDto>> documentsByObject = seedDocuments();
-    private final Map<String, List<ProtocolEntryDto>> protocolByObject = seedProtocolEntries();
+    // built once by recover or load, not when the service or its client proxy is constructed
+    private WorkItemStore.Partitioning partitioning = WorkItemStore.Partitioning.perProcessor();
+    private volatile WorkItemStore store;
+    private volatile Map<String, Deque<DocumentDto>> documentsByObject;
+    private volatile DocumentIndex documentIndex;
+    private volatile ProtocolLog protocolLog = new ProtocolLog(ProtocolLog.DEFAULT_SEGMENT_SIZE, 0);
+    private volatile ContextAggregates contexts;
+    private volatile RelationshipGraph relationships;
+    private Duration followUpTick = Duration.ofSeconds(1);
+    private int followUpBatchSize = MAX_BATCH_SIZE;
+    private volatile FollowUpWheel followUps;
+    private ScheduledExecutorService followUpScheduler;
+    private volatile WorkItemJournal journal = WorkItemJournal.disabled();
+    private final ChangeFeed changes = new ChangeFeed(RETAINED_CHANGES);
+    private WorkItemMetrics metrics = WorkItemMetrics.NONE;
 
-    public WorkItemsPageDto searchWorkItems(int page, int size, String sort, String q, WorkItemStatus status, BasketScope basket,
-            String colleague, DomainObjectType objectType, String objectId) {
+    /**
+     * Writers hold the read side while they change state and journal the change, so a snapshot taken under the write
+     * side sees exactly the changes up to {@link WorkItemJournal#lastLsn}.
+     */
+    private final ReadWriteLock stateLock = new ReentrantReadWriteLock();
+
+    @Inject
+    JournalConfig journalConfig;
+
+    @Inject
+    SearchConfig searchConfig;
+
+    @Inject
+    ProtocolConfig protocolConfig;
+
+    @Inject
+    FollowUpConfig followUpConfig;
+
+    @Inject
+    DocumentContentStore contentStore;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @PostConstruct
+    void open() {
+        int partitions = searchConfig.partitions().orElse(Runtime.getRuntime().availableProcessors());
+        ForkJoinPool searchPool = new ForkJoinPool(Math.min(partitions, Runtime.getRuntime().availableProcessors()),
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("work-item-search-" + thread.getPoolIndex());
+                    return thread;
+                }, null, false);
+        partitioning = new WorkItemStore.Partitioning(partitions, searchConfig.parallelThreshold(), searchPool);
+        followUpTick = followUpConfig.tick();
+        followUpBatchSize = followUpConfig.batchSize();
+        protocolLog = new ProtocolLog(protocolConfig.segmentSize(), protocolConfig.retainedSegments().orElse(0));
+        recover(journalConfig.enabled()
+                ? WorkItemJournal.open(Path.of(journalConfig.directory()), journalConfig.segmentSize().asLongValue(),
+                        journalConfig.snapshotInterval(), journalConfig.fsync())
+                : WorkItemJournal.disabled());
+        metrics = new WorkItemMetrics(meterRegistry);
+        metrics.bindState(this);
+        if (followUpConfig.enabled()) {
+            followUpScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "work-item-follow-ups");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long tick = followUpTick.toMillis();
+            followUpScheduler.scheduleWithFixedDelay(this::processFollowUps, tick, tick, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (followUpScheduler != null) {
+            followUpScheduler.shutdownNow();
+        }
+        journal.close(this::captureSnapshot);
+        partitioning.executor().shutdown();
+    }
+
+    public WorkItemsPageDto searchWorkItems(int page, int size, String sort, String cursor, boolean includeTotal, String q,
+            WorkItemStatus status, BasketScope basket, String colleague, DomainObjectType objectType, String objectId) {
         int safePage = Math.max(page, 0);
         int safeSize = Math.max(size, 1);
 
-        List<WorkItemDto> filtered = workItems.stream()
-                .filter(item -> status == null || item.status == status)
-                .filter(item -> objectType == null || item.objectType == objectType)
-                .filter(item -> objectId == null || objectId.isBlank() || item.objectId.equalsIgnoreCase(objectId))
-                .filter(item -> q == null || q.isBlank() || matchesQuery(item, q))
-                .filter(item -> basketFilter(item, basket, colleague))
-                .sorted(sortComparator(sort))
-                .toList();
+        if (basket == BasketScope.COLLEAGUE && (colleague == null || colleague.isBlank())) {
+            return new WorkItemsPageDto(new ArrayList<>(), 0);
+        }
+        WorkItemStore current = store;
+        WorkItemQuery query = query(q, status, basket, colleague, objectType, objectId);
+
+        if (query.text() != null && isRelevanceSort(sort)) {
+            List<WorkItemDto> ranked = current.rankByRelevance(query, metrics);
+            int fromIndex = Math.min(safePage * safeSize, ranked.size());
+            int toIndex = Math.min(fromIndex + safeSize, ranked.size());
+            metrics.results(toIndex - fromIndex);
+            return new EncodableWorkItemsPage(new ArrayList<>(ranked.subList(fromIndex, toIndex)), ranked.size(), null,
+                    current.encoded());
+        }
+
+        WorkItemSort order = WorkItemSort.parse(sort);
+        PageCursor after = cursor == null || cursor.isBlank() ? null : PageCursor.decode(cursor, order);
+        long offset = after == null ? (long) safePage * safeSize : 0;
+        WorkItemStore.SearchPage result = current.search(query, order, after, offset, safeSize, includeTotal,
+                metrics);
 
-        int fromIndex = Math.min(safePage * safeSize, filtered.size());
-        int toIndex = Math.min(fromIndex + safeSize, filtered.size());
+        String nextCursor = result.hasMore()
+                ? new PageCursor(order, result.last().key(), result.last().id()).encode()
+                : null;
+        return new EncodableWorkItemsPage(result.items(), result.total(), nextCursor, current.encoded());
+    }
 
-        return new WorkItemsPageDto(new ArrayList<>(filtered.subList(fromIndex, toIndex)), filtered.size());
+    /**
+     * Counts the matching items per basket, and per status and per object type within the selected basket. Every count
+     * is the total that a search with the same filters returns; a facet is not narrowed by its own filter, so the
+     * status counts do not depend on the selected status. Without {@code q} the counts are read from counters that
+     * each action keeps up to date.
+     */
+    public WorkItemFacetsDto getWorkItemFacets(String q, WorkItemStatus status, BasketScope basket, String colleague,
+            DomainObjectType objectType) {
+        WorkItemStore current = store;
+        Map<BasketScope, Long> baskets = new EnumMap<>(BasketScope.class);
+        for (BasketScope scope : BasketScope.values()) {
+            baskets.put(scope, count(current, q, status, scope, colleague, objectType));
+        }
+        Map<WorkItemStatus, Long> statuses = new EnumMap<>(WorkItemStatus.class);
+        for (WorkItemStatus value : WorkItemStatus.values()) {
+            statuses.put(value, count(current, q, value, basket, colleague, objectType));
+        }
+        Map<DomainObjectType, Long> objectTypes = new EnumMap<>(DomainObjectType.class);
+        for (DomainObjectType value : DomainObjectType.values()) {
+            objectTypes.put(value, count(current, q, status, basket, colleague, value));
+        }
+        return new WorkItemFacetsDto(baskets, statuses, objectTypes);
+    }
+
+    /**
+     * Streams every item matching the filters in sort order. Items are produced as the subscriber requests them, so an
+     * export holds neither the result list nor a page in memory. Relevance sorting needs all matches at once and is
+     * not supported here; such exports use the default order.
+     */
+    public Multi<WorkItemDto> exportWorkItems(String sort, String q, WorkItemStatus status, BasketScope basket,
+            String colleague, DomainObjectType objectType, String objectId) {
+        if (basket == BasketScope.COLLEAGUE && (colleague == null || colleague.isBlank())) {
+            return Multi.createFrom().empty();
+        }
+        WorkItemStore current = store;
+        WorkItemQuery query = query(q, status, basket, colleague, objectType, objectId);
+        WorkItemSort order = isRelevanceSort(sort) ? WorkItemSort.parse(null) : WorkItemSort.parse(sort);
+        return Multi.createFrom().iterable(() -> current.scan(query, order));
+    }
+
+    /**
+     * Streams changes of work items, documents and protocol entries, optionally limited to a basket, a team or a domain
+     * object. Item changes pass a filter if the item matches it before or after the change, so subscribers also learn
+     * about items leaving their view; document and protocol changes pass object filters only. A {@code lastEventId}
+     * of an earlier event resumes after it.
+     */
+    public Multi<WorkItemChangeDto> streamWorkItemChanges(String lastEventId, BasketScope basket, String colleague,
+            String team, DomainObjectType objectType, String objectId) {
+        String safeObjectId = objectId == null || objectId.isBlank() ? null : objectId;
+        String safeTeam = team == null || team.isBlank() ? null : team;
+        boolean noColleague = basket == BasketScope.COLLEAGUE && (colleague == null || colleague.isBlank());
+        WorkItemQuery scope = basket == null
+                ? new WorkItemQuery(null, objectType, safeObjectId, null, false, null, null)
+                : query(null, null, basket, colleague, objectType, objectId);
+        WorkItemQuery query = safeTeam == null ? scope : new WorkItemQuery(null, objectType, safeObjectId,
+                scope.assignee(), scope.assigneeIgnoreCase(), safeTeam, null);
+        boolean itemsOnly = basket != null || safeTeam != null;
+
+        return changes.subscribe(lastEventId, published -> {
+            WorkItemChangeDto change = published.change();
+            return switch (change.type) {
+                case RESYNC -> true;
+                case ITEM_CHANGED -> !noColleague && (query.matches(change.item)
+                        || published.previous() != null && query.matches(published.previous()));
+                case DOCUMENT_ADDED, PROTOCOL_APPENDED -> !itemsOnly
+                        && (objectType == null || objectType == change.objectType)
+                        && (safeObjectId == null || safeObjectId.equalsIgnoreCase(change.objectId));
+            };
+        });
+    }
+
+    /**
+     * Returns the id under which the change is sent, to be passed back as {@code Last-Event-ID}.
+     */
+    public String changeEventId(WorkItemChangeDto change) {
+        return changes.eventId(change);
     }
 
     public WorkItemDto getWorkItemById(String id) {
-        return findWorkItem(id);
+        WorkItemStore current = store;
+        return current.get(current.findOrdinal(id));
+    }
+
+    public List<WorkItemDto> getWorkItemsByIds(List<String> ids) {
+        Set<String> uniqueIds = new LinkedHashSet<>();
+        for (String value : ids == null ? List.<String> of() : ids) {
+            for (String id : value.split(",")) {
+                if (!id.isBlank()) {
+                    uniqueIds.add(id.trim());
+                }
+            }
+        }
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("At most %d ids per batch".formatted(MAX_BATCH_SIZE));
+        }
+        return store.findAll(uniqueIds);
     }
 
     public WorkItemDto performWorkItemAction(String id, WorkItemActionCommand command) {
-        WorkItemDto item = findWorkItem(id);
+        return performWorkItemAction(id, command, null);
+    }
+
+    /**
+     * Applies the action to a draft of the current item version and commits it. Without {@code expectedVersion} a
+     * commit that lost against a concurrent writer is retried on the new version; with it, the conflict is reported
+     * as 412 Precondition Failed.
+     */
+    public WorkItemDto performWorkItemAction(String id, WorkItemActionCommand command, Long expectedVersion) {
+        WorkItemStore current = store;
+        int ordinal = current.findOrdinal(id);
 
         if (command == null || command.action == null) {
             throw new NotFoundException("Action command requires action");
         }
 
-        switch (command.action) {
-            case START -> {
-                item.status = WorkItemStatus.IN_PROGRESS;
-                item.assignedTo = CURRENT_USER;
-                addProtocol(item, "Aktion", "%s hat die Aufgabe gestartet.".formatted(CURRENT_USER), command.comment);
+        while (true) {
+            WorkItemDto previous = current.get(ordinal);
+            WorkItemDto item = WorkItemStore.draftOf(previous);
+            if (expectedVersion != null && item.version != expectedVersion) {
+                throw versionConflict(id, expectedVersion);
             }
-            case FORWARD -> {
-                String assignee = command.assignee == null || command.assignee.isBlank() ? null : command.assignee;
-                if (assignee == null) {
-                    throw new NotFoundException("Forward action requires assignee");
+            String key = contextKey(item.objectType, item.objectId);
+            ProtocolEntryDto entry = protocolEntry(ACTION_SOURCE,
+                    protocolDetails(applyAction(item, command), command.comment));
+            WorkItemDto committed;
+            long[] lsn = { 0 };
+            stateLock.readLock().lock();
+            try {
+                committed = current.commit(ordinal, item, next -> lsn[0] = journal.append(
+                        new JournalEvent.ActionApplied(next), new JournalEvent.ProtocolAppended(key, List.of(entry))));
+                if (committed != null) {
+                    track(followUps, ordinal, committed);
+                    protocolLog.append(key, List.of(entry));
+                    contexts.itemsChanged(List.of(committed));
+                    relationships.itemChanged(previous, committed);
+                    metrics.actionCommitted(command.action);
+                    changes.publish(List.of(itemChanged(previous, committed),
+                            protocolAppended(committed.objectType, committed.objectId, entry)));
                 }
-                item.assignedTo = assignee;
-                item.status = WorkItemStatus.OPEN;
-                addProtocol(item, "Aktion", "%s hat die Aufgabe an %s weitergeleitet.".formatted(CURRENT_USER, assignee),
-                        command.comment);
+            } finally {
+                stateLock.readLock().unlock();
             }
-            case RESCHEDULE -> {
-                if (command.followUpAt == null) {
-                    throw new NotFoundException("Reschedule action requires followUpAt");
+            if (committed != null) {
+                awaitDurable(lsn[0]);
+                return committed;
+            }
+            if (expectedVersion != null) {
+                throw versionConflict(id, expectedVersion);
+            }
+        }
+    }
+
+    /**
+     * Applies many actions in one pass. Several actions on the same item are chained on one draft. Protocol entries
+     * are grouped per domain object and appended once the batch is committed. With {@code atomic}, a single failing
+     * action rejects the whole batch; otherwise every action that can be applied is committed.
+     */
+    public WorkItemBatchActionResultDto performWorkItemActions(WorkItemBatchActionCommand batch) {
+        if (batch == null || batch.actions == null || batch.actions.isEmpty()) {
+            throw new NotFoundException("Batch action command requires actions");
+        }
+        if (batch.actions.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("At most %d actions per batch".formatted(MAX_BATCH_SIZE));
+        }
+
+        WorkItemStore current = store;
+        List<WorkItemActionResultDto> results = new ArrayList<>(batch.actions.size());
+        Map<Integer, PendingAction> pending = new LinkedHashMap<>();
+        for (WorkItemBatchActionItem action : batch.actions) {
+            WorkItemActionResultDto result = new WorkItemActionResultDto(action == null ? null : action.id);
+            results.add(result);
+            try {
+                if (action == null || action.id == null) {
+                    throw new NotFoundException("Batch action requires id");
                 }
-                item.dueAt = command.followUpAt;
-                item.status = WorkItemStatus.BLOCKED;
-                addProtocol(item, "Aktion", "%s hat die Aufgabe auf Wiedervorlage gesetzt (%s).".formatted(
-                        CURRENT_USER,
-                        command.followUpAt.toLocalDate()), command.comment);
+                int ordinal = current.findOrdinal(action.id);
+                if (action.command == null || action.command.action == null) {
+                    throw new NotFoundException("Action command requires action");
+                }
+                PendingAction item = pending.computeIfAbsent(ordinal, ignored -> new PendingAction(current.get(ordinal)));
+                if (action.expectedVersion != null && item.baseVersion != action.expectedVersion) {
+                    throw versionConflict(action.id, action.expectedVersion);
+                }
+                item.protocol.add(protocolDetails(applyAction(item.draft, action.command), action.command.comment));
+                item.actions.add(action.command.action);
+                item.results.add(result);
+            } catch (WebApplicationException e) {
+                fail(result, e.getResponse().getStatus(), e.getMessage());
             }
-            case COMPLETE -> {
-                item.status = WorkItemStatus.DONE;
-                addProtocol(item, "Aktion", "%s hat die Aufgabe abgeschlossen.".formatted(CURRENT_USER), command.comment);
+        }
+
+        boolean anyFailed = results.stream().anyMatch(result -> result.status != 0);
+        if (batch.atomic && anyFailed) {
+            results.stream().filter(result -> result.status == 0)
+                    .forEach(result -> fail(result, Response.Status.CONFLICT.getStatusCode(), "Batch aborted"));
+            return new WorkItemBatchActionResultDto(results);
+        }
+
+        List<PendingAction> actions = new ArrayList<>(pending.values());
+        List<WorkItemStore.Draft> drafts = new ArrayList<>(actions.size());
+        pending.forEach((ordinal, action) -> drafts.add(new WorkItemStore.Draft(ordinal, action.draft)));
+        long lsn;
+        stateLock.readLock().lock();
+        try {
+            lsn = commitBatch(current, actions, drafts, batch.atomic, ACTION_SOURCE);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        awaitDurable(lsn);
+        return new WorkItemBatchActionResultDto(results);
+    }
+
+    /**
+     * Commits the drafts, completes the results of their actions and prepends the grouped protocol entries, recorded
+     * as coming from {@code source}. The batch is journaled before it is published, so a failed append leaves the
+     * state unchanged. Returns the lsn of the journal records describing the batch.
+     */
+    private long commitBatch(WorkItemStore current, List<PendingAction> actions, List<WorkItemStore.Draft> drafts,
+            boolean atomic, String source) {
+        Map<String, List<ProtocolEntryDto>> protocolByKey = new LinkedHashMap<>();
+        List<List<ProtocolEntryDto>> entriesByAction = new ArrayList<>(actions.size());
+        for (PendingAction action : actions) {
+            List<ProtocolEntryDto> entries = new ArrayList<>(action.protocol.size());
+            action.protocol.forEach(details -> entries.add(protocolEntry(source, details)));
+            entriesByAction.add(entries);
+        }
+        long[] lsn = { 0 };
+        List<WorkItemDto> committed = current.commitAll(drafts, atomic, next -> {
+            for (int i = 0; i < next.size(); i++) {
+                WorkItemDto item = next.get(i);
+                if (item != null) {
+                    protocolByKey.computeIfAbsent(contextKey(item.objectType, item.objectId),
+                            ignored -> new ArrayList<>()).addAll(entriesByAction.get(i));
+                }
+            }
+            List<JournalEvent> events = new ArrayList<>(protocolByKey.size() + 1);
+            events.add(new JournalEvent.ActionApplied(next.stream().filter(Objects::nonNull).toList()));
+            protocolByKey.forEach((key, entries) -> events.add(new JournalEvent.ProtocolAppended(key, entries)));
+            lsn[0] = journal.append(events.toArray(JournalEvent[]::new));
+        });
+        FollowUpWheel wheel = followUps;
+
+        List<ChangeFeed.Change> feed = new ArrayList<>(actions.size() * 2);
+        for (int i = 0; i < actions.size(); i++) {
+            PendingAction action = actions.get(i);
+            WorkItemDto item = committed.get(i);
+            if (item == null) {
+                action.results.forEach(result -> fail(result, Response.Status.CONFLICT.getStatusCode(),
+                        "Work item was modified concurrently"));
+                continue;
+            }
+            track(wheel, drafts.get(i).ordinal(), item);
+            action.actions.forEach(metrics::actionCommitted);
+            action.results.forEach(result -> {
+                result.success = true;
+                result.status = Response.Status.OK.getStatusCode();
+                result.item = item;
+            });
+            feed.add(itemChanged(action.base, item));
+            relationships.itemChanged(action.base, item);
+            entriesByAction.get(i).forEach(entry -> feed.add(protocolAppended(item.objectType, item.objectId, entry)));
+        }
+        protocolByKey.forEach(protocolLog::append);
+        contexts.itemsChanged(committed);
+        changes.publish(feed);
+        return lsn[0];
+    }
+
+    /**
+     * Reopens the blocked items whose follow-up is due at {@code now}. They are committed in batches of
+     * {@code workitems.follow-ups.batch-size}, each with one journal append, and get a protocol entry like an action.
+     * An item that was changed after it became due is left as it is; if it was rescheduled again, its new follow-up
+     * is already filed.
+     */
+    void reopenDueFollowUps(Instant now) {
+        WorkItemStore current = store;
+        int[] due = followUps.advance(now);
+        for (int from = 0; from < due.length; from += followUpBatchSize) {
+            List<PendingAction> actions = new ArrayList<>();
+            List<WorkItemStore.Draft> drafts = new ArrayList<>();
+            for (int i = from; i < Math.min(from + followUpBatchSize, due.length); i++) {
+                WorkItemDto item = current.get(due[i]);
+                if (item.status != WorkItemStatus.BLOCKED || item.dueAt == null
+                        || item.dueAt.toInstant().isAfter(now)) {
+                    continue;
+                }
+                PendingAction action = new PendingAction(item);
+                action.draft.status = WorkItemStatus.OPEN;
+                action.protocol.add("Wiedervorlage vom %s ist fällig, die Aufgabe ist wieder offen."
+                        .formatted(item.dueAt.toLocalDate()));
+                actions.add(action);
+                drafts.add(new WorkItemStore.Draft(due[i], action.draft));
+            }
+            if (drafts.isEmpty()) {
+                continue;
             }
-            default -> throw new NotFoundException("Unsupported action " + command.action);
+            long lsn;
+            stateLock.readLock().lock();
+            try {
+                if (current != store) {
+                    // the state was replaced; its follow-ups were filed anew
+                    return;
+                }
+                lsn = commitBatch(current, actions, drafts, false, FOLLOW_UP_SOURCE);
+            } finally {
+                stateLock.readLock().unlock();
+            }
+            awaitDurable(lsn);
         }
+    }
 
-        return item;
+    private void processFollowUps() {
+        try {
+            reopenDueFollowUps(Instant.now());
+        } catch (RuntimeException e) {
+            LOG.error("Could not reopen due follow-ups", e);
+        }
     }
 
     public ContextViewDto getContextView(DomainObjectType objectType, String objectId) {
+        return getContextView(objectType, objectId, null, null);
+    }
+
+    public ContextViewDto getContextView(DomainObjectType objectType, String objectId, Integer protocolLimit,
+            OffsetDateTime protocolBefore) {
+        return getContextView(objectType, objectId, protocolLimit, protocolBefore, null);
+    }
+
+    /**
+     * Returns the materialized view of the domain object's context with a page of its protocol, newest entry first.
+     * The view is rebuilt only after the object's tasks, documents or protocol changed; its {@code version} identifies
+     * it for conditional requests. Without {@code protocolLimit} the whole protocol is returned.
+     * <p>
+     * With {@code includeRelated} the views of the objects down to that many levels below this one in the
+     * {@link RelationshipGraph} are returned as {@code related}, each with its own protocol page; related objects
+     * without tasks of their own have no context and are left out. The version then covers all returned views.
+     */
+    public ContextViewDto getContextView(DomainObjectType objectType, String objectId, Integer protocolLimit,
+            OffsetDateTime protocolBefore, Integer includeRelated) {
         if (objectType == null || objectId == null || objectId.isBlank()) {
             throw new NotFoundException("Context requires objectType and objectId");
         }
 
-        List<WorkItemDto> tasks = workItems.stream()
-                .filter(item -> item.objectType == objectType && item.objectId.equalsIgnoreCase(objectId))
-                .sorted(Comparator.comparing(item -> item.receivedAt, Comparator.reverseOrder()))
-                .toList();
-
-        if (tasks.isEmpty()) {
+        int limit = protocolLimit == null ? Integer.MAX_VALUE : Math.max(protocolLimit, 1);
+        ContextViewDto page = contextPage(objectType, objectId, limit, protocolBefore);
+        if (page == null) {
             throw new NotFoundException("No context found for " + objectType + " / " + objectId);
         }
+        int depth = includeRelated == null ? 0 : Math.max(includeRelated, 0);
+        if (depth > 0) {
+            List<ContextViewDto> related = new ArrayList<>();
+            StringBuilder versions = new StringBuilder(page.version);
+            for (RelationshipGraph.Node node : relationships.related(objectType, objectId, depth)) {
+                ContextViewDto relatedPage = contextPage(node.type(), node.id(), limit, protocolBefore);
+                if (relatedPage != null) {
+                    related.add(relatedPage);
+                    versions.append(',').append(relatedPage.version);
+                }
+            }
+            page.related = related;
+            page.version = page.version + "+"
+                    + UUID.nameUUIDFromBytes(versions.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return page;
+    }
 
-        WorkItemDto first = tasks.get(0);
+    /**
+     * The cached view of the object's context with a protocol page, or {@code null} if the object has no tasks.
+     */
+    private ContextViewDto contextPage(DomainObjectType objectType, String objectId, int limit,
+            OffsetDateTime protocolBefore) {
         String key = contextKey(objectType, objectId);
-        return new ContextViewDto(
-                objectType,
-                objectId,
-                first.objectLabel,
-                "%s · Vertrag %s · Schaden %s".formatted(first.customerName, safe(first.contractNo), safe(first.claimNo)),
-                tasks,
-                documentsByObject.getOrDefault(key, List.of()),
-                protocolByObject.getOrDefault(key, List.of()));
+        WorkItemStore current = store;
+        ContextViewDto view = contexts.view(key, version -> {
+            List<WorkItemDto> tasks = current.contextItems(objectType, objectId);
+            if (tasks.isEmpty()) {
+                return null;
+            }
+            WorkItemDto first = tasks.get(0);
+            ContextViewDto built = new ContextViewDto(
+                    objectType,
+                    objectId,
+                    first.objectLabel,
+                    "%s · Vertrag %s · Schaden %s".formatted(first.customerName, safe(first.contractNo), safe(first.claimNo)),
+                    tasks,
+                    new ArrayList<>(documentsByObject.getOrDefault(key, new ConcurrentLinkedDeque<>())),
+                    null);
+            built.version = version;
+            return built;
+        });
+
+        if (view == null) {
+            return null;
+        }
+        ProtocolLog.Page protocol = protocolLog.page(key, limit, protocolBefore);
+        metrics.protocolPage(protocol.entries().size());
+        ContextViewDto page = new ContextViewDto(view.objectType, view.objectId, view.title, view.subtitle, view.tasks,
+                view.documents, protocol.entries());
+        page.moreProtocolEntries = protocol.hasMore();
+        page.version = view.version;
+        return page;
     }
 
+    /**
+     * Records a document from its metadata alone. Without content it has no size and no hash.
+     */
     public DocumentDto uploadDocument(DomainObjectType objectType, String objectId, UploadDocumentCommand command) {
         if (command == null || command.fileName == null || command.fileName.isBlank()) {
             throw new NotFoundException("Document requires fileName");
         }
+        return addDocument(objectType, objectId, command, 0, null);
+    }
+
+    /**
+     * Stores the streamed content and records the document with the size and SHA-256 computed while storing.
+     */
+    public DocumentDto uploadDocumentContent(DomainObjectType objectType, String objectId, UploadDocumentCommand command,
+            ReadableByteChannel content) {
+        if (command == null || command.fileName == null || command.fileName.isBlank()) {
+            throw new NotFoundException("Document requires fileName");
+        }
+        DocumentContentStore.StoredContent stored = contentStore.store(content);
+        return addDocument(objectType, objectId, command, stored.size(), stored.hash());
+    }
+
+    /**
+     * Finds documents of all domain objects, newest first. Every term of {@code keyword} has to be the start of a
+     * term of the document's index keywords or file name; {@code mimeType} has to match exactly, ignoring case. A
+     * {@code cursor} of an earlier page continues after its last document.
+     */
+    public DocumentsPageDto searchDocuments(String keyword, String mimeType, OffsetDateTime uploadedAfter, int size,
+            String cursor) {
+        DocumentIndex index = documentIndex;
+        int before = index.size();
+        if (cursor != null && !cursor.isBlank()) {
+            DocumentCursor after = DocumentCursor.decode(cursor);
+            DocumentIndex.Entry last = index.get(after.position());
+            if (last == null || !last.document().id.equals(after.id())) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            before = after.position();
+        }
+        DocumentIndex.Page page = index.search(keyword, mimeType, uploadedAfter, before, Math.max(size, 1));
+        List<DocumentHitDto> hits = new ArrayList<>(page.entries().size());
+        for (DocumentIndex.Entry entry : page.entries()) {
+            int separator = entry.contextKey().indexOf(':');
+            hits.add(new DocumentHitDto(DomainObjectType.valueOf(entry.contextKey().substring(0, separator)),
+                    entry.contextKey().substring(separator + 1), entry.document()));
+        }
+        DocumentIndex.Entry last = page.entries().isEmpty() ? null : page.entries().get(page.entries().size() - 1);
+        String nextCursor = page.hasMore() ? new DocumentCursor(last.position(), last.document().id).encode() : null;
+        return new DocumentsPageDto(hits, nextCursor);
+    }
+
+    public DocumentContent getDocumentContent(DomainObjectType objectType, String objectId, String documentId) {
+        Deque<DocumentDto> documents = documentsByObject.get(contextKey(objectType, objectId));
+        DocumentDto document = documents == null ? null : documents.stream()
+                .filter(candidate -> candidate.id.equals(documentId))
+                .findFirst()
+                .orElse(null);
+        if (document == null) {
+            throw new NotFoundException("Document not found: " + documentId);
+        }
+        Path file = contentStore.content(document.contentHash);
+        try {
+            return new DocumentContent(document, file, Files.size(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
+    private DocumentDto addDocument(DomainObjectType objectType, String objectId, UploadDocumentCommand command,
+            long sizeInBytes, String contentHash) {
         String key = contextKey(objectType, objectId);
         DocumentDto document = new DocumentDto(
-                "DOC-" + UUID.randomUUID().toString().substring(0, 8),
+                newId("DOC-"),
                 command.fileName,
                 command.mimeType == null || command.mimeType.isBlank() ? "application/octet-stream" : command.mimeType,
-                Math.max(command.sizeInBytes, 0L),
+                sizeInBytes,
                 command.indexKeywords == null ? List.of() : command.indexKeywords,
                 OffsetDateTime.now(ZoneOffset.UTC),
                 command.uploadedBy == null || command.uploadedBy.isBlank() ? CURRENT_USER : command.uploadedBy);
+        document.contentHash = contentHash;
+
+        ProtocolEntryDto entry = protocolEntry("Dokumentenservice",
+                "Dokument %s hochgeladen und indexiert.".formatted(command.fileName));
 
-        documentsByObject.computeIfAbsent(key, ignored -> new ArrayList<>()).add(0, document);
-        protocolByObject.computeIfAbsent(key, ignored -> new ArrayList<>()).add(0,
-                new ProtocolEntryDto(
-                        "LOG-" + UUID.randomUUID().toString().substring(0, 8),
-                        OffsetDateTime.now(ZoneOffset.UTC),
-                        "Dokumentenservice",
-                        "Dokument %s hochgeladen und indexiert.".formatted(command.fileName)));
+        long lsn;
+        stateLock.readLock().lock();
+        try {
+            lsn = journal.append(new JournalEvent.DocumentUploaded(key, document),
+                    new JournalEvent.ProtocolAppended(key, List.of(entry)));
+            documentsByObject.computeIfAbsent(key, ignored -> new ConcurrentLinkedDeque<>()).addFirst(document);
+            documentIndex.add(key, document);
+            protocolLog.append(key, List.of(entry));
+            contexts.changed(key);
+            WorkItemChangeDto added = new WorkItemChangeDto(WorkItemChangeType.DOCUMENT_ADDED, objectType, objectId);
+            added.document = document;
+            changes.publish(List.of(new ChangeFeed.Change(added, null), protocolAppended(objectType, objectId, entry)));
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        awaitDurable(lsn);
 
         return document;
     }
 
+    int itemCount() {
+        return store.size();
+    }
+
+    long documentCount() {
+        return documentsByObject.values().stream().mapToLong(Deque::size).sum();
+    }
+
+    int protocolObjectCount() {
+        return protocolLog.objectCount();
+    }
+
+    long protocolEntryCount() {
+        return protocolLog.entryCount();
+    }
+
+    long largestProtocol() {
+        return protocolLog.largest();
+    }
+
+    int pendingFollowUps() {
+        return followUps.size();
+    }
+
     public void resetState() {
-        workItems.clear();
-        workItems.addAll(seedItems());
+        stateLock.writeLock().lock();
+        try {
+            store = new WorkItemStore(seedItems(), partitioning);
+            documentsByObject = seedDocuments();
+            documentIndex = new DocumentIndex(documentsByObject);
+            protocolLog = protocolLog.restart(seedProtocolEntries());
+            contexts = contextAggregates(store);
+            relationships = relationshipsOf(store);
+            followUps = followUpsOf(store);
+            journal.reset();
+            publishResync();
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
 
-        documentsByObject.clear();
-        documentsByObject.putAll(seedDocuments());
+    /**
+     * Restores the latest snapshot of the journal (or the seed state, also for a disabled journal) and replays the
+     * journal tail onto it. Items are collected in a plain list first so the store and its indexes are built once.
+     */
+    void recover(WorkItemJournal recovering) {
+        long started = System.nanoTime();
+        WorkItemJournal.Recovery recovery = recovering.recover();
+        WorkItemJournal.Snapshot snapshot = recovery.snapshot();
 
-        protocolByObject.clear();
-        protocolByObject.putAll(seedProtocolEntries());
+        List<WorkItemDto> items = new ArrayList<>(snapshot == null ? seedItems() : snapshot.items());
+        Map<String, Deque<DocumentDto>> documents = snapshot == null ? seedDocuments() : deques(snapshot.documents());
+        ProtocolLog protocol = protocolLog.restart(snapshot == null ? seedProtocolEntries() : snapshot.protocol());
+        Map<String, Integer> positions = new HashMap<>(items.size() * 4 / 3 + 1);
+        for (int position = 0; position < items.size(); position++) {
+            positions.put(items.get(position).id, position);
+        }
+
+        for (JournalEvent event : recovery.events()) {
+            if (event instanceof JournalEvent.ActionApplied applied) {
+                for (WorkItemDto item : applied.items()) {
+                    Integer position = positions.get(item.id);
+                    if (position != null && items.get(position).version < item.version) {
+                        items.set(position, item);
+                    }
+                }
+            } else if (event instanceof JournalEvent.DocumentUploaded uploaded) {
+                documents.computeIfAbsent(uploaded.contextKey(), ignored -> new ConcurrentLinkedDeque<>())
+                        .addFirst(uploaded.document());
+            } else if (event instanceof JournalEvent.ProtocolAppended appended) {
+                protocol.append(appended.contextKey(), appended.entries());
+            }
+        }
+
+        WorkItemStore recovered = new WorkItemStore(items, partitioning);
+        ContextAggregates recoveredContexts = contextAggregates(recovered);
+        RelationshipGraph recoveredRelationships = relationshipsOf(recovered);
+        FollowUpWheel recoveredFollowUps = followUpsOf(recovered);
+        DocumentIndex recoveredDocumentIndex = new DocumentIndex(documents);
+        stateLock.writeLock().lock();
+        try {
+            store = recovered;
+            documentsByObject = documents;
+            documentIndex = recoveredDocumentIndex;
+            protocolLog = protocol;
+            contexts = recoveredContexts;
+            relationships = recoveredRelationships;
+            followUps = recoveredFollowUps;
+            journal = recovering;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        LOG.infof("Recovered %d work items from %s and %d journal records in %d ms", items.size(),
+                snapshot == null ? "seed data" : "snapshot " + snapshot.lsn(), recovery.events().size(),
+                (System.nanoTime() - started) / 1_000_000);
     }
 
-    private WorkItemDto findWorkItem(String id) {
-        return workItems.stream().filter(item -> item.id.equals(id)).findFirst()
-                .orElseThrow(() -> new NotFoundException("Work item not found: " + id));
+    /**
+     * Replaces the whole state without journaling it, e.g. with generated data for benchmarks.
+     */
+    void load(WorkItemJournal.Snapshot state) {
+        load(state, partitioning);
     }
 
-    private void addProtocol(WorkItemDto item, String source, String message, String comment) {
-        String details = comment == null || comment.isBlank() ? message : message + " Hinweis: " + comment;
-        protocolByObject.computeIfAbsent(contextKey(item.objectType, item.objectId), ignored -> new ArrayList<>()).add(0,
-                new ProtocolEntryDto(
-                        "LOG-" + UUID.randomUUID().toString().substring(0, 8),
-                        OffsetDateTime.now(ZoneOffset.UTC),
-                        source,
-                        details));
+    /**
+     * Replaces the whole state like {@link #load(WorkItemJournal.Snapshot)}, splitting the indexes as given.
+     */
+    void load(WorkItemJournal.Snapshot state, WorkItemStore.Partitioning partitioning) {
+        this.partitioning = partitioning;
+        WorkItemStore loaded = new WorkItemStore(state.items(), partitioning);
+        ContextAggregates loadedContexts = contextAggregates(loaded);
+        RelationshipGraph loadedRelationships = relationshipsOf(loaded);
+        FollowUpWheel loadedFollowUps = followUpsOf(loaded);
+        Map<String, Deque<DocumentDto>> documents = deques(state.documents());
+        DocumentIndex loadedDocumentIndex = new DocumentIndex(documents);
+        ProtocolLog protocol = protocolLog.restart(state.protocol());
+        stateLock.writeLock().lock();
+        try {
+            store = loaded;
+            documentsByObject = documents;
+            documentIndex = loadedDocumentIndex;
+            protocolLog = protocol;
+            contexts = loadedContexts;
+            relationships = loadedRelationships;
+            followUps = loadedFollowUps;
+            publishResync();
+        } finally {
+            stateLock.writeLock().unlock();
+        }
     }
 
-    private static boolean basketFilter(WorkItemDto item, BasketScope basket, String colleague) {
-        return switch (basket) {
-            case MY -> Objects.equals(item.assignedTo, CURRENT_USER);
-            case TEAM -> Objects.equals(item.team, CURRENT_TEAM);
-            case COLLEAGUE -> colleague != null && !colleague.isBlank() && item.assignedTo.equalsIgnoreCase(colleague);
+    /**
+     * Writes a snapshot synchronously, e.g. before taking a backup of the journal directory.
+     */
+    void checkpoint() {
+        journal.writeSnapshot(captureSnapshot());
+    }
+
+    /**
+     * Holds off writers only while the columns are copied and the ends of protocols and document lists are marked;
+     * the lists are built afterwards and the items materialized while the snapshot is written.
+     */
+    WorkItemJournal.Snapshot captureSnapshot() {
+        long lsn;
+        List<WorkItemDto> items;
+        Map<String, Deque<DocumentDto>> documents;
+        Map<String, DocumentDto> newestDocuments;
+        ProtocolLog.Marks protocol;
+        stateLock.writeLock().lock();
+        try {
+            lsn = journal.lastLsn();
+            items = store.itemsAsOfNow();
+            documents = documentsByObject;
+            newestDocuments = newest(documents);
+            protocol = protocolLog.mark();
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        return new WorkItemJournal.Snapshot(lsn, items, lists(documents, newestDocuments), protocol.lists());
+    }
+
+    private void awaitDurable(long lsn) {
+        journal.sync(lsn);
+        if (journal.snapshotDue()) {
+            journal.snapshotAsync(this::captureSnapshot);
+        }
+    }
+
+    private static <T> Map<String, T> newest(Map<String, Deque<T>> source) {
+        Map<String, T> newest = new LinkedHashMap<>(source.size() * 4 / 3 + 1);
+        source.forEach((key, values) -> newest.put(key, values.peekFirst()));
+        return newest;
+    }
+
+    /**
+     * Lists the values of every key from the given newest one on. Values are only ever added in front, so these are
+     * exactly the values the deque held when the newest one was taken.
+     */
+    private static <T> Map<String, List<T>> lists(Map<String, Deque<T>> source, Map<String, T> newest) {
+        Map<String, List<T>> copy = new LinkedHashMap<>(newest.size() * 4 / 3 + 1);
+        newest.forEach((key, first) -> {
+            List<T> values = new ArrayList<>();
+            for (T value : source.get(key)) {
+                if (value == first || !values.isEmpty()) {
+                    values.add(value);
+                }
+            }
+            copy.put(key, values);
+        });
+        return copy;
+    }
+
+    private static <T> Map<String, Deque<T>> deques(Map<String, List<T>> source) {
+        Map<String, Deque<T>> copy = new ConcurrentHashMap<>(source.size() * 4 / 3 + 1);
+        source.forEach((key, values) -> copy.put(key, new ConcurrentLinkedDeque<>(values)));
+        return copy;
+    }
+
+    private static String applyAction(WorkItemDto item, WorkItemActionCommand command) {
+        return switch (command.action) {
+            case START -> {
+                item.status = WorkItemStatus.IN_PROGRESS;
+                item.assignedTo = CURRENT_USER;
+                yield "%s hat die Aufgabe gestartet.".formatted(CURRENT_USER);
+            }
+            case FORWARD -> {
+                String assignee = command.assignee == null || command.assignee.isBlank() ? null : command.assignee;
+                if (assignee == null) {
+                    throw new NotFoundException("Forward action requires assignee");
+                }
+                item.assignedTo = assignee;
+                item.status = WorkItemStatus.OPEN;
+                yield "%s hat die Aufgabe an %s weitergeleitet.".formatted(CURRENT_USER, assignee);
+            }
+            case RESCHEDULE -> {
+                if (command.followUpAt == null) {
+                    throw new NotFoundException("Reschedule action requires followUpAt");
+                }
+                item.dueAt = command.followUpAt;
+                item.status = WorkItemStatus.BLOCKED;
+                yield "%s hat die Aufgabe auf Wiedervorlage gesetzt (%s).".formatted(
+                        CURRENT_USER,
+                        command.followUpAt.toLocalDate());
+            }
+            case COMPLETE -> {
+                item.status = WorkItemStatus.DONE;
+                yield "%s hat die Aufgabe abgeschlossen.".formatted(CURRENT_USER);
+            }
         };
     }
 
-    private static boolean matchesQuery(WorkItemDto item, String q) {
-        String query = q.toLowerCase(Locale.ROOT).trim();
-        return safe(item.title).toLowerCase(Locale.ROOT).contains(query)
-                || safe(item.description).toLowerCase(Locale.ROOT).contains(query)
-                || safe(item.assignedTo).toLowerCase(Locale.ROOT).contains(query)
-                || safe(item.objectId).toLowerCase(Locale.ROOT).contains(query)
-                || safe(item.objectLabel).toLowerCase(Locale.ROOT).contains(query);
+    private static ClientErrorException versionConflict(String id, long expectedVersion) {
+        return new ClientErrorException("Work item %s no longer has version %d".formatted(id, expectedVersion),
+                Response.Status.PRECONDITION_FAILED);
+    }
+
+    private static void fail(WorkItemActionResultDto result, int status, String error) {
+        result.success = false;
+        result.status = status;
+        result.error = error;
+        result.item = null;
+    }
+
+    private static ProtocolEntryDto protocolEntry(String source, String details) {
+        return new ProtocolEntryDto(newId("LOG-"), OffsetDateTime.now(ZoneOffset.UTC), source, details);
+    }
+
+    private void publishResync() {
+        changes.publish(List.of(new ChangeFeed.Change(
+                new WorkItemChangeDto(WorkItemChangeType.RESYNC, null, null), null)));
+    }
+
+    private static ChangeFeed.Change itemChanged(WorkItemDto previous, WorkItemDto item) {
+        WorkItemChangeDto change = new WorkItemChangeDto(WorkItemChangeType.ITEM_CHANGED, item.objectType, item.objectId);
+        change.item = item;
+        return new ChangeFeed.Change(change, previous);
+    }
+
+    private static ChangeFeed.Change protocolAppended(DomainObjectType objectType, String objectId,
+            ProtocolEntryDto entry) {
+        WorkItemChangeDto change = new WorkItemChangeDto(WorkItemChangeType.PROTOCOL_APPENDED, objectType, objectId);
+        change.protocolEntry = entry;
+        return new ChangeFeed.Change(change, null);
     }
 
-    private static Comparator<WorkItemDto> sortComparator(String sort) {
-        boolean desc = sort != null && sort.endsWith(",desc");
-        Comparator<WorkItemDto> comparator = Comparator.comparing(item -> item.receivedAt);
-        return desc ? comparator.reversed() : comparator;
+    private static String protocolDetails(String message, String comment) {
+        return comment == null || comment.isBlank() ? message : message + " Hinweis: " + comment;
     }
 
-    private static String contextKey(DomainObjectType objectType, String objectId) {
+    private static String newId(String prefix) {
+        String random = Integer.toHexString(ThreadLocalRandom.current().nextInt());
+        return prefix + "0".repeat(8 - random.length()) + random;
+    }
+
+    private static long count(WorkItemStore store, String q, WorkItemStatus status, BasketScope basket,
+            String colleague, DomainObjectType objectType) {
+        if (basket == BasketScope.COLLEAGUE && (colleague == null || colleague.isBlank())) {
+            return 0;
+        }
+        return store.count(query(q, status, basket, colleague, objectType, null));
+    }
+
+    private static WorkItemQuery query(String q, WorkItemStatus status, BasketScope basket, String colleague,
+            DomainObjectType objectType, String objectId) {
+        String text = TrigramIndex.normalizeQuery(q);
+        String safeObjectId = objectId == null || objectId.isBlank() ? null : objectId;
+        return switch (basket) {
+            case MY -> new WorkItemQuery(status, objectType, safeObjectId, CURRENT_USER, false, null, text);
+            case TEAM -> new WorkItemQuery(status, objectType, safeObjectId, null, false, CURRENT_TEAM, text);
+            case COLLEAGUE -> new WorkItemQuery(status, objectType, safeObjectId, colleague, true, null, text);
+        };
+    }
+
+    private static boolean isRelevanceSort(String sort) {
+        return sort != null && sort.startsWith("relevance");
+    }
+
+    static String contextKey(DomainObjectType objectType, String objectId) {
         return objectType + ":" + objectId.toUpperCase(Locale.ROOT);
     }
 
+    private static ContextAggregates contextAggregates(WorkItemStore store) {
+        return new ContextAggregates(store.items()::iterator, item -> contextKey(item.objectType, item.objectId));
+    }
+
+    private static RelationshipGraph relationshipsOf(WorkItemStore store) {
+        return new RelationshipGraph(store.items()::iterator);
+    }
+
+    /**
+     * Files the follow-ups of the store's blocked items, including the ones that are already due.
+     */
+    private FollowUpWheel followUpsOf(WorkItemStore store) {
+        FollowUpWheel wheel = new FollowUpWheel(store.size(), followUpTick, Instant.now());
+        for (int ordinal = 0; ordinal < store.size(); ordinal++) {
+            track(wheel, ordinal, store.get(ordinal));
+        }
+        return wheel;
+    }
+
+    /**
+     * Files the follow-up of a blocked item at its due date and drops the follow-up of any other item.
+     */
+    private static void track(FollowUpWheel wheel, int ordinal, WorkItemDto item) {
+        if (item.status == WorkItemStatus.BLOCKED && item.dueAt != null) {
+            wheel.schedule(ordinal, item.dueAt.toInstant());
+        } else {
+            wheel.cancel(ordinal);
+        }
+    }
+
     private static String safe(String value) {
         return value == null ? "-" : value;
     }
 
     private static List<WorkItemDto> seedItems() {
-        return List.of(
-                new WorkItemDto("WI-3001", DomainObjectType.CUSTOMER, "K-1001", "Kunde K-1001", "Müller GmbH",
-                        "V-1001", "S-2001", "Adressänderung prüfen", "Neue Korrespondenzadresse validieren.",
-                        WorkItemStatus.OPEN, 1,
-                        OffsetDateTime.of(2024, 6, 3, 8, 30, 0, 0, ZoneOffset.UTC),
-                        OffsetDateTime.of(2024, 6, 7, 16, 0, 0, 0, ZoneOffset.UTC), "Alice", "Leistung-Team Nord"),
-                new WorkItemDto("WI-3002", DomainObjectType.CONTRACT, "V-1001", "Vertrag V-1001", "Müller GmbH",
-                        "V-1001", "S-2001", "Beitrag neu berechnen", "Nachtragsangebot wegen Tarifwechsel.",
-                        WorkItemStatus.IN_PROGRESS, 2,
-                        OffsetDateTime.of(2024, 6, 2, 9, 15, 0, 0, ZoneOffset.UTC),
-                        OffsetDateTime.of(2024, 6, 10, 15, 30, 0, 0, ZoneOffset.UTC), "Bob", "Leistung-Team Nord"),
-                new WorkItemDto("WI-3003", DomainObjectType.CLAIM, "S-2001", "Schaden S-2001", "Müller GmbH",
-                        "V-1001", "S-2001", "Deckungsprüfung finalisieren", "Eingegangene Fotos und Kostenvoranschlag bewerten.",
-                        WorkItemStatus.OPEN, 1,
-                        OffsetDateTime.of(2024, 6, 1, 11, 40, 0, 0, ZoneOffset.UTC),
-                        OffsetDateTime.of(2024, 6, 6, 12, 0, 0, 0, ZoneOffset.UTC), "Alice", "Leistung-Team Nord"),
-                new WorkItemDto("WI-3004", DomainObjectType.CUSTOMER, "K-2002", "Kunde K-2002", "Schmidt AG",
-                        "V-2001", "S-2002", "SEPA-Mandat nachfordern", "Fehlende Einzugsermächtigung für Folgebeitrag.",
-                        WorkItemStatus.BLOCKED, 2,
-                        OffsetDateTime.of(2024, 6, 4, 13, 20, 0, 0, ZoneOffset.UTC),
-                        OffsetDateTime.of(2024, 6, 14, 10, 0, 0, 0, ZoneOffset.UTC), "Clara", "Leistung-Team Süd"),
-                new WorkItemDto("WI-3005", DomainObjectType.CLAIM, "S-2003", "Schaden S-2003", "Schmidt AG",
-                        "V-2001", "S-2003", "Regress prüfen", "Prüfung gegen Drittschädiger einleiten.",
-                        WorkItemStatus.DONE, 3,
-                        OffsetDateTime.of(2024, 5, 29, 7, 45, 0, 0, ZoneOffset.UTC),
-                        OffsetDateTime.of(2024, 6, 5, 18, 0, 0, 0, ZoneOffset.UTC), "Daniel", "Leistung-Team Süd"),
-                new WorkItemDto("WI-3006", DomainObjectType.CONTRACT, "V-2001", "Vertrag V-2001", "Schmidt AG",
-                        "V-2001", "S-2002", "SEPA-Mandat nachhalten", "Mandat fehlt in den Stammdaten.",
-                        WorkItemStatus.IN_PROGRESS, 2,
-                        OffsetDateTime.of(2024, 6, 6, 10, 5, 0, 0, ZoneOffset.UTC),
-                        OffsetDateTime.of(2024, 6, 12, 17, 0, 0, 0, ZoneOffset.UTC), "Eva", "Leistung-Team Nord"));
-    }
-
-    private static Map<String, List<DocumentDto>> seedDocuments() {
-        Map<String, List<DocumentDto>> docs = new HashMap<>();
-        docs.put(contextKey(DomainObjectType.CLAIM, "S-2001"), new ArrayList<>(List.of(
-                new DocumentDto("DOC-1001", "Reparaturkostenvoranschlag.pdf", "application/pdf", 232_112,
-                        List.of("Schaden", "Werkstatt", "Kalkulation"),
-                        OffsetDateTime.of(2024, 6, 1, 11, 30, 0, 0, ZoneOffset.UTC), "Clara"),
-                new DocumentDto("DOC-1002", "Schadenfoto_01.jpg", "image/jpeg", 1_102_112,
-                        List.of("Foto", "Frontschaden"),
-                        OffsetDateTime.of(2024, 6, 1, 11, 32, 0, 0, ZoneOffset.UTC), "Clara"))));
-
-        docs.put(contextKey(DomainObjectType.CONTRACT, "V-1001"), new ArrayList<>(List.of(
-                new DocumentDto("DOC-1003", "Vertragsentwurf_v2.docx",
-                        "application/vnd.openxmlformats-officedocument.wordprocessingml.document", 92_400,
-                        List.of("Angebot", "Vertragsänderung"),
-                        OffsetDateTime.of(2024, 6, 2, 10, 0, 0, 0, ZoneOffset.UTC), "Bob"))));
-        return docs;
+        return SeedData.ITEMS;
+    }
+
+    private static Map<String, Deque<DocumentDto>> seedDocuments() {
+        return deques(SeedData.DOCUMENTS);
     }
 
     private static Map<String, List<ProtocolEntryDto>> seedProtocolEntries() {
-        Map<String, List<ProtocolEntryDto>> logs = new HashMap<>();
-        logs.put(contextKey(DomainObjectType.CLAIM, "S-2001"), new ArrayList<>(List.of(
-                new ProtocolEntryDto("LOG-2001", OffsetDateTime.of(2024, 6, 1, 11, 40, 0, 0, ZoneOffset.UTC),
-                        "Fachprotokoll", "Schadenmeldung eingegangen und Erstprüfung gestartet."),
-                new ProtocolEntryDto("LOG-2002", OffsetDateTime.of(2024, 6, 2, 9, 0, 0, 0, ZoneOffset.UTC),
-                        "Regelwerk", "Automatische Deckungsprüfung ohne Treffer abgeschlossen."))));
-
-        logs.put(contextKey(DomainObjectType.CONTRACT, "V-1001"), new ArrayList<>(List.of(
-                new ProtocolEntryDto("LOG-2003", OffsetDateTime.of(2024, 6, 2, 9, 30, 0, 0, ZoneOffset.UTC),
-                        "Bestand", "Vertragsverlängerung aus Bestand ausgelöst."))));
-        return logs;
+        return SeedData.PROTOCOL;
+    }
+
+    private static final class PendingAction {
+        private final WorkItemDto base;
+        private final WorkItemDto draft;
+        private final long baseVersion;
+        private final List<String> protocol = new ArrayList<>(1);
+        private final List<WorkItemActionType> actions = new ArrayList<>(1);
+        private final List<WorkItemActionResultDto> results = new ArrayList<>(1);
+
+        private PendingAction(WorkItemDto base) {
+            this.base = base;
+            this.draft = WorkItemStore.draftOf(base);
+            this.baseVersion = base.version;
+        }
     }
 }
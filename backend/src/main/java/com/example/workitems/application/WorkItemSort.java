@@ -0,0 +1,19 @@
+package com.example.workitems.application;
+
+import java.util.Comparator;
+
+record WorkItemSort(SortField field, boolean descending) {
+
+    static WorkItemSort parse(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return new WorkItemSort(SortField.RECEIVED_AT, true);
+        }
+        int separator = sort.indexOf(',');
+        String fieldName = separator < 0 ? sort : sort.substring(0, separator);
+        return new WorkItemSort(SortField.fromParameter(fieldName.trim()), sort.endsWith(",desc"));
+    }
+
+    Comparator<SortedIndex.Entry> order() {
+        return descending ? SortedIndex.ORDER.reversed() : SortedIndex.ORDER;
+    }
+}
@@ -0,0 +1,587 @@
+package com.example.workitems.application;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import jakarta.ws.rs.NotFoundException;
+
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.DomainObjectType;
+
+import io.vertx.core.Context;
+
+/**
+ * Versioned work item state with its secondary indexes.
+ * <p>
+ * Items are kept column-wise ({@link WorkItemColumns}); searches filter and order item positions on the columns and
+ * materialize a {@link WorkItemDto} only for the items they return, re-checking each against the version they
+ * materialized. Readers never lock. Writers take a copy of the current version ({@link #draftOf}), apply their change
+ * to it and {@link #commit} it, which succeeds only if the item still has the version the draft was taken from.
+ * <p>
+ * The indexes are split into {@link WorkItemPartition}s. A search asks every partition for its first matches and its
+ * match count and merges them; when the partitions hold many candidates they are searched in parallel on the
+ * partitioning's executor, with the calling thread taking the first partition itself. A Vert.x I/O thread must not
+ * wait for the executor, so it always searches the partitions one after the other.
+ */
+final class WorkItemStore {
+
+    private static final int OPTIMISTIC_COUNT_ATTEMPTS = 16;
+    private static final Comparator<WorkItemDto> NEWEST_FIRST = Comparator
+            .comparing((WorkItemDto item) -> item.receivedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(item -> item.id);
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicLong writesStarted = new AtomicLong();
+    private final AtomicLong writesCompleted = new AtomicLong();
+    private final Partitioning partitioning;
+    private final WorkItemColumns columns;
+    private final WorkItemPartition[] partitions;
+    private final FacetCounts facets;
+    private final EncodedItems encoded;
+
+    /**
+     * Lays the items out partition by partition, so each partition covers a contiguous range of positions.
+     */
+    WorkItemStore(List<WorkItemDto> items, Partitioning partitioning) {
+        this.partitioning = partitioning;
+        List<List<WorkItemDto>> assigned = new ArrayList<>(partitioning.partitions());
+        for (int partition = 0; partition < partitioning.partitions(); partition++) {
+            assigned.add(new ArrayList<>(items.size() / partitioning.partitions() + 1));
+        }
+        for (WorkItemDto item : items) {
+            assigned.get(partitionIndex(item.objectId)).add(item);
+        }
+        List<WorkItemDto> laidOut = new ArrayList<>(items.size());
+        assigned.forEach(laidOut::addAll);
+
+        columns = new WorkItemColumns(laidOut);
+        facets = new FacetCounts(laidOut);
+        encoded = new EncodedItems(laidOut.size());
+        partitions = new WorkItemPartition[assigned.size()];
+        int from = 0;
+        for (int partition = 0; partition < partitions.length; partition++) {
+            partitions[partition] = new WorkItemPartition(assigned.get(partition), from);
+            from += assigned.get(partition).size();
+        }
+    }
+
+    int size() {
+        return columns.size();
+    }
+
+    /**
+     * The cached encoded forms of this store's items.
+     */
+    EncodedItems encoded() {
+        return encoded;
+    }
+
+    WorkItemDto get(int ordinal) {
+        return columns.item(ordinal);
+    }
+
+    Stream<WorkItemDto> items() {
+        return IntStream.range(0, size()).mapToObj(this::get);
+    }
+
+    /**
+     * The current versions of all items in {@link #items()} order, materialized on access from a copy of the columns,
+     * so commits made afterwards are not seen. Taking it costs a copy of the columns; must not overlap a commit.
+     */
+    List<WorkItemDto> itemsAsOfNow() {
+        WorkItemColumns copy = columns.copy();
+        return new AbstractList<>() {
+            @Override
+            public WorkItemDto get(int ordinal) {
+                return copy.item(ordinal);
+            }
+
+            @Override
+            public int size() {
+                return copy.size();
+            }
+        };
+    }
+
+    int findOrdinal(String id) {
+        int ordinal = id == null ? -1 : columns.find(id);
+        if (ordinal < 0) {
+            throw new NotFoundException("Work item not found: " + id);
+        }
+        return ordinal;
+    }
+
+    List<WorkItemDto> findAll(Collection<String> ids) {
+        List<WorkItemDto> found = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            int ordinal = id == null ? -1 : columns.find(id);
+            if (ordinal >= 0) {
+                found.add(get(ordinal));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the tasks of a domain object, newest first.
+     */
+    List<WorkItemDto> contextItems(DomainObjectType objectType, String objectId) {
+        WorkItemColumns.Filter filter = columns.filter(
+                new WorkItemQuery(null, objectType, objectId, null, false, null, null));
+        RoaringBitmap candidates = partitions[partitionIndex(objectId)].contextCandidates(objectType, objectId);
+        List<WorkItemDto> items = new ArrayList<>(candidates.getCardinality());
+        candidates.forEach((int ordinal) -> {
+            WorkItemDto item = get(ordinal);
+            if (filter.test(item)) {
+                items.add(item);
+            }
+        });
+        items.sort(NEWEST_FIRST);
+        return items;
+    }
+
+    /**
+     * Returns a mutable copy of a version read before, e.g. to keep that version next to the draft.
+     */
+    static WorkItemDto draftOf(WorkItemDto item) {
+        return copyOf(item);
+    }
+
+    WorkItemDto commit(int ordinal, WorkItemDto draft) {
+        return commit(ordinal, draft, next -> { });
+    }
+
+    WorkItemDto commit(int ordinal, WorkItemDto draft, Consumer<List<WorkItemDto>> beforePublish) {
+        return commitAll(List.of(new Draft(ordinal, draft)), true, beforePublish).get(0);
+    }
+
+    List<WorkItemDto> commitAll(List<Draft> drafts, boolean atomic) {
+        return commitAll(drafts, atomic, next -> { });
+    }
+
+    /**
+     * Publishes drafts as the next versions of their items in one pass. A draft whose item was committed by another
+     * writer since the draft was taken is not applied and yields {@code null}; with {@code atomic} one outdated draft
+     * rejects the whole batch. Index postings touched by several drafts are copied once.
+     * <p>
+     * If any draft applies, {@code beforePublish} is handed the result before readers can see it, e.g. to journal the
+     * new versions; if it throws, nothing is published.
+     */
+    List<WorkItemDto> commitAll(List<Draft> drafts, boolean atomic, Consumer<List<WorkItemDto>> beforePublish) {
+        writeLock.lock();
+        writesStarted.incrementAndGet();
+        try {
+            boolean anyOutdated = false;
+            for (Draft draft : drafts) {
+                anyOutdated |= columns.version(draft.ordinal()) != draft.item().version;
+            }
+            if (atomic && anyOutdated) {
+                return Collections.nCopies(drafts.size(), null);
+            }
+
+            List<WorkItemDto> committed = new ArrayList<>(drafts.size());
+            List<RowChange> changes = new ArrayList<>(drafts.size());
+            List<List<RowChange>> changesByPartition = new ArrayList<>(partitions.length);
+            for (int partition = 0; partition < partitions.length; partition++) {
+                changesByPartition.add(new ArrayList<>());
+            }
+            for (Draft draft : drafts) {
+                WorkItemDto previous = columns.item(draft.ordinal());
+                if (previous.version != draft.item().version) {
+                    committed.add(null);
+                    continue;
+                }
+                WorkItemDto item = draft.item();
+                item.version = previous.version + 1;
+                RowChange change = new RowChange(draft.ordinal(), previous, item);
+                changes.add(change);
+                changesByPartition.get(partitionOf(draft.ordinal())).add(change);
+                committed.add(item);
+            }
+            if (changes.isEmpty()) {
+                return committed;
+            }
+            beforePublish.accept(committed);
+
+            for (int partition = 0; partition < partitions.length; partition++) {
+                partitions[partition].addNewPostings(changesByPartition.get(partition));
+            }
+
+            changes.forEach(change -> columns.write(change.ordinal(), change.current()));
+            facets.apply(changes);
+
+            for (int partition = 0; partition < partitions.length; partition++) {
+                partitions[partition].removeOldPostings(changesByPartition.get(partition));
+            }
+            return committed;
+        } finally {
+            writesCompleted.incrementAndGet();
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Collects a page from the first {@code offset + size + 1} matches of every partition, merged in sort order. If
+     * items changed while the page was collected so that it comes out short although a partition has more matches,
+     * the partitions are asked for more.
+     */
+    SearchPage search(WorkItemQuery query, WorkItemSort order, PageCursor after, long offset, int size,
+            boolean includeTotal, WorkItemMetrics metrics) {
+        long completedBefore = writesCompleted.get();
+        long startedBefore = writesStarted.get();
+        WorkItemPartition[] searched = partitionsFor(query);
+        RoaringBitmap[] candidates = candidates(searched, query, metrics);
+        WorkItemColumns.Filter filter = columns.filter(query);
+        boolean parallel = isParallel(candidates);
+        boolean countMatches = includeTotal && query.text() != null;
+
+        long sortStart = System.nanoTime();
+        int limit = (int) Math.min(offset + size + 1, Integer.MAX_VALUE);
+        while (true) {
+            int perPartition = limit;
+            List<WorkItemPartition.Top> tops = fanOut(searched.length, parallel, partition -> searched[partition]
+                    .top(candidates[partition], filter, columns, order, after, perPartition, countMatches));
+            List<Iterator<SortedIndex.Entry>> sources = new ArrayList<>(tops.size());
+            tops.forEach(top -> sources.add(top.entries().iterator()));
+            Iterator<SortedIndex.Entry> ordered = merge(sources, order.order());
+
+            long toSkip = offset;
+            List<WorkItemDto> items = new ArrayList<>(size);
+            SortedIndex.Entry last = null;
+            boolean hasMore = false;
+            while (ordered.hasNext()) {
+                SortedIndex.Entry entry = ordered.next();
+                if (toSkip > 0) {
+                    toSkip--;
+                } else if (items.size() < size) {
+                    WorkItemDto item = materialize(entry, filter, order.field());
+                    if (item != null) {
+                        items.add(item);
+                        last = entry;
+                    }
+                } else {
+                    hasMore = true;
+                    break;
+                }
+            }
+            if (!hasMore && items.size() < size && limit < Integer.MAX_VALUE
+                    && tops.stream().anyMatch(WorkItemPartition.Top::truncated)) {
+                limit = (int) Math.min(limit * 2L, Integer.MAX_VALUE);
+                continue;
+            }
+            metrics.sorted(sortStart);
+            metrics.results(items.size());
+
+            long total = -1;
+            if (includeTotal) {
+                boolean stable = completedBefore == startedBefore && writesStarted.get() == startedBefore;
+                if (countMatches) {
+                    total = tops.stream().mapToLong(WorkItemPartition.Top::matches).sum();
+                } else if (stable) {
+                    total = Arrays.stream(candidates).mapToLong(RoaringBitmap::getLongCardinality).sum();
+                } else {
+                    total = countMatches(searched, candidates, filter, parallel);
+                }
+                metrics.matches(total);
+            }
+            return new SearchPage(items, total, last, hasMore);
+        }
+    }
+
+    /**
+     * Counts the items matching the query, the same number a search returns as its total. Without text or object id
+     * the count is read from the {@link FacetCounts} kept by every commit; the read is repeated if a commit overlapped
+     * it, and after a few overlapped attempts taken under the write lock. Other queries count their matching
+     * candidates.
+     */
+    long count(WorkItemQuery query) {
+        if (query.text() != null || query.objectId() != null) {
+            WorkItemPartition[] searched = partitionsFor(query);
+            RoaringBitmap[] candidates = candidates(searched, query, WorkItemMetrics.NONE);
+            return countMatches(searched, candidates, columns.filter(query), isParallel(candidates));
+        }
+        for (int attempt = 0; attempt < OPTIMISTIC_COUNT_ATTEMPTS; attempt++) {
+            long completedBefore = writesCompleted.get();
+            long startedBefore = writesStarted.get();
+            long count = facets.count(query);
+            if (completedBefore == startedBefore && writesStarted.get() == startedBefore) {
+                return count;
+            }
+            Thread.onSpinWait();
+        }
+        writeLock.lock();
+        try {
+            return facets.count(query);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Walks every matching item in sort order without collecting the matches, so memory use does not depend on how
+     * many items match. Items are read as the iterator advances; each is returned in the version current at that time.
+     */
+    Iterator<WorkItemDto> scan(WorkItemQuery query, WorkItemSort order) {
+        WorkItemPartition[] searched = partitionsFor(query);
+        RoaringBitmap[] candidates = candidates(searched, query, WorkItemMetrics.NONE);
+        WorkItemColumns.Filter filter = columns.filter(query);
+        List<Iterator<SortedIndex.Entry>> sources = new ArrayList<>(searched.length);
+        for (int partition = 0; partition < searched.length; partition++) {
+            sources.add(searched[partition].walk(candidates[partition], filter, columns, order, null).iterator());
+        }
+        Iterator<SortedIndex.Entry> ordered = merge(sources, order.order());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(ordered, Spliterator.ORDERED), false)
+                .map(entry -> materialize(entry, filter, order.field()))
+                .filter(Objects::nonNull)
+                .iterator();
+    }
+
+    /**
+     * Orders the matches by the number of fields containing the text, newest first within the same number. Only the
+     * positions are ranked; the returned list materializes an item when it is read.
+     */
+    List<WorkItemDto> rankByRelevance(WorkItemQuery query, WorkItemMetrics metrics) {
+        WorkItemPartition[] searched = partitionsFor(query);
+        RoaringBitmap[] candidates = candidates(searched, query, metrics);
+        WorkItemColumns.Filter filter = columns.filter(query);
+        long sortStart = System.nanoTime();
+        List<List<WorkItemPartition.RankedItem>> rankings = fanOut(searched.length, isParallel(candidates),
+                partition -> searched[partition].rank(candidates[partition], filter, columns, query.text()));
+        List<Iterator<WorkItemPartition.RankedItem>> sources = new ArrayList<>(rankings.size());
+        int matches = 0;
+        for (List<WorkItemPartition.RankedItem> ranking : rankings) {
+            sources.add(ranking.iterator());
+            matches += ranking.size();
+        }
+        int[] ranked = new int[matches];
+        Iterator<WorkItemPartition.RankedItem> merged = merge(sources, WorkItemPartition.RELEVANCE);
+        for (int position = 0; position < ranked.length; position++) {
+            ranked[position] = merged.next().ordinal();
+        }
+        metrics.sorted(sortStart);
+        metrics.matches(ranked.length);
+        return new AbstractList<>() {
+            @Override
+            public WorkItemDto get(int position) {
+                return WorkItemStore.this.get(ranked[position]);
+            }
+
+            @Override
+            public int size() {
+                return ranked.length;
+            }
+        };
+    }
+
+    /**
+     * A query for one domain object only needs the partition that object is assigned to.
+     */
+    private WorkItemPartition[] partitionsFor(WorkItemQuery query) {
+        return query.objectId() == null
+                ? partitions
+                : new WorkItemPartition[] { partitions[partitionIndex(query.objectId())] };
+    }
+
+    /**
+     * Intersects the postings of every searched partition. The candidates of each filter stage are recorded summed
+     * over the partitions, so the metrics do not depend on how many partitions there are.
+     */
+    private RoaringBitmap[] candidates(WorkItemPartition[] searched, WorkItemQuery query, WorkItemMetrics metrics) {
+        long[] stageSizes = new long[WorkItemMetrics.Stage.values().length];
+        Arrays.fill(stageSizes, -1);
+        RoaringBitmap[] candidates = new RoaringBitmap[searched.length];
+        for (int partition = 0; partition < searched.length; partition++) {
+            candidates[partition] = searched[partition].candidates(query, stageSizes);
+        }
+        for (WorkItemMetrics.Stage stage : WorkItemMetrics.Stage.values()) {
+            if (stageSizes[stage.ordinal()] >= 0) {
+                metrics.candidates(stage, stageSizes[stage.ordinal()]);
+            }
+        }
+        return candidates;
+    }
+
+    private long countMatches(WorkItemPartition[] searched, RoaringBitmap[] candidates, WorkItemColumns.Filter filter,
+            boolean parallel) {
+        return fanOut(searched.length, parallel,
+                partition -> WorkItemPartition.countMatches(candidates[partition], filter))
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    private boolean isParallel(RoaringBitmap[] candidates) {
+        if (candidates.length < 2 || partitioning.executor() == null || Context.isOnEventLoopThread()) {
+            return false;
+        }
+        long total = 0;
+        for (RoaringBitmap partitionCandidates : candidates) {
+            total += partitionCandidates.getLongCardinality();
+        }
+        return total >= partitioning.parallelThreshold();
+    }
+
+    /**
+     * Runs the work for every partition and returns the results in partition order. In parallel the calling thread
+     * works on the first partition while the executor takes the others.
+     */
+    private <T> List<T> fanOut(int count, boolean parallel, IntFunction<T> work) {
+        List<T> results = new ArrayList<>(count);
+        if (!parallel) {
+            for (int partition = 0; partition < count; partition++) {
+                results.add(work.apply(partition));
+            }
+            return results;
+        }
+        List<Future<T>> forked = new ArrayList<>(count - 1);
+        for (int partition = 1; partition < count; partition++) {
+            int forkedPartition = partition;
+            forked.add(partitioning.executor().submit(() -> work.apply(forkedPartition)));
+        }
+        results.add(work.apply(0));
+        for (Future<T> result : forked) {
+            results.add(join(result));
+        }
+        return results;
+    }
+
+    private static <T> T join(Future<T> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Merges iterators that are each in the given order into one iterator in that order.
+     */
+    private static <T> Iterator<T> merge(List<Iterator<T>> sources, Comparator<? super T> order) {
+        if (sources.size() == 1) {
+            return sources.get(0);
+        }
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Math.max(sources.size(), 1),
+                (a, b) -> order.compare(a.value(), b.value()));
+        for (Iterator<T> source : sources) {
+            if (source.hasNext()) {
+                heads.add(new Head<>(source.next(), source));
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                Head<T> head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                if (head.source().hasNext()) {
+                    heads.add(new Head<>(head.source().next(), head.source()));
+                }
+                return head.value();
+            }
+        };
+    }
+
+    private int partitionIndex(String objectId) {
+        return Math.floorMod(WorkItemIndex.objectIdKey(objectId).hashCode(), partitioning.partitions());
+    }
+
+    /**
+     * Finds the partition covering a position: the last non-empty one starting at or before it.
+     */
+    private int partitionOf(int ordinal) {
+        int partition = partitions.length - 1;
+        while (partitions[partition].from() > ordinal || partitions[partition].size() == 0) {
+            partition--;
+        }
+        return partition;
+    }
+
+    /**
+     * Materializes the item of an ordered entry, or returns {@code null} if the item changed since it was ordered so
+     * that it no longer matches or no longer sorts at this position.
+     */
+    private WorkItemDto materialize(SortedIndex.Entry entry, WorkItemColumns.Filter filter, SortField field) {
+        WorkItemDto item = get(entry.ordinal());
+        return filter.test(item) && field.key(item) == entry.key() ? item : null;
+    }
+
+    private static WorkItemDto copyOf(WorkItemDto item) {
+        WorkItemDto copy = new WorkItemDto(item.id, item.objectType, item.objectId, item.objectLabel, item.customerName,
+                item.contractNo, item.claimNo, item.title, item.description, item.status, item.priority,
+                item.receivedAt, item.dueAt, item.assignedTo, item.team);
+        copy.version = item.version;
+        return copy;
+    }
+
+    /**
+     * How the indexes are split and searched: the number of partitions, the number of candidates from which a search
+     * works on the partitions in parallel, and the executor doing so ({@code null} to always stay on the calling
+     * thread).
+     */
+    record Partitioning(int partitions, long parallelThreshold, ExecutorService executor) {
+
+        static final long DEFAULT_PARALLEL_THRESHOLD = 20_000;
+
+        Partitioning {
+            if (partitions < 1 || parallelThreshold < 0) {
+                throw new IllegalArgumentException("Invalid partitioning");
+            }
+        }
+
+        /**
+         * One partition per processor, searched on the common pool.
+         */
+        static Partitioning perProcessor() {
+            return new Partitioning(Runtime.getRuntime().availableProcessors(), DEFAULT_PARALLEL_THRESHOLD,
+                    ForkJoinPool.commonPool());
+        }
+    }
+
+    record Draft(int ordinal, WorkItemDto item) {
+    }
+
+    record SearchPage(List<WorkItemDto> items, long total, SortedIndex.Entry last, boolean hasMore) {
+    }
+
+    private record Head<T>(T value, Iterator<T> source) {
+    }
+}
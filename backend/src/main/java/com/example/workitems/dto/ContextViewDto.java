@@ -6,6 +6,9 @@ import com.example.workitems.model.DomainObjectType;
 
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
 @Schema
 public class ContextViewDto {
     public DomainObjectType objectType;
@@ -15,6 +18,13 @@ public class ContextViewDto {
     public List<WorkItemDto> tasks;
     public List<DocumentDto> documents;
     public List<ProtocolEntryDto> protocolEntries;
+    @Schema(description = "Whether older protocol entries exist than the ones returned")
+    public boolean moreProtocolEntries;
+    @Schema(description = "Changes whenever tasks, documents or protocol of the object change; also sent as ETag")
+    public String version;
+    @Schema(description = "Contexts of the related contracts and claims when requested with includeRelated, "
+            + "level by level; each carries its own protocol page")
+    public List<ContextViewDto> related;
 
     public ContextViewDto() {
     }
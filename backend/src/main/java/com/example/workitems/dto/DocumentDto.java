@@ -5,6 +5,9 @@ import java.util.List;
 
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
 @Schema
 public class DocumentDto {
     public String id;
@@ -14,6 +17,8 @@ public class DocumentDto {
     public List<String> indexKeywords;
     public OffsetDateTime uploadedAt;
     public String uploadedBy;
+    @Schema(description = "SHA-256 of the stored content; absent when only metadata was recorded")
+    public String contentHash;
 
     public DocumentDto() {
     }
@@ -0,0 +1,29 @@
+package com.example.workitems.dto;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import com.example.workitems.model.DomainObjectType;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+@Schema
+public class DocumentHitDto {
+    @Schema(required = true)
+    public DomainObjectType objectType;
+
+    @Schema(required = true)
+    public String objectId;
+
+    @Schema(required = true)
+    public DocumentDto document;
+
+    public DocumentHitDto() {
+    }
+
+    public DocumentHitDto(DomainObjectType objectType, String objectId, DocumentDto document) {
+        this.objectType = objectType;
+        this.objectId = objectId;
+        this.document = document;
+    }
+}
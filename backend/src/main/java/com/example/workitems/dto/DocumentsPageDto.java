@@ -0,0 +1,25 @@
+package com.example.workitems.dto;
+
+import java.util.List;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+@Schema
+public class DocumentsPageDto {
+    @Schema(required = true)
+    public List<DocumentHitDto> items;
+
+    @Schema(description = "Opaque cursor for the next page; absent on the last page")
+    public String nextCursor;
+
+    public DocumentsPageDto() {
+    }
+
+    public DocumentsPageDto(List<DocumentHitDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+}
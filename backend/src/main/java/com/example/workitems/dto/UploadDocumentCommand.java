@@ -4,11 +4,13 @@ import java.util.List;
 
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
 @Schema
 public class UploadDocumentCommand {
     public String fileName;
     public String mimeType;
-    public long sizeInBytes;
     public List<String> indexKeywords;
     public String uploadedBy;
 }
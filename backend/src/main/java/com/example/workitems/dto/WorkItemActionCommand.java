@@ -6,6 +6,9 @@ import com.example.workitems.model.WorkItemActionType;
 
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
 @Schema
 public class WorkItemActionCommand {
     public WorkItemActionType action;
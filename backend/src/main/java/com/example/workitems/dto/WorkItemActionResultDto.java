@@ -0,0 +1,28 @@
+package com.example.workitems.dto;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+@Schema
+public class WorkItemActionResultDto {
+    @Schema(required = true)
+    public String id;
+
+    @Schema(required = true)
+    public boolean success;
+
+    @Schema(required = true, description = "HTTP status the single action would have produced")
+    public int status;
+
+    public String error;
+    public WorkItemDto item;
+
+    public WorkItemActionResultDto() {
+    }
+
+    public WorkItemActionResultDto(String id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.workitems.dto;
+
+import java.util.List;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+@Schema
+public class WorkItemBatchActionCommand {
+    public List<WorkItemBatchActionItem> actions;
+
+    @Schema(description = "true: apply all actions or none; false: apply every action that succeeds")
+    public boolean atomic;
+}
@@ -0,0 +1,15 @@
+package com.example.workitems.dto;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+@Schema
+public class WorkItemBatchActionItem {
+    public String id;
+    public WorkItemActionCommand command;
+
+    @Schema(description = "Optional item version the action is based on (same as the ETag)")
+    public Long expectedVersion;
+}
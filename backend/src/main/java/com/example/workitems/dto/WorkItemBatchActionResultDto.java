@@ -0,0 +1,29 @@
+package com.example.workitems.dto;
+
+import java.util.List;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+@Schema
+public class WorkItemBatchActionResultDto {
+    @Schema(required = true)
+    public List<WorkItemActionResultDto> results;
+
+    @Schema(required = true)
+    public int succeeded;
+
+    @Schema(required = true)
+    public int failed;
+
+    public WorkItemBatchActionResultDto() {
+    }
+
+    public WorkItemBatchActionResultDto(List<WorkItemActionResultDto> results) {
+        this.results = results;
+        this.succeeded = (int) results.stream().filter(result -> result.success).count();
+        this.failed = results.size() - succeeded;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.workitems.dto;
+
+import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemChangeType;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+@Schema
+public class WorkItemChangeDto {
+    @Schema(required = true, description = "Position in the change feed; increases with every change")
+    public long sequence;
+
+    @Schema(required = true, description = "RESYNC: changes were missed, reload everything shown")
+    public WorkItemChangeType type;
+
+    public DomainObjectType objectType;
+    public String objectId;
+    public WorkItemDto item;
+    public DocumentDto document;
+    public ProtocolEntryDto protocolEntry;
+
+    public WorkItemChangeDto() {
+    }
+
+    public WorkItemChangeDto(WorkItemChangeType type, DomainObjectType objectType, String objectId) {
+        this.type = type;
+        this.objectType = objectType;
+        this.objectId = objectId;
+    }
+}
@@ -4,6 +4,9 @@ import com.example.workitems.model.DomainObjectType;
 
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
 @Schema
 public class WorkItemContextDto {
     public DomainObjectType objectType;
@@ -7,6 +7,9 @@ import com.example.workitems.model.WorkItemStatus;
 
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
 @Schema
 public class WorkItemDto {
     public String id;
@@ -24,6 +27,8 @@ public class WorkItemDto {
     public OffsetDateTime dueAt;
     public String assignedTo;
     public String team;
+    @Schema(description = "Incremented on every change; also sent as ETag")
+    public long version;
 
     public WorkItemDto() {
     }
@@ -0,0 +1,34 @@
+package com.example.workitems.dto;
+
+import java.util.Map;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import com.example.workitems.model.BasketScope;
+import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemStatus;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+@Schema
+public class WorkItemFacetsDto {
+    @Schema(required = true, description = "Number of matching items per basket")
+    public Map<BasketScope, Long> baskets;
+
+    @Schema(required = true, description = "Number of matching items per status in the selected basket")
+    public Map<WorkItemStatus, Long> statuses;
+
+    @Schema(required = true, description = "Number of matching items per object type in the selected basket")
+    public Map<DomainObjectType, Long> objectTypes;
+
+    public WorkItemFacetsDto() {
+    }
+
+    public WorkItemFacetsDto(Map<BasketScope, Long> baskets, Map<WorkItemStatus, Long> statuses,
+            Map<DomainObjectType, Long> objectTypes) {
+        this.baskets = baskets;
+        this.statuses = statuses;
+        this.objectTypes = objectTypes;
+    }
+}
@@ -4,14 +4,20 @@ import java.util.List;
 
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
 @Schema
 public class WorkItemsPageDto {
     @Schema(required = true)
     public List<WorkItemDto> items;
 
-    @Schema(required = true)
+    @Schema(required = true, description = "Number of matching items, or -1 when includeTotal=false")
     public long total;
 
+    @Schema(description = "Opaque cursor for the next page; absent on the last page")
+    public String nextCursor;
+
     public WorkItemsPageDto() {
     }
 
@@ -19,4 +25,9 @@ public class WorkItemsPageDto {
         this.items = items;
         this.total = total;
     }
+
+    public WorkItemsPageDto(List<WorkItemDto> items, long total, String nextCursor) {
+        this(items, total);
+        this.nextCursor = nextCursor;
+    }
 }
@@ -0,0 +1,8 @@
+package com.example.workitems.model;
+
+public enum WorkItemChangeType {
+    ITEM_CHANGED,
+    DOCUMENT_ADDED,
+    PROTOCOL_APPENDED,
+    RESYNC
+}
@@ -0,0 +1,50 @@
+package com.example.workitems.api;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+/**
+ * Reads in {@code event-loop} mode, with the four partitions and the parallel threshold of 0 of the test profile.
+ */
+@QuarkusTest
+@TestProfile(EventLoopExecutionTest.EventLoop.class)
+class EventLoopExecutionTest {
+
+    @Test
+    void shouldSearchAllPartitionsOnTheIoThread() {
+        given().queryParam("basket", "TEAM")
+                .queryParam("sort", "dueAt,desc")
+                .when().get("/api/work-items")
+                .then().statusCode(200)
+                .body("items.id", contains("WI-3006", "WI-3002", "WI-3001", "WI-3003"))
+                .body("total", equalTo(4));
+    }
+
+    @Test
+    void shouldExportFromTheWorkerPool() {
+        String body = given().queryParam("basket", "TEAM")
+                .when().get("/api/work-items/export/csv")
+                .then().statusCode(200)
+                .extract().asString();
+
+        assertEquals(5, body.split("\r\n").length);
+    }
+
+    public static class EventLoop implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("workitems.execution.mode", "event-loop");
+        }
+    }
+}
@@ -1,9 +1,20 @@
 package com.example.workitems.api;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,8 +22,11 @@ import org.junit.jupiter.api.Test;
 import jakarta.inject.Inject;
 
 import com.example.workitems.application.WorkItemService;
+import com.example.workitems.model.BasketScope;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.specification.RequestSpecification;
 
 @QuarkusTest
 class WorkItemResourceTest {
@@ -20,6 +34,9 @@ class WorkItemResourceTest {
     @Inject
     WorkItemService workItemService;
 
+    @Inject
+    ObjectMapper objectMapper;
+
     @BeforeEach
     void resetResourceState() {
         workItemService.resetState();
@@ -43,6 +60,102 @@ class WorkItemResourceTest {
                 .body("total", greaterThan(0));
     }
 
+    @Test
+    void shouldSearchCaseInsensitiveSubstrings() {
+        given().queryParam("basket", "TEAM")
+                .queryParam("q", "MANDAT")
+                .when().get("/api/work-items")
+                .then().statusCode(200)
+                .body("items.id", contains("WI-3006"));
+    }
+
+    @Test
+    void shouldRankSearchResultsByMatchedFields() {
+        given().queryParam("basket", "TEAM")
+                .queryParam("q", "ag")
+                .queryParam("sort", "relevance")
+                .when().get("/api/work-items")
+                .then().statusCode(200)
+                .body("items.id", contains("WI-3002", "WI-3006", "WI-3003"));
+    }
+
+    @Test
+    void shouldSortBySortField() {
+        given().queryParam("basket", "TEAM")
+                .queryParam("sort", "dueAt,desc")
+                .when().get("/api/work-items")
+                .then().statusCode(200)
+                .body("items.id", contains("WI-3006", "WI-3002", "WI-3001", "WI-3003"));
+    }
+
+    @Test
+    void shouldPageWithCursor() {
+        String cursor = given().queryParam("basket", "TEAM")
+                .queryParam("sort", "priority,asc")
+                .queryParam("size", 2)
+                .when().get("/api/work-items")
+                .then().statusCode(200)
+                .body("items.id", contains("WI-3001", "WI-3003"))
+                .body("total", equalTo(4))
+                .extract().path("nextCursor");
+
+        given().queryParam("basket", "TEAM")
+                .queryParam("sort", "priority,asc")
+                .queryParam("size", 2)
+                .queryParam("cursor", cursor)
+                .queryParam("includeTotal", false)
+                .when().get("/api/work-items")
+                .then().statusCode(200)
+                .body("items.id", contains("WI-3002", "WI-3006"))
+                .body("total", equalTo(-1))
+                .body("nextCursor", nullValue());
+    }
+
+    @Test
+    void shouldRejectCursorOfOtherSort() {
+        String cursor = given().queryParam("basket", "TEAM")
+                .queryParam("size", 1)
+                .when().get("/api/work-items")
+                .then().statusCode(200)
+                .extract().path("nextCursor");
+
+        given().queryParam("basket", "TEAM")
+                .queryParam("sort", "dueAt,asc")
+                .queryParam("cursor", cursor)
+                .when().get("/api/work-items")
+                .then().statusCode(400);
+    }
+
+    @Test
+    void shouldExportBasketAsNdjson() {
+        String body = given().queryParam("basket", "TEAM")
+                .queryParam("sort", "priority,asc")
+                .when().get("/api/work-items/export")
+                .then().statusCode(200)
+                .contentType(containsString("application/x-ndjson"))
+                .extract().asString();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":\"WI-3001\""), lines[0]);
+        assertTrue(lines[3].startsWith("{\"id\":\"WI-3006\""), lines[3]);
+    }
+
+    @Test
+    void shouldExportBasketAsCsv() {
+        String body = given().queryParam("basket", "MY")
+                .queryParam("sort", "priority,asc")
+                .when().get("/api/work-items/export/csv")
+                .then().statusCode(200)
+                .contentType(containsString("text/csv"))
+                .extract().asString();
+
+        String[] lines = body.split("\r\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,objectType,objectId"), lines[0]);
+        assertTrue(lines[1].startsWith("WI-3001,CUSTOMER,K-1001"), lines[1]);
+    }
+
     @Test
     void shouldGetContextForDomainObject() {
         given().queryParam("objectType", "CLAIM")
@@ -53,6 +166,97 @@ class WorkItemResourceTest {
                 .body("documents", hasSize(2));
     }
 
+    @Test
+    void shouldReturnOnlySelectedFields() {
+        given().queryParam("basket", "TEAM")
+                .queryParam("fields", "id,title,status")
+                .when().get("/api/work-items")
+                .then().statusCode(200)
+                .body("items[0].keySet()", containsInAnyOrder("id", "title", "status"))
+                .body("total", greaterThan(0));
+        given().queryParam("fields", "id,version")
+                .when().get("/api/work-items/WI-3006")
+                .then().statusCode(200)
+                .body("keySet()", containsInAnyOrder("id", "version"));
+        given().queryParam("objectType", "CLAIM")
+                .queryParam("objectId", "S-2001")
+                .queryParam("fields", "objectId,tasks.id,tasks.status,documents.fileName")
+                .when().get("/api/work-items/context")
+                .then().statusCode(200)
+                .body("keySet()", containsInAnyOrder("objectId", "tasks", "documents"))
+                .body("tasks[0].keySet()", containsInAnyOrder("id", "status"))
+                .body("documents.fileName", hasSize(2))
+                .body("documents[0].keySet()", contains("fileName"));
+    }
+
+    @Test
+    void shouldRejectUnknownFields() {
+        given().queryParam("basket", "TEAM")
+                .queryParam("fields", "id,colour")
+                .when().get("/api/work-items")
+                .then().statusCode(400);
+        given().queryParam("objectType", "CLAIM")
+                .queryParam("objectId", "S-2001")
+                .queryParam("fields", "tasks.colour")
+                .when().get("/api/work-items/context")
+                .then().statusCode(400);
+    }
+
+    @Test
+    void shouldAnswerUnchangedContextWithNotModified() {
+        String etag = given().queryParam("objectType", "CLAIM")
+                .queryParam("objectId", "S-2001")
+                .when().get("/api/work-items/context")
+                .then().statusCode(200)
+                .extract().header("ETag");
+
+        given().queryParam("objectType", "CLAIM")
+                .queryParam("objectId", "s-2001")
+                .header("If-None-Match", etag)
+                .when().get("/api/work-items/context")
+                .then().statusCode(304)
+                .header("ETag", equalTo(etag));
+
+        given()
+                .contentType("application/json")
+                .body("""
+                        {
+                          "action": "START"
+                        }
+                        """)
+                .when().post("/api/work-items/WI-3003/actions")
+                .then().statusCode(200);
+
+        given().queryParam("objectType", "CLAIM")
+                .queryParam("objectId", "S-2001")
+                .header("If-None-Match", etag)
+                .when().get("/api/work-items/context")
+                .then().statusCode(200)
+                .header("ETag", not(equalTo(etag)))
+                .body("tasks[0].status", equalTo("IN_PROGRESS"))
+                .body("protocolEntries", hasSize(3));
+    }
+
+    @Test
+    void shouldPageProtocolBackwards() {
+        given().queryParam("objectType", "CLAIM")
+                .queryParam("objectId", "S-2001")
+                .queryParam("protocolLimit", 1)
+                .when().get("/api/work-items/context")
+                .then().statusCode(200)
+                .body("protocolEntries.id", contains("LOG-2002"))
+                .body("moreProtocolEntries", equalTo(true));
+
+        given().queryParam("objectType", "CLAIM")
+                .queryParam("objectId", "S-2001")
+                .queryParam("protocolLimit", 1)
+                .queryParam("protocolBefore", "2024-06-02T09:00:00Z")
+                .when().get("/api/work-items/context")
+                .then().statusCode(200)
+                .body("protocolEntries.id", contains("LOG-2001"))
+                .body("moreProtocolEntries", equalTo(false));
+    }
+
     @Test
     void shouldUploadIndexedDocument() {
         given()
@@ -68,7 +272,197 @@ class WorkItemResourceTest {
                         """)
                 .when().post("/api/work-items/context/CLAIM/S-2001/documents")
                 .then().statusCode(200)
-                .body("fileName", equalTo("Pruefbericht.pdf"));
+                .body("fileName", equalTo("Pruefbericht.pdf"))
+                .body("sizeInBytes", equalTo(0))
+                .body("contentHash", nullValue());
+    }
+
+    @Test
+    void shouldFindDocumentsAcrossObjectsByKeywordPrefix() {
+        given().queryParam("keyword", "kalk")
+                .when().get("/api/work-items/documents/search")
+                .then().statusCode(200)
+                .body("items.document.id", contains("DOC-1001"))
+                .body("items[0].objectType", equalTo("CLAIM"))
+                .body("items[0].objectId", equalTo("S-2001"))
+                .body("nextCursor", nullValue());
+
+        String uploaded = given()
+                .contentType("application/json")
+                .body("""
+                        {
+                          "fileName": "Nachkalkulation_V-2001.xlsx",
+                          "mimeType": "application/vnd.ms-excel",
+                          "indexKeywords": ["Beitrag"]
+                        }
+                        """)
+                .when().post("/api/work-items/context/CONTRACT/V-2001/documents")
+                .then().statusCode(200)
+                .extract().path("id");
+        given().queryParam("keyword", "kalk")
+                .when().get("/api/work-items/documents/search")
+                .then().statusCode(200)
+                .body("items.document.id", contains("DOC-1001"));
+
+        given().queryParam("keyword", "nachkalk xlsx")
+                .when().get("/api/work-items/documents/search")
+                .then().statusCode(200)
+                .body("items.document.id", contains(uploaded))
+                .body("items[0].objectType", equalTo("CONTRACT"));
+
+        String cursor = given().queryParam("size", 2)
+                .when().get("/api/work-items/documents/search")
+                .then().statusCode(200)
+                .body("items.document.id", contains(uploaded, "DOC-1003"))
+                .extract().path("nextCursor");
+        given().queryParam("size", 2)
+                .queryParam("cursor", cursor)
+                .when().get("/api/work-items/documents/search")
+                .then().statusCode(200)
+                .body("items.document.id", contains("DOC-1002", "DOC-1001"))
+                .body("nextCursor", nullValue());
+
+        given().queryParam("mimeType", "IMAGE/JPEG")
+                .queryParam("uploadedAfter", "2024-06-01T11:31:00Z")
+                .when().get("/api/work-items/documents/search")
+                .then().statusCode(200)
+                .body("items.document.id", contains("DOC-1002"));
+        given().queryParam("cursor", "bm9wZQ")
+                .when().get("/api/work-items/documents/search")
+                .then().statusCode(400);
+    }
+
+    @Test
+    void shouldIncludeRelatedContractsAndClaimsOfCustomer() {
+        given().queryParam("objectType", "CUSTOMER")
+                .queryParam("objectId", "K-1001")
+                .when().get("/api/work-items/context")
+                .then().statusCode(200)
+                .body("related", nullValue());
+
+        given().queryParam("objectType", "CUSTOMER")
+                .queryParam("objectId", "K-1001")
+                .queryParam("includeRelated", 1)
+                .when().get("/api/work-items/context")
+                .then().statusCode(200)
+                .body("related.objectId", contains("V-1001"));
+
+        String etag = given().queryParam("objectType", "CUSTOMER")
+                .queryParam("objectId", "K-1001")
+                .queryParam("includeRelated", 2)
+                .when().get("/api/work-items/context")
+                .then().statusCode(200)
+                .body("tasks.id", contains("WI-3001"))
+                .body("related.objectType", contains("CONTRACT", "CLAIM"))
+                .body("related.objectId", contains("V-1001", "S-2001"))
+                .body("related[0].tasks.id", contains("WI-3002"))
+                .body("related[0].documents.id", contains("DOC-1003"))
+                .body("related[1].documents.id", containsInAnyOrder("DOC-1001", "DOC-1002"))
+                .body("related[1].protocolEntries", not(hasSize(0)))
+                .extract().header("ETag");
+
+        // S-2002 is referenced by tasks of the customer and the contract, but has no tasks and so no context itself
+        given().queryParam("objectType", "CUSTOMER")
+                .queryParam("objectId", "K-2002")
+                .queryParam("includeRelated", 2)
+                .when().get("/api/work-items/context")
+                .then().statusCode(200)
+                .body("related.objectId", contains("V-2001", "S-2003"));
+
+        given()
+                .contentType("application/json")
+                .body("""
+                        {
+                          "action": "START"
+                        }
+                        """)
+                .when().post("/api/work-items/WI-3003/actions")
+                .then().statusCode(200);
+        given().queryParam("objectType", "CUSTOMER")
+                .queryParam("objectId", "K-1001")
+                .queryParam("includeRelated", 2)
+                .header("If-None-Match", etag)
+                .when().get("/api/work-items/context")
+                .then().statusCode(200)
+                .header("ETag", not(equalTo(etag)))
+                .body("related[1].tasks[0].status", equalTo("IN_PROGRESS"));
+    }
+
+    @Test
+    void shouldStoreUploadedContentOnceAndServeRanges() {
+        byte[] photo = "Frontschaden links, Stossfaenger gerissen".getBytes(StandardCharsets.UTF_8);
+
+        String documentId = given()
+                .contentType("image/jpeg")
+                .queryParam("fileName", "Schadenfoto_02.jpg")
+                .queryParam("indexKeywords", "Foto")
+                .body(photo)
+                .when().post("/api/work-items/context/CLAIM/S-2001/documents")
+                .then().statusCode(200)
+                .body("sizeInBytes", equalTo(photo.length))
+                .body("mimeType", startsWith("image/jpeg"))
+                .extract().path("id");
+        String hash = given()
+                .multiPart("file", "Schadenfoto_02_kopie.jpg", photo, "image/jpeg")
+                .multiPart("indexKeywords", "Foto")
+                .when().post("/api/work-items/context/CLAIM/S-2001/documents")
+                .then().statusCode(200)
+                .body("fileName", equalTo("Schadenfoto_02_kopie.jpg"))
+                .body("sizeInBytes", equalTo(photo.length))
+                .extract().path("contentHash");
+
+        given()
+                .when().get("/api/work-items/context/CLAIM/S-2001/documents/{id}/content", documentId)
+                .then().statusCode(200)
+                .header("ETag", equalTo("\"" + hash + "\""))
+                .header("Accept-Ranges", equalTo("bytes"))
+                .body(equalTo(new String(photo, StandardCharsets.UTF_8)));
+        given()
+                .header("Range", "bytes=0-10")
+                .when().get("/api/work-items/context/CLAIM/S-2001/documents/{id}/content", documentId)
+                .then().statusCode(206)
+                .header("Content-Range", equalTo("bytes 0-10/" + photo.length))
+                .body(equalTo("Frontschade"));
+        given()
+                .header("Range", "bytes=0-10")
+                .header("If-Range", "\"" + hash + "\"")
+                .when().get("/api/work-items/context/CLAIM/S-2001/documents/{id}/content", documentId)
+                .then().statusCode(206);
+        given()
+                .header("Range", "bytes=0-10")
+                .header("If-Range", "W/\"" + hash + "\"")
+                .when().get("/api/work-items/context/CLAIM/S-2001/documents/{id}/content", documentId)
+                .then().statusCode(200)
+                .body(equalTo(new String(photo, StandardCharsets.UTF_8)));
+        given()
+                .header("Range", "bytes=" + photo.length + "-")
+                .when().get("/api/work-items/context/CLAIM/S-2001/documents/{id}/content", documentId)
+                .then().statusCode(416);
+    }
+
+    @Test
+    void shouldAcceptLargeBodiesOnlyAsDocumentContent() {
+        byte[] scan = new byte[11 * 1024 * 1024];
+
+        given()
+                .contentType("application/pdf")
+                .queryParam("fileName", "Gutachten_Scan.pdf")
+                .body(scan)
+                .when().post("/api/work-items/context/CLAIM/S-2001/documents")
+                .then().statusCode(200)
+                .body("sizeInBytes", equalTo(scan.length));
+        given()
+                .contentType("application/json")
+                .header("Expect", "100-continue")
+                .body(scan)
+                .when().post("/api/work-items/context/CLAIM/S-2001/documents")
+                .then().statusCode(413);
+        given().urlEncodingEnabled(false)
+                .contentType("application/json")
+                .header("Expect", "100-continue")
+                .body(scan)
+                .when().post("/api/work-items/actions:batch")
+                .then().statusCode(413);
     }
 
     @Test
@@ -87,4 +481,236 @@ class WorkItemResourceTest {
                 .body("assignedTo", equalTo("Eva"))
                 .body("status", equalTo("OPEN"));
     }
+
+    @Test
+    void shouldFetchWorkItemsInBatch() {
+        given().queryParam("ids", "WI-3004,WI-3001")
+                .queryParam("ids", "WI-9999")
+                .when().get("/api/work-items/batch")
+                .then().statusCode(200)
+                .body("id", contains("WI-3004", "WI-3001"));
+    }
+
+    @Test
+    void shouldApplyBatchActionsBestEffort() {
+        // the colon of actions:batch goes on the wire as is, like browsers send it
+        given().urlEncodingEnabled(false)
+                .contentType("application/json")
+                .body("""
+                        {
+                          "actions": [
+                            { "id": "WI-3001", "command": { "action": "FORWARD", "assignee": "Bob" } },
+                            { "id": "WI-9999", "command": { "action": "START" } },
+                            { "id": "WI-3003", "command": { "action": "COMPLETE", "comment": "Sammelabschluss" } }
+                          ]
+                        }
+                        """)
+                .when().post("/api/work-items/actions:batch")
+                .then().statusCode(200)
+                .body("succeeded", equalTo(2))
+                .body("failed", equalTo(1))
+                .body("results.status", contains(200, 404, 200))
+                .body("results[2].item.status", equalTo("DONE"));
+
+        given().queryParam("objectType", "CLAIM")
+                .queryParam("objectId", "S-2001")
+                .when().get("/api/work-items/context")
+                .then().statusCode(200)
+                .body("protocolEntries[0].message", containsString("Sammelabschluss"));
+    }
+
+    @Test
+    void shouldRejectWholeAtomicBatch() {
+        given().urlEncodingEnabled(false)
+                .contentType("application/json")
+                .body("""
+                        {
+                          "atomic": true,
+                          "actions": [
+                            { "id": "WI-3001", "command": { "action": "COMPLETE" } },
+                            { "id": "WI-3003", "command": { "action": "FORWARD" } }
+                          ]
+                        }
+                        """)
+                .when().post("/api/work-items/actions:batch")
+                .then().statusCode(200)
+                .body("succeeded", equalTo(0))
+                .body("results.status", contains(409, 404));
+
+        given()
+                .when().get("/api/work-items/WI-3001")
+                .then().statusCode(200)
+                .body("status", equalTo("OPEN"));
+    }
+
+    @Test
+    void shouldRejectActionOnStaleVersion() {
+        String etag = given()
+                .when().get("/api/work-items/WI-3001")
+                .then().statusCode(200)
+                .extract().header("ETag");
+
+        String nextEtag = given()
+                .contentType("application/json")
+                .header("If-Match", etag)
+                .body("""
+                        {
+                          "action": "START"
+                        }
+                        """)
+                .when().post("/api/work-items/WI-3001/actions")
+                .then().statusCode(200)
+                .extract().header("ETag");
+
+        given()
+                .contentType("application/json")
+                .header("If-Match", etag)
+                .body("""
+                        {
+                          "action": "COMPLETE"
+                        }
+                        """)
+                .when().post("/api/work-items/WI-3001/actions")
+                .then().statusCode(412);
+
+        given()
+                .when().get("/api/work-items/WI-3001")
+                .then().statusCode(200)
+                .header("ETag", equalTo(nextEtag))
+                .body("status", equalTo("IN_PROGRESS"));
+    }
+
+    @Test
+    void shouldMoveForwardedTaskBetweenBaskets() {
+        given()
+                .contentType("application/json")
+                .body("""
+                        {
+                          "action": "FORWARD",
+                          "assignee": "Eva"
+                        }
+                        """)
+                .when().post("/api/work-items/WI-3003/actions")
+                .then().statusCode(200);
+
+        given().queryParam("basket", "MY")
+                .when().get("/api/work-items")
+                .then().statusCode(200)
+                .body("total", equalTo(1));
+
+        given().queryParam("basket", "COLLEAGUE")
+                .queryParam("colleague", "eva")
+                .queryParam("status", "OPEN")
+                .when().get("/api/work-items")
+                .then().statusCode(200)
+                .body("items.id", hasItem("WI-3003"))
+                .body("total", equalTo(1));
+    }
+
+    @Test
+    void shouldCountFacetsLikeSearchTotals() {
+        given().contentType("application/json")
+                .body("""
+                        {
+                          "action": "FORWARD",
+                          "assignee": "Eva"
+                        }
+                        """)
+                .when().post("/api/work-items/WI-3003/actions")
+                .then().statusCode(200);
+
+        given().queryParam("colleague", "eva")
+                .when().get("/api/work-items/facets")
+                .then().statusCode(200)
+                .body("baskets.MY", equalTo(1))
+                .body("baskets.COLLEAGUE", equalTo(2))
+                .body("baskets.TEAM", equalTo(searchTotal("TEAM", "", null)));
+
+        for (String q : new String[] { "", "mandat" }) {
+            for (String status : new String[] { "OPEN", "IN_PROGRESS", "BLOCKED", "DONE" }) {
+                int expected = searchTotal("TEAM", q, status);
+                given().queryParam("basket", "TEAM")
+                        .queryParam("q", q)
+                        .when().get("/api/work-items/facets")
+                        .then().statusCode(200)
+                        .body("statuses." + status, equalTo(expected));
+            }
+        }
+    }
+
+    @Test
+    void shouldWritePagesFromCachedItemsLikeJackson() throws Exception {
+        String before = given().queryParam("basket", "TEAM")
+                .when().get("/api/work-items")
+                .then().statusCode(200)
+                .extract().asString();
+        assertEquals(objectMapper.writeValueAsString(
+                workItemService.searchWorkItems(0, 10, "receivedAt,desc", null, true, null, null, BasketScope.TEAM,
+                        null, null, null)), before);
+
+        given().contentType("application/json")
+                .body("""
+                        { "action": "START" }
+                        """)
+                .when().post("/api/work-items/WI-3006/actions")
+                .then().statusCode(200);
+
+        String after = given().queryParam("basket", "TEAM")
+                .when().get("/api/work-items")
+                .then().statusCode(200)
+                .body("items.find { it.id == 'WI-3006' }.status", equalTo("IN_PROGRESS"))
+                .extract().asString();
+        assertEquals(objectMapper.writeValueAsString(
+                workItemService.searchWorkItems(0, 10, "receivedAt,desc", null, true, null, null, BasketScope.TEAM,
+                        null, null, null)), after);
+    }
+
+    @Test
+    void shouldCompressResponsesWhenAccepted() {
+        for (String encoding : new String[] { "br", "gzip" }) {
+            given().queryParam("basket", "TEAM")
+                    .header("Accept-Encoding", encoding)
+                    .when().get("/api/work-items")
+                    .then().statusCode(200)
+                    .header("Content-Encoding", encoding);
+        }
+    }
+
+    @Test
+    void shouldExposeOperationAndSearchMetrics() {
+        given().queryParam("basket", "TEAM")
+                .queryParam("q", "mandat")
+                .when().get("/api/work-items")
+                .then().statusCode(200);
+        given().contentType("application/json")
+                .body("""
+                        { "action": "START" }
+                        """)
+                .when().post("/api/work-items/WI-3006/actions")
+                .then().statusCode(200);
+
+        given().when().get("/q/metrics")
+                .then().statusCode(200)
+                .body(containsString("workitems_operation_seconds_count{operation=\"searchWorkItems\"}"))
+                .body(containsString("workitems_operation_serialization_seconds_count{operation=\"searchWorkItems\"}"))
+                .body(containsString("workitems_operation_seconds_count{operation=\"performWorkItemAction\"}"))
+                .body(containsString("workitems_search_candidates_items_count{stage=\"team\"}"))
+                .body(containsString("workitems_search_candidates_items_count{stage=\"text\"}"))
+                .body(containsString("workitems_search_sort_seconds_count"))
+                .body(containsString("workitems_actions_total{action=\"start\"}"))
+                .body(containsString("workitems_store_items "));
+    }
+
+    private static int searchTotal(String basket, String q, String status) {
+        RequestSpecification request = given().queryParam("basket", basket)
+                .queryParam("q", q)
+                .queryParam("size", 1);
+        if (status != null) {
+            request.queryParam("status", status);
+        }
+        return request
+                .when().get("/api/work-items")
+                .then().statusCode(200)
+                .extract().path("total");
+    }
 }
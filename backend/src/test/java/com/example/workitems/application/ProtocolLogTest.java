@@ -0,0 +1,78 @@
+package com.example.workitems.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.workitems.dto.ProtocolEntryDto;
+
+class ProtocolLogTest {
+
+    private static final OffsetDateTime START = OffsetDateTime.of(2024, 6, 1, 8, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void shouldReadNewestFirstAcrossSegmentsAndDropBeyondRetention() {
+        ProtocolLog log = new ProtocolLog(4, 2).restart(Map.of());
+        for (int i = 0; i < 10; i++) {
+            log.append("CLAIM:S-1", List.of(entry(i, i)));
+        }
+
+        ProtocolLog.Page all = log.page("CLAIM:S-1", Integer.MAX_VALUE, null);
+        assertEquals(List.of("LOG-9", "LOG-8", "LOG-7", "LOG-6", "LOG-5", "LOG-4"), ids(all));
+        assertFalse(all.hasMore());
+
+        ProtocolLog.Page page = log.page("CLAIM:S-1", 2, START.plusMinutes(8));
+        assertEquals(List.of("LOG-7", "LOG-6"), ids(page));
+        assertTrue(page.hasMore());
+    }
+
+    @Test
+    void shouldNotSplitEntriesOfTheSameTimestamp() {
+        ProtocolLog log = new ProtocolLog(ProtocolLog.DEFAULT_SEGMENT_SIZE, 0).restart(Map.of());
+        log.append("CLAIM:S-1", List.of(entry(1, 1), entry(2, 2), entry(3, 2), entry(4, 3)));
+
+        ProtocolLog.Page first = log.page("CLAIM:S-1", 2, null);
+        assertEquals(List.of("LOG-4", "LOG-3", "LOG-2"), ids(first));
+        assertTrue(first.hasMore());
+
+        ProtocolLog.Page second = log.page("CLAIM:S-1", 2, START.plusMinutes(2));
+        assertEquals(List.of("LOG-1"), ids(second));
+        assertFalse(second.hasMore());
+    }
+
+    @Test
+    void shouldListProtocolsUpToTheirMarks() {
+        ProtocolLog log = new ProtocolLog(4, 2).restart(Map.of());
+        for (int i = 0; i < 6; i++) {
+            log.append("CLAIM:S-1", List.of(entry(i, i)));
+        }
+        log.append("CLAIM:S-2", List.of(entry(20, 1)));
+
+        ProtocolLog.Marks marks = log.mark();
+        for (int i = 6; i < 12; i++) {
+            log.append("CLAIM:S-1", List.of(entry(i, i)));
+        }
+        log.append("CLAIM:S-3", List.of(entry(30, 1)));
+
+        Map<String, List<ProtocolEntryDto>> lists = marks.lists();
+        assertEquals(List.of("CLAIM:S-1", "CLAIM:S-2"), lists.keySet().stream().sorted().toList());
+        assertEquals(List.of("LOG-5", "LOG-4", "LOG-3", "LOG-2", "LOG-1", "LOG-0"),
+                lists.get("CLAIM:S-1").stream().map(entry -> entry.id).toList());
+        assertEquals(List.of("LOG-20"), lists.get("CLAIM:S-2").stream().map(entry -> entry.id).toList());
+    }
+
+    private static ProtocolEntryDto entry(int id, int minute) {
+        return new ProtocolEntryDto("LOG-" + id, START.plusMinutes(minute), "Test", "Eintrag " + id);
+    }
+
+    private static List<String> ids(ProtocolLog.Page page) {
+        return page.entries().stream().map(entry -> entry.id).toList();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.workitems.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.workitems.application.RelationshipGraph.Node;
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemStatus;
+
+class RelationshipGraphTest {
+
+    private static final OffsetDateTime RECEIVED = OffsetDateTime.of(2024, 6, 3, 8, 30, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void relatesCustomerToContractsAndClaimsLevelByLevel() {
+        RelationshipGraph graph = new RelationshipGraph(List.of(
+                item("WI-1", DomainObjectType.CUSTOMER, "K-1", "Müller GmbH", "V-1", "S-1"),
+                item("WI-2", DomainObjectType.CONTRACT, "V-1", "Müller GmbH", "V-1", "S-2"),
+                item("WI-3", DomainObjectType.CONTRACT, "V-2", "Müller GmbH", "V-2", null),
+                item("WI-4", DomainObjectType.CLAIM, "S-3", "Schmidt AG", "V-3", "S-3")));
+
+        assertEquals(List.of(contract("V-1"), contract("V-2")), sorted(graph.related(DomainObjectType.CUSTOMER,
+                "k-1", 1)));
+        List<Node> twoLevels = graph.related(DomainObjectType.CUSTOMER, "K-1", 2);
+        assertEquals(List.of(contract("V-1"), contract("V-2")), sorted(twoLevels.subList(0, 2)));
+        assertEquals(List.of(claim("S-1"), claim("S-2")), sorted(twoLevels.subList(2, 4)));
+        assertEquals(List.of(claim("S-3")), graph.related(DomainObjectType.CONTRACT, "V-3", 5));
+        assertEquals(List.of(), graph.related(DomainObjectType.CLAIM, "S-3", 2));
+        assertEquals(List.of(), graph.related(DomainObjectType.CUSTOMER, "K-1", 0));
+    }
+
+    @Test
+    void movesLinksOfChangedItemsAndDropsLinksWithTheirLastItem() {
+        WorkItemDto first = item("WI-1", DomainObjectType.CONTRACT, "V-1", "Müller GmbH", "V-1", "S-1");
+        WorkItemDto second = item("WI-2", DomainObjectType.CLAIM, "S-1", "Müller GmbH", "V-1", "S-1");
+        RelationshipGraph graph = new RelationshipGraph(List.of(first, second));
+
+        WorkItemDto moved = item("WI-1", DomainObjectType.CONTRACT, "V-1", "Müller GmbH", "V-1", "S-9");
+        graph.itemChanged(first, moved);
+        assertEquals(List.of(claim("S-1"), claim("S-9")), sorted(graph.related(DomainObjectType.CONTRACT, "V-1",
+                1)));
+
+        graph.itemChanged(second, item("WI-2", DomainObjectType.CLAIM, "S-1", "Müller GmbH", "V-2", "S-1"));
+        assertEquals(List.of(claim("S-9")), graph.related(DomainObjectType.CONTRACT, "V-1", 1));
+        assertEquals(List.of(claim("S-1")), graph.related(DomainObjectType.CONTRACT, "V-2", 1));
+    }
+
+    /**
+     * The objects of one level come in no particular order.
+     */
+    private static List<Node> sorted(List<Node> nodes) {
+        return nodes.stream().sorted(Comparator.comparing(Node::key)).toList();
+    }
+
+    private static Node contract(String id) {
+        return new Node(DomainObjectType.CONTRACT, id);
+    }
+
+    private static Node claim(String id) {
+        return new Node(DomainObjectType.CLAIM, id);
+    }
+
+    private static WorkItemDto item(String id, DomainObjectType objectType, String objectId, String customerName,
+            String contractNo, String claimNo) {
+        return new WorkItemDto(id, objectType, objectId, "Objekt " + objectId, customerName, contractNo, claimNo,
+                "Aufgabe " + id, "Beschreibung " + id, WorkItemStatus.OPEN, 2, RECEIVED, RECEIVED.plusDays(7),
+                "Alice", "Leistung-Team Nord");
+    }
+}
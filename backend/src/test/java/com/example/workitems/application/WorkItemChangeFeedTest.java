@@ -0,0 +1,95 @@
+package com.example.workitems.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.workitems.dto.UploadDocumentCommand;
+import com.example.workitems.dto.WorkItemActionCommand;
+import com.example.workitems.dto.WorkItemChangeDto;
+import com.example.workitems.model.BasketScope;
+import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemActionType;
+import com.example.workitems.model.WorkItemChangeType;
+
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+
+class WorkItemChangeFeedTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final WorkItemService service = new WorkItemService();
+
+    @BeforeEach
+    void startFromSeedState() {
+        service.recover(WorkItemJournal.disabled());
+    }
+
+    @Test
+    void streamsChangesOfBasketIncludingItemsLeavingIt() {
+        AssertSubscriber<WorkItemChangeDto> myBasket = service
+                .streamWorkItemChanges(null, BasketScope.MY, null, null, null, null)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+        service.performWorkItemAction("WI-3006", command(WorkItemActionType.START));
+        service.performWorkItemAction("WI-3001", forward("Eva"));
+
+        List<WorkItemChangeDto> changes = myBasket.awaitItems(2, TIMEOUT).getItems();
+        assertEquals(WorkItemChangeType.ITEM_CHANGED, changes.get(0).type);
+        assertEquals("WI-3006", changes.get(0).item.id);
+        assertEquals("WI-3001", changes.get(1).item.id);
+        assertEquals("Eva", changes.get(1).item.assignedTo);
+        assertTrue(changes.get(0).sequence < changes.get(1).sequence);
+        myBasket.cancel();
+    }
+
+    @Test
+    void resumesAfterLastEventIdAndResyncsUnknownIds() {
+        AssertSubscriber<WorkItemChangeDto> claim = service
+                .streamWorkItemChanges(null, null, null, null, DomainObjectType.CLAIM, "s-2001")
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        service.performWorkItemAction("WI-3003", command(WorkItemActionType.START));
+        List<WorkItemChangeDto> first = claim.awaitItems(2, TIMEOUT).getItems();
+        assertEquals(WorkItemChangeType.PROTOCOL_APPENDED, first.get(1).type);
+        claim.cancel();
+
+        service.uploadDocument(DomainObjectType.CLAIM, "S-2001", upload("Gutachten.pdf"));
+        List<WorkItemChangeDto> resumed = service
+                .streamWorkItemChanges(service.changeEventId(first.get(1)), null, null, null, DomainObjectType.CLAIM,
+                        "S-2001")
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE))
+                .awaitItems(2, TIMEOUT).getItems();
+        assertEquals(WorkItemChangeType.DOCUMENT_ADDED, resumed.get(0).type);
+        assertEquals("Gutachten.pdf", resumed.get(0).document.fileName);
+        assertEquals(WorkItemChangeType.PROTOCOL_APPENDED, resumed.get(1).type);
+
+        WorkItemChangeDto resync = service
+                .streamWorkItemChanges("0-42", null, null, null, null, null)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE))
+                .awaitItems(1, TIMEOUT).getItems().get(0);
+        assertEquals(WorkItemChangeType.RESYNC, resync.type);
+    }
+
+    private static WorkItemActionCommand command(WorkItemActionType action) {
+        WorkItemActionCommand command = new WorkItemActionCommand();
+        command.action = action;
+        return command;
+    }
+
+    private static WorkItemActionCommand forward(String assignee) {
+        WorkItemActionCommand command = command(WorkItemActionType.FORWARD);
+        command.assignee = assignee;
+        return command;
+    }
+
+    private static UploadDocumentCommand upload(String fileName) {
+        UploadDocumentCommand command = new UploadDocumentCommand();
+        command.fileName = fileName;
+        return command;
+    }
+}
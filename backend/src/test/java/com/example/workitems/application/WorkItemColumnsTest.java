@@ -0,0 +1,101 @@
+package com.example.workitems.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemStatus;
+
+class WorkItemColumnsTest {
+
+    private static final OffsetDateTime RECEIVED = OffsetDateTime.of(2024, 6, 3, 8, 30, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void shouldMaterializeItemsAndShareRepeatedStrings() {
+        WorkItemColumns columns = new WorkItemColumns(List.of(
+                item("WI-1", new String("V-1"), "Alice", null),
+                item("WI-2", new String("V-1"), "Bob", RECEIVED.plusDays(3))));
+
+        WorkItemDto first = columns.item(columns.find("WI-1"));
+        WorkItemDto second = columns.item(columns.find("WI-2"));
+        assertEquals("WI-1", first.id);
+        assertEquals(DomainObjectType.CONTRACT, first.objectType);
+        assertEquals(WorkItemStatus.OPEN, first.status);
+        assertEquals(RECEIVED, first.receivedAt);
+        assertNull(first.dueAt);
+        assertEquals("Alice", first.assignedTo);
+        assertEquals(RECEIVED.plusDays(3), second.dueAt);
+        assertSame(first.objectId, second.objectId);
+        assertSame(first.team, second.team);
+        assertEquals(-1, columns.find("WI-3"));
+    }
+
+    @Test
+    void shouldFilterOnColumnsAndSeeWrittenVersion() {
+        WorkItemColumns columns = new WorkItemColumns(List.of(item("WI-1", "V-1", "Alice", null)));
+        WorkItemQuery alicesOpen = new WorkItemQuery(WorkItemStatus.OPEN, null, null, "Alice", false, null, "mandat");
+        assertTrue(columns.filter(alicesOpen).test(0));
+
+        WorkItemDto draft = columns.item(0);
+        draft.assignedTo = "Eva";
+        draft.version = 1;
+        columns.write(0, draft);
+
+        assertFalse(columns.filter(alicesOpen).test(0));
+        assertTrue(columns.filter(new WorkItemQuery(null, null, "v-1", "eva", true, null, null)).test(0));
+        assertEquals(1, columns.version(0));
+        assertEquals("Eva", columns.item(0).assignedTo);
+    }
+
+    @Test
+    void shouldReplaceFreelySetTitleAndAssignee() {
+        WorkItemColumns columns = new WorkItemColumns(List.of(item("WI-1", "V-1", "Alice", null)));
+        for (int round = 0; round < 3; round++) {
+            WorkItemDto draft = columns.item(0);
+            draft.title = "Rückfrage " + round;
+            draft.assignedTo = "kollege." + round;
+            draft.version = round + 1;
+            columns.write(0, draft);
+        }
+
+        WorkItemDto item = columns.item(0);
+        assertEquals("Rückfrage 2", item.title);
+        assertEquals("kollege.2", item.assignedTo);
+        assertTrue(columns.filter(new WorkItemQuery(null, null, null, "kollege.2", false, null, "frage 2")).test(0));
+        assertFalse(columns.filter(new WorkItemQuery(null, null, null, "kollege.1", false, null, null)).test(0));
+        assertFalse(columns.filter(new WorkItemQuery(null, null, null, null, false, null, "sepa")).test(0));
+    }
+
+    @Test
+    void shouldRejectUnstorableItemWithoutBlockingReaders() {
+        WorkItemColumns columns = new WorkItemColumns(List.of(item("WI-1", "V-1", "Alice", null)));
+        WorkItemDto draft = columns.item(0);
+        draft.priority = 1_000;
+        draft.version = 1;
+
+        assertThrows(IllegalArgumentException.class, () -> columns.write(0, draft));
+
+        // a reader would spin forever on a stamp left odd
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertEquals(2, columns.item(0).priority));
+        assertEquals(0, columns.version(0));
+    }
+
+    private static WorkItemDto item(String id, String contractNo, String assignee, OffsetDateTime dueAt) {
+        return new WorkItemDto(id, DomainObjectType.CONTRACT, contractNo, "Vertrag " + contractNo, "Müller GmbH",
+                contractNo, null, "SEPA-Mandat nachhalten", "Mandat fehlt.", WorkItemStatus.OPEN, 2, RECEIVED,
+                dueAt, assignee, new String("Leistung-Team Nord"));
+    }
+}
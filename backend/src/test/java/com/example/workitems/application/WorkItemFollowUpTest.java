@@ -0,0 +1,113 @@
+package com.example.workitems.application;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.workitems.dto.WorkItemActionCommand;
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.BasketScope;
+import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemActionType;
+import com.example.workitems.model.WorkItemStatus;
+
+class WorkItemFollowUpTest {
+
+    private static final Instant START = Instant.parse("2024-06-03T08:30:00Z");
+    private static final Duration TICK = Duration.ofSeconds(1);
+
+    @Test
+    void wheelFiresEveryFollowUpOnceInItsTick() {
+        int items = 5_000;
+        FollowUpWheel wheel = new FollowUpWheel(items, TICK, START);
+        Random random = new Random(7);
+        long[] deadlines = new long[items];
+        for (int ordinal = 0; ordinal < items; ordinal++) {
+            // spread over several levels: up to about three days ahead
+            deadlines[ordinal] = 1 + random.nextInt(260_000);
+            wheel.schedule(ordinal, START.plusSeconds(deadlines[ordinal]));
+        }
+        for (int ordinal = 0; ordinal < items; ordinal += 3) {
+            deadlines[ordinal] = 1 + random.nextInt(260_000);
+            wheel.schedule(ordinal, START.plusSeconds(deadlines[ordinal]));
+        }
+        for (int ordinal = 1; ordinal < items; ordinal += 10) {
+            wheel.cancel(ordinal);
+            deadlines[ordinal] = -1;
+        }
+
+        int fired = 0;
+        for (long second = 1; second <= 260_000 && wheel.size() > 0; second += 1 + random.nextInt(90)) {
+            for (int ordinal : wheel.advance(START.plusSeconds(second))) {
+                assertTrue(deadlines[ordinal] > 0, "follow-up of " + ordinal + " was cancelled");
+                assertTrue(deadlines[ordinal] <= second, "follow-up of " + ordinal + " fired early");
+                deadlines[ordinal] = 0;
+                fired++;
+            }
+        }
+        assertArrayEquals(new int[0], wheel.advance(START.plusSeconds(300_000)));
+        assertEquals(items - items / 10, fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void wheelFiresPastDeadlinesOnTheNextTick() {
+        FollowUpWheel wheel = new FollowUpWheel(2, TICK, START);
+        wheel.schedule(0, START.minus(Duration.ofDays(30)));
+        wheel.schedule(1, START.plusMillis(1_500));
+
+        assertArrayEquals(new int[0], wheel.advance(START));
+        assertArrayEquals(new int[] { 0 }, wheel.advance(START.plusSeconds(1)));
+        assertArrayEquals(new int[] { 1 }, wheel.advance(START.plusSeconds(2)));
+    }
+
+    @Test
+    void serviceReopensRescheduledItemsWhenDue() {
+        WorkItemService service = new WorkItemService();
+        service.recover(WorkItemJournal.disabled());
+        Instant now = Instant.now();
+        service.reopenDueFollowUps(now.plusSeconds(1));
+        // the seed item blocked since 2024 is overdue and reopens on the first tick
+        assertEquals(WorkItemStatus.OPEN, service.getWorkItemById("WI-3004").status);
+
+        service.performWorkItemAction("WI-3001", reschedule(now.plus(Duration.ofHours(1))));
+        service.performWorkItemAction("WI-3003", reschedule(now.plus(Duration.ofHours(1))));
+        service.performWorkItemAction("WI-3003", reschedule(now.plus(Duration.ofHours(5))));
+        assertEquals(2, service.pendingFollowUps());
+
+        service.reopenDueFollowUps(now.plus(Duration.ofHours(2)));
+        WorkItemDto reopened = service.getWorkItemById("WI-3001");
+        assertEquals(WorkItemStatus.OPEN, reopened.status);
+        assertEquals(WorkItemStatus.BLOCKED, service.getWorkItemById("WI-3003").status);
+        assertEquals(1, service.pendingFollowUps());
+        assertEquals("Wiedervorlage",
+                service.getContextView(DomainObjectType.CUSTOMER, "K-1001").protocolEntries.get(0).source);
+        assertEquals(reopened.id, service.searchWorkItems(0, 10, null, null, true, null, WorkItemStatus.OPEN,
+                BasketScope.MY, null, DomainObjectType.CUSTOMER, "K-1001").items.get(0).id);
+
+        service.performWorkItemAction("WI-3003", command(WorkItemActionType.START));
+        assertEquals(0, service.pendingFollowUps());
+        service.reopenDueFollowUps(now.plus(Duration.ofHours(6)));
+        assertEquals(WorkItemStatus.IN_PROGRESS, service.getWorkItemById("WI-3003").status);
+    }
+
+    private static WorkItemActionCommand reschedule(Instant followUpAt) {
+        WorkItemActionCommand command = command(WorkItemActionType.RESCHEDULE);
+        command.followUpAt = OffsetDateTime.ofInstant(followUpAt, ZoneOffset.UTC);
+        return command;
+    }
+
+    private static WorkItemActionCommand command(WorkItemActionType action) {
+        WorkItemActionCommand command = new WorkItemActionCommand();
+        command.action = action;
+        return command;
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.workitems.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.workitems.dto.ContextViewDto;
+import com.example.workitems.dto.UploadDocumentCommand;
+import com.example.workitems.dto.WorkItemActionCommand;
+import com.example.workitems.dto.WorkItemBatchActionCommand;
+import com.example.workitems.dto.WorkItemBatchActionItem;
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemActionType;
+import com.example.workitems.model.WorkItemStatus;
+
+class WorkItemJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysJournalAfterCrash() {
+        WorkItemService before = open(1 << 20);
+        before.performWorkItemAction("WI-3001", forward("Eva"));
+        before.uploadDocument(DomainObjectType.CLAIM, "S-2001", upload("Gutachten.pdf"));
+        before.performWorkItemActions(batch(item("WI-3003", WorkItemActionType.COMPLETE),
+                item("WI-3002", WorkItemActionType.START)));
+
+        WorkItemService after = open(1 << 20);
+
+        assertSameState(before, after);
+        assertEquals("Eva", after.getWorkItemById("WI-3001").assignedTo);
+        assertEquals(WorkItemStatus.DONE, after.getWorkItemById("WI-3003").status);
+    }
+
+    @Test
+    void restartsAgainAfterTornRecordWasDiscarded() throws IOException {
+        WorkItemService before = open(1 << 20);
+        before.performWorkItemAction("WI-3001", forward("Eva"));
+        before.performWorkItemAction("WI-3002", command(WorkItemActionType.START));
+        before.performWorkItemAction("WI-3003", forward("Bob"));
+        tearTail(onlySegment());
+
+        WorkItemService recovered = open(1 << 20);
+        recovered.performWorkItemAction("WI-3001", command(WorkItemActionType.START));
+        assertEquals(2, files("journal-"), "appends after the torn record go to a new segment");
+
+        WorkItemService after = open(1 << 20);
+
+        assertSameState(recovered, after);
+        assertEquals(WorkItemStatus.IN_PROGRESS, after.getWorkItemById("WI-3001").status);
+        assertEquals("Bob", after.getWorkItemById("WI-3003").assignedTo);
+    }
+
+    @Test
+    void leavesStateUnchangedWhenJournalAppendFails() throws IOException {
+        Path lost = directory.resolve("lost");
+        WorkItemService service = new WorkItemService();
+        service.recover(WorkItemJournal.open(lost, 1 << 20, 1_000, true));
+        WorkItemDto before = service.getWorkItemById("WI-3001");
+        int protocolEntries = service.getContextView(before.objectType, before.objectId).protocolEntries.size();
+        // the first append has to create a segment, which fails once the directory is gone
+        Files.delete(lost);
+        Files.createFile(lost);
+
+        assertThrows(UncheckedIOException.class, () -> service.performWorkItemAction("WI-3001", forward("Eva")));
+        assertThrows(UncheckedIOException.class, () -> service.performWorkItemActions(
+                batch(item("WI-3001", WorkItemActionType.START))));
+
+        WorkItemDto after = service.getWorkItemById("WI-3001");
+        assertEquals(before.version, after.version);
+        assertEquals(before.assignedTo, after.assignedTo);
+        assertEquals(before.status, after.status);
+        assertEquals(protocolEntries, service.getContextView(before.objectType, before.objectId).protocolEntries.size());
+    }
+
+    @Test
+    void recoversFromSnapshotAndJournalTail() throws IOException {
+        WorkItemService before = open(256);
+        before.performWorkItemAction("WI-3001", forward("Eva"));
+        before.performWorkItemAction("WI-3003", forward("Bob"));
+        before.checkpoint();
+        assertEquals(1, files("snapshot-"));
+        assertEquals(1, files("journal-"), "segments before the snapshot are deleted");
+        before.performWorkItemAction("WI-3001", command(WorkItemActionType.START));
+        before.uploadDocument(DomainObjectType.CLAIM, "S-2001", upload("Nachtrag.pdf"));
+
+        WorkItemService after = open(256);
+
+        assertSameState(before, after);
+    }
+
+    @Test
+    void startsFromSeedStateAfterReset() {
+        WorkItemService before = open(1 << 20);
+        before.performWorkItemAction("WI-3001", forward("Eva"));
+        before.checkpoint();
+        before.resetState();
+        before.performWorkItemAction("WI-3002", command(WorkItemActionType.COMPLETE));
+
+        WorkItemService after = open(1 << 20);
+
+        assertSameState(before, after);
+        assertEquals("Alice", after.getWorkItemById("WI-3001").assignedTo);
+        assertEquals(WorkItemStatus.DONE, after.getWorkItemById("WI-3002").status);
+    }
+
+    @Test
+    void commitsWhileSnapshotIsWritten() throws IOException {
+        WorkItemService service = open(1 << 20);
+        service.performWorkItemAction("WI-3001", forward("Eva"));
+        WorkItemJournal.Snapshot captured = service.captureSnapshot();
+        List<WorkItemDto> items = new AbstractList<>() {
+            @Override
+            public WorkItemDto get(int ordinal) {
+                if (ordinal == size() / 2) {
+                    CompletableFuture.runAsync(() -> service.performWorkItemAction("WI-3001",
+                            command(WorkItemActionType.START))).orTimeout(5, TimeUnit.SECONDS).join();
+                }
+                return captured.items().get(ordinal);
+            }
+
+            @Override
+            public int size() {
+                return captured.items().size();
+            }
+        };
+        Path copy = Files.createDirectory(directory.resolve("copy"));
+        WorkItemJournal.open(copy, 1 << 20, 1_000, true).writeSnapshot(
+                new WorkItemJournal.Snapshot(captured.lsn(), items, captured.documents(), captured.protocol()));
+
+        WorkItemService restored = new WorkItemService();
+        restored.recover(WorkItemJournal.open(copy, 1 << 20, 1_000, true));
+
+        assertEquals(WorkItemStatus.IN_PROGRESS, service.getWorkItemById("WI-3001").status);
+        assertEquals(WorkItemStatus.OPEN, restored.getWorkItemById("WI-3001").status);
+        assertEquals("Eva", restored.getWorkItemById("WI-3001").assignedTo);
+    }
+
+    private WorkItemService open(long segmentSize) {
+        WorkItemService service = new WorkItemService();
+        service.recover(WorkItemJournal.open(directory, segmentSize, 1_000, true));
+        return service;
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("journal-")).findFirst().orElseThrow();
+        }
+    }
+
+    /**
+     * Writes the start of a record behind the last complete one, as a crash in the middle of an append leaves it.
+     */
+    private static void tearTail(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            for (int length = buffer.getInt(); length != 0; length = buffer.getInt()) {
+                buffer.position(buffer.position() + Integer.BYTES + length);
+            }
+            buffer.putInt(buffer.position() - Integer.BYTES, 64).putInt(0xBAD).put(new byte[] { 1, 2, 3 });
+            buffer.force();
+        }
+    }
+
+    private long files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+
+    private static void assertSameState(WorkItemService expected, WorkItemService actual) {
+        for (String id : List.of("WI-3001", "WI-3002", "WI-3003", "WI-3004", "WI-3005", "WI-3006")) {
+            WorkItemDto expectedItem = expected.getWorkItemById(id);
+            WorkItemDto actualItem = actual.getWorkItemById(id);
+            assertEquals(expectedItem.version, actualItem.version, id);
+            assertEquals(expectedItem.status, actualItem.status, id);
+            assertEquals(expectedItem.assignedTo, actualItem.assignedTo, id);
+            assertEquals(expectedItem.dueAt, actualItem.dueAt, id);
+        }
+        for (String objectId : List.of("K-1001", "S-2001", "V-1001")) {
+            DomainObjectType type = switch (objectId.charAt(0)) {
+                case 'K' -> DomainObjectType.CUSTOMER;
+                case 'S' -> DomainObjectType.CLAIM;
+                default -> DomainObjectType.CONTRACT;
+            };
+            ContextViewDto expectedContext = expected.getContextView(type, objectId);
+            ContextViewDto actualContext = actual.getContextView(type, objectId);
+            assertEquals(expectedContext.documents.stream().map(document -> document.id).toList(),
+                    actualContext.documents.stream().map(document -> document.id).toList(), objectId);
+            assertEquals(expectedContext.protocolEntries.stream().map(entry -> entry.id + entry.message).toList(),
+                    actualContext.protocolEntries.stream().map(entry -> entry.id + entry.message).toList(), objectId);
+        }
+    }
+
+    private static WorkItemActionCommand command(WorkItemActionType action) {
+        WorkItemActionCommand command = new WorkItemActionCommand();
+        command.action = action;
+        return command;
+    }
+
+    private static WorkItemActionCommand forward(String assignee) {
+        WorkItemActionCommand command = command(WorkItemActionType.FORWARD);
+        command.assignee = assignee;
+        return command;
+    }
+
+    private static WorkItemBatchActionItem item(String id, WorkItemActionType action) {
+        WorkItemBatchActionItem item = new WorkItemBatchActionItem();
+        item.id = id;
+        item.command = command(action);
+        return item;
+    }
+
+    private static WorkItemBatchActionCommand batch(WorkItemBatchActionItem... items) {
+        WorkItemBatchActionCommand batch = new WorkItemBatchActionCommand();
+        batch.actions = List.of(items);
+        return batch;
+    }
+
+    private static UploadDocumentCommand upload(String fileName) {
+        UploadDocumentCommand command = new UploadDocumentCommand();
+        command.fileName = fileName;
+        command.indexKeywords = List.of("Schaden");
+        return command;
+    }
+}
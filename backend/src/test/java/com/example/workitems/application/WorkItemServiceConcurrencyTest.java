@@ -0,0 +1,129 @@
+package com.example.workitems.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.workitems.dto.WorkItemActionCommand;
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.BasketScope;
+import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemActionType;
+import com.example.workitems.model.WorkItemStatus;
+
+class WorkItemServiceConcurrencyTest {
+
+    private static final List<String> TEAM_ITEMS = List.of("WI-3001", "WI-3002", "WI-3003", "WI-3006");
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int ACTIONS_PER_WRITER = 2_000;
+
+    private final WorkItemService service = new WorkItemService();
+
+    @BeforeEach
+    void startFromSeedState() {
+        service.recover(WorkItemJournal.disabled());
+    }
+
+    @Test
+    void searchNeverSeesHalfAppliedAction() throws Exception {
+        TEAM_ITEMS.forEach(id -> service.performWorkItemAction(id, command(WorkItemActionType.START)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Queue<String> violations = new ConcurrentLinkedQueue<>();
+        List<Future<?>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+        try {
+            for (int writer = 0; writer < WRITERS; writer++) {
+                int offset = writer;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < ACTIONS_PER_WRITER; i++) {
+                        String id = TEAM_ITEMS.get((i + offset) % TEAM_ITEMS.size());
+                        service.performWorkItemAction(id, i % 2 == 0 ? forwardToEva() : command(WorkItemActionType.START));
+                    }
+                }));
+            }
+            for (int reader = 0; reader < READERS; reader++) {
+                readers.add(executor.submit(() -> {
+                    Map<String, Long> lastSeenVersion = new HashMap<>();
+                    while (writing.get()) {
+                        for (WorkItemDto item : search(BasketScope.TEAM, null, null)) {
+                            checkPairing(item, violations);
+                            Long previous = lastSeenVersion.put(item.id, item.version);
+                            if (previous != null && previous > item.version) {
+                                violations.add(item.id + " went back from version " + previous + " to " + item.version);
+                            }
+                        }
+                        for (WorkItemDto item : search(BasketScope.MY, null, WorkItemStatus.IN_PROGRESS)) {
+                            checkPairing(item, violations);
+                            if (item.status != WorkItemStatus.IN_PROGRESS || !"Alice".equals(item.assignedTo)) {
+                                violations.add(item.id + " returned for MY/IN_PROGRESS as " + item.status + "/" + item.assignedTo);
+                            }
+                        }
+                        for (WorkItemDto item : search(BasketScope.COLLEAGUE, "Eva", WorkItemStatus.OPEN)) {
+                            checkPairing(item, violations);
+                        }
+                        service.getContextView(DomainObjectType.CLAIM, "S-2001");
+                    }
+                }));
+            }
+
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(violations.isEmpty(), () -> violations.size() + " violations, e.g. " + violations.peek());
+        long versions = TEAM_ITEMS.stream().mapToLong(id -> service.getWorkItemById(id).version).sum();
+        assertEquals(TEAM_ITEMS.size() + (long) WRITERS * ACTIONS_PER_WRITER, versions);
+    }
+
+    private List<WorkItemDto> search(BasketScope basket, String colleague, WorkItemStatus status) {
+        return service.searchWorkItems(0, 50, "receivedAt,desc", null, true, null, status, basket, colleague, null, null)
+                .items;
+    }
+
+    private static void checkPairing(WorkItemDto item, Queue<String> violations) {
+        if (!TEAM_ITEMS.contains(item.id)) {
+            return;
+        }
+        boolean started = item.status == WorkItemStatus.IN_PROGRESS && "Alice".equals(item.assignedTo);
+        boolean forwarded = item.status == WorkItemStatus.OPEN && "Eva".equals(item.assignedTo);
+        if (!started && !forwarded) {
+            violations.add(item.id + " observed half-applied as " + item.status + "/" + item.assignedTo);
+        }
+    }
+
+    private static WorkItemActionCommand command(WorkItemActionType action) {
+        WorkItemActionCommand command = new WorkItemActionCommand();
+        command.action = action;
+        return command;
+    }
+
+    private static WorkItemActionCommand forwardToEva() {
+        WorkItemActionCommand command = command(WorkItemActionType.FORWARD);
+        command.assignee = "Eva";
+        return command;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.workitems.application;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.workitems.dto.WorkItemDto;
+import com.example.workitems.model.DomainObjectType;
+import com.example.workitems.model.WorkItemStatus;
+
+import io.vertx.core.Vertx;
+
+class WorkItemStoreTest {
+
+    private static final OffsetDateTime RECEIVED = OffsetDateTime.of(2024, 6, 3, 8, 30, 0, 0, ZoneOffset.UTC);
+    private static final String[] ASSIGNEES = { "Alice", "Bob", "Eva", null };
+    private static final String[] TEAMS = { "Leistung-Team Nord", "Leistung-Team Süd" };
+    private static final String[] TITLES = { "SEPA-Mandat nachhalten", "Schaden prüfen", "Vertrag ändern" };
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldSearchPartitionsLikeOneIndex() {
+        List<WorkItemDto> items = items(3_000);
+        WorkItemStore single = new WorkItemStore(items, new WorkItemStore.Partitioning(1, Long.MAX_VALUE, null));
+        WorkItemStore partitioned = new WorkItemStore(items, new WorkItemStore.Partitioning(5, 0, executor));
+
+        WorkItemDto draft = WorkItemStore.draftOf(partitioned.get(partitioned.findOrdinal("WI-42")));
+        draft.status = WorkItemStatus.DONE;
+        draft.assignedTo = "Eva";
+        partitioned.commit(partitioned.findOrdinal("WI-42"), draft);
+        WorkItemDto same = WorkItemStore.draftOf(single.get(single.findOrdinal("WI-42")));
+        same.status = WorkItemStatus.DONE;
+        same.assignedTo = "Eva";
+        single.commit(single.findOrdinal("WI-42"), same);
+
+        List<WorkItemQuery> queries = List.of(
+                new WorkItemQuery(null, null, null, null, false, TEAMS[0], null),
+                new WorkItemQuery(WorkItemStatus.OPEN, null, null, "alice", true, null, null),
+                new WorkItemQuery(null, DomainObjectType.CLAIM, null, null, false, TEAMS[1], "schaden"),
+                new WorkItemQuery(null, null, "V-17", null, false, null, null),
+                new WorkItemQuery(WorkItemStatus.DONE, null, null, "Eva", false, null, "ma"));
+        for (WorkItemQuery query : queries) {
+            for (String sort : new String[] { "receivedAt,desc", "dueAt,asc", "priority,desc" }) {
+                WorkItemSort order = WorkItemSort.parse(sort);
+                assertSamePage(single.search(query, order, null, 0, 25, true, WorkItemMetrics.NONE),
+                        partitioned.search(query, order, null, 0, 25, true, WorkItemMetrics.NONE));
+                assertSamePage(single.search(query, order, null, 40, 10, true, WorkItemMetrics.NONE),
+                        partitioned.search(query, order, null, 40, 10, true, WorkItemMetrics.NONE));
+
+                WorkItemStore.SearchPage first = single.search(query, order, null, 0, 7, false, WorkItemMetrics.NONE);
+                if (first.last() != null) {
+                    PageCursor after = new PageCursor(order, first.last().key(), first.last().id());
+                    assertSamePage(single.search(query, order, after, 0, 7, false, WorkItemMetrics.NONE),
+                            partitioned.search(query, order, after, 0, 7, false, WorkItemMetrics.NONE));
+                }
+                assertEquals(ids(single.scan(query, order)), ids(partitioned.scan(query, order)));
+            }
+            assertEquals(single.count(query), partitioned.count(query));
+            if (query.text() != null) {
+                assertEquals(new HashSet<>(ids(single.rankByRelevance(query, WorkItemMetrics.NONE).iterator())),
+                        new HashSet<>(ids(partitioned.rankByRelevance(query, WorkItemMetrics.NONE).iterator())));
+            }
+        }
+        assertEquals(ids(single.contextItems(DomainObjectType.CONTRACT, "V-3").iterator()),
+                ids(partitioned.contextItems(DomainObjectType.CONTRACT, "V-3").iterator()));
+    }
+
+    @Test
+    void shouldSearchPartitionsInTurnOnEventLoop() throws Exception {
+        List<WorkItemDto> items = items(3_000);
+        WorkItemStore single = new WorkItemStore(items, new WorkItemStore.Partitioning(1, Long.MAX_VALUE, null));
+        ExecutorService stopped = Executors.newSingleThreadExecutor();
+        stopped.shutdown();
+        WorkItemStore partitioned = new WorkItemStore(items, new WorkItemStore.Partitioning(5, 0, stopped));
+        WorkItemQuery query = new WorkItemQuery(null, null, null, null, false, TEAMS[0], null);
+        WorkItemSort order = WorkItemSort.parse("dueAt,asc");
+
+        Vertx vertx = Vertx.vertx();
+        try {
+            CompletableFuture<WorkItemStore.SearchPage> page = new CompletableFuture<>();
+            vertx.getOrCreateContext().runOnContext(ignored -> {
+                try {
+                    page.complete(partitioned.search(query, order, null, 0, 25, true, WorkItemMetrics.NONE));
+                } catch (RuntimeException e) {
+                    page.completeExceptionally(e);
+                }
+            });
+            assertSamePage(single.search(query, order, null, 0, 25, true, WorkItemMetrics.NONE),
+                    page.get(5, TimeUnit.SECONDS));
+        } finally {
+            vertx.close().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void assertSamePage(WorkItemStore.SearchPage expected, WorkItemStore.SearchPage actual) {
+        assertEquals(ids(expected.items().iterator()), ids(actual.items().iterator()));
+        assertEquals(expected.total(), actual.total());
+        assertEquals(expected.hasMore(), actual.hasMore());
+    }
+
+    private static List<String> ids(Iterator<WorkItemDto> items) {
+        List<String> ids = new ArrayList<>();
+        items.forEachRemaining(item -> ids.add(item.id));
+        return ids;
+    }
+
+    private static List<WorkItemDto> items(int count) {
+        Random random = new Random(7);
+        List<WorkItemDto> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean claim = random.nextInt(3) == 0;
+            String objectId = (claim ? "S-" : "V-") + random.nextInt(400);
+            WorkItemDto item = new WorkItemDto("WI-" + i, claim ? DomainObjectType.CLAIM : DomainObjectType.CONTRACT,
+                    objectId, "Objekt " + objectId, "Kunde " + random.nextInt(50), claim ? null : objectId,
+                    claim ? objectId : null, TITLES[random.nextInt(TITLES.length)], "Beschreibung " + i,
+                    WorkItemStatus.values()[random.nextInt(WorkItemStatus.values().length)], random.nextInt(5),
+                    RECEIVED.plusMinutes(random.nextInt(10_000)),
+                    random.nextBoolean() ? null : RECEIVED.plusDays(random.nextInt(30)),
+                    ASSIGNEES[random.nextInt(ASSIGNEES.length)], TEAMS[random.nextInt(TEAMS.length)]);
+            items.add(item);
+        }
+        return items;
+    }
+}
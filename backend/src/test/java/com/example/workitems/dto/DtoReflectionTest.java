@@ -0,0 +1,50 @@
+package com.example.workitems.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * A native executable only sees the properties of classes registered for reflection. Request and response bodies
+ * are found through the resource signatures, but change events, projected responses and subclasses of the declared
+ * types are not, so every DTO is registered where it is declared.
+ */
+class DtoReflectionTest {
+
+    @Test
+    void everyDtoIsRegisteredForReflection() throws IOException, URISyntaxException {
+        Path directory = Path.of(WorkItemDto.class.getResource(WorkItemDto.class.getSimpleName() + ".class").toURI())
+                .getParent();
+        List<String> unregistered;
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Class<?>> dtos = files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(".class") && !name.contains("$"))
+                    .<Class<?>>map(name -> load(WorkItemDto.class.getPackageName() + "." + name.replace(".class", "")))
+                    .toList();
+            assertTrue(dtos.size() > 1);
+            unregistered = dtos.stream()
+                    .filter(dto -> !dto.isAnnotationPresent(RegisterForReflection.class))
+                    .map(Class::getSimpleName)
+                    .toList();
+        }
+        assertEquals(List.of(), unregistered);
+    }
+
+    private static Class<?> load(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -44,7 +44,6 @@ export function DomainObjectDetailPage() {
     await uploadMutation.mutateAsync({
       fileName: values.fileName,
       mimeType: values.mimeType,
-      sizeInBytes: Math.floor(Math.random() * 200000) + 5000,
       indexKeywords: values.keywords
         .split(',')
         .map((value) => value.trim())
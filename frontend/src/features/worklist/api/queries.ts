@@ -1,4 +1,5 @@
-import { useQuery } from '@tanstack/react-query';
+import { useEffect } from 'react';
+import { useQuery, useQueryClient } from '@tanstack/react-query';
 import { BasketScope, searchWorkItems, type DomainObjectType, type WorkItemStatus } from '../../../api/workItems';
 
 export interface WorklistFilters {
@@ -29,6 +30,33 @@ export function useWorklistQuery(filters: WorklistFilters) {
   });
 }
 
+// Coalesces bursts of changes (e.g. a batch action) into one refetch instead of one per event.
+const CHANGE_REFETCH_DELAY_MS = 250;
+
+// Refetches the basket when the server reports a change instead of polling; EventSource reconnects with Last-Event-ID.
+export function useWorklistChanges(basket: BasketScope, colleague?: string) {
+  const queryClient = useQueryClient();
+
+  useEffect(() => {
+    if (basket === BasketScope.COLLEAGUE && !colleague) return undefined;
+    const params = new URLSearchParams({ basket });
+    if (colleague) params.set('colleague', colleague);
+    const source = new EventSource(`/api/work-items/changes?${params.toString()}`);
+    let pending: ReturnType<typeof setTimeout> | undefined;
+    source.onmessage = () => {
+      if (pending !== undefined) return;
+      pending = setTimeout(() => {
+        pending = undefined;
+        queryClient.invalidateQueries({ queryKey: ['work-items'] });
+      }, CHANGE_REFETCH_DELAY_MS);
+    };
+    return () => {
+      source.close();
+      clearTimeout(pending);
+    };
+  }, [basket, colleague, queryClient]);
+}
+
 export function useGlobalWorkItemSearchQuery(filters: GlobalSearchFilters, enabled: boolean) {
   return useQuery({
     queryKey: globalSearchQueryKey(filters),
@@ -29,7 +29,7 @@ import {
   WORK_ITEM_STATUS_COLOR_MAP,
   WORK_ITEM_STATUS_OPTIONS,
 } from '../../../shared/constants/workItemDisplay';
-import { useGlobalWorkItemSearchQuery, useWorklistQuery } from '../api/queries';
+import { useGlobalWorkItemSearchQuery, useWorklistChanges, useWorklistQuery } from '../api/queries';
 
 const basketFilterSchema = z.object({
   status: z.enum(['OPEN', 'IN_PROGRESS', 'BLOCKED', 'DONE']).or(z.literal('')).default(''),
@@ -76,6 +76,7 @@ export function WorklistPage() {
     basket,
     colleague: basket === BasketScope.COLLEAGUE ? basketFilters.colleague : undefined,
   });
+  useWorklistChanges(basket, basket === BasketScope.COLLEAGUE ? basketFilters.colleague : undefined);
 
   const globalSearchQuery = useGlobalWorkItemSearchQuery(
     {